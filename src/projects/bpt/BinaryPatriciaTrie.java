@@ -1,6 +1,10 @@
 package projects.bpt;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * <p>BinaryPatriciaTrie is a Patricia Trie over the binary alphabet 0, 1. By restricting themselves
@@ -12,16 +16,321 @@ import java.util.Iterator;
  */
 public class BinaryPatriciaTrie {
 
-    private static RuntimeException UNIMPL_METHOD = new RuntimeException("Implement this method!");
-
     /* *************************************************************************
      ************** PLACE YOUR PRIVATE METHODS AND FIELDS HERE: ****************
      ***************************************************************************/
 
+    /* The number of descents that searchBatch() keeps in flight at any given time. Every lane
+     * follows a different key, so the loads issued by consecutive lanes do not depend on each
+     * other and the CPU is free to overlap their cache misses. */
+    private static final int BATCH_LANES = 16;
+
+    /* Parallel Hamming searches and set operations fork a task for every branch in the topmost levels of the trie. */
+    private static final int FORK_DEPTH = 8;
+
+    private Node root;
+    private int count;
+
+    /* A node of the trie. The "bits" of a node are the compressed edge label that leads to it from its
+     * parent, so that the first bit of the label is the branching bit which selects the node. The root
+     * is the only node with an empty label. Inner nodes which are not keys always have two children. */
+    static final class Node {
+
+        String bits;
+        boolean isKey;
+        Node left, right;
+
+        Node(String bits, boolean isKey, Node left, Node right){
+            this.bits = bits;
+            this.isKey = isKey;
+            this.left = left;
+            this.right = right;
+        }
+
+        Node(String bits, boolean isKey){
+            this(bits, isKey, null, null);
+        }
+
+        Node child(char bit){
+            return bit == '0' ? left : right;
+        }
+
+        void setChild(Node child){
+            if(child.bits.charAt(0) == '0')
+                left = child;
+            else
+                right = child;
+        }
+
+        /* Absorbs the only child of this node into it, so that the reference from our parent stays valid. */
+        void mergeWithChild(){
+            Node child = (left != null) ? left : right;
+            bits = bits + child.bits;
+            isKey = child.isKey;
+            left = child.left;
+            right = child.right;
+        }
+    }
+
+    /* The length of the longest common prefix of key[from...] and bits. */
+    private static int commonPrefix(CharSequence key, int from, String bits){
+        int max = Math.min(key.length() - from, bits.length()), i = 0;
+        while(i < max && key.charAt(from + i) == bits.charAt(i))
+            i++;
+        return i;
+    }
+
+    private static void inorder(Node node, StringBuilder path, ArrayList<String> keys){
+        int mark = path.length();
+        path.append(node.bits);
+        if(node.left != null)
+            inorder(node.left, path, keys);
+        if(node.isKey)
+            keys.add(path.toString());
+        if(node.right != null)
+            inorder(node.right, path, keys);
+        path.setLength(mark);
+    }
+
+    /* Collects, in symmetric order, every key below node which has the same length as key and
+     * differs from it in at most budget positions, given that key[0...pos) has already been matched. */
+    private static void withinDistance(Node node, String key, int pos, int budget, StringBuilder path, List<String> out){
+        String bits = node.bits;
+        if(pos + bits.length() > key.length()) // Every key below is longer than the query.
+            return;
+        for(int i = 0; i < bits.length(); i++)
+            if(bits.charAt(i) != key.charAt(pos + i) && --budget < 0) // Mismatch budget spent: prune the subtree.
+                return;
+        int mark = path.length();
+        path.append(bits);
+        pos += bits.length();
+        if(pos == key.length()){
+            if(node.isKey)
+                out.add(path.toString());
+        } else {
+            if(node.left != null)
+                withinDistance(node.left, key, pos, budget, path, out);
+            if(node.right != null)
+                withinDistance(node.right, key, pos, budget, path, out);
+        }
+        path.setLength(mark);
+    }
+
+    /* The parallel flavor of withinDistance(): the two subtrees of every node in the
+     * topmost FORK_DEPTH levels are searched by separate tasks. */
+    private static final class DistanceTask extends RecursiveTask<List<String>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Node node;
+        private final String key, prefix;
+        private final int pos, budget, depth;
+
+        DistanceTask(Node node, String key, int pos, int budget, String prefix, int depth){
+            this.node = node;
+            this.key = key;
+            this.pos = pos;
+            this.budget = budget;
+            this.prefix = prefix;
+            this.depth = depth;
+        }
+
+        @Override
+        protected List<String> compute(){
+            ArrayList<String> out = new ArrayList<String>();
+            if(depth >= FORK_DEPTH){
+                withinDistance(node, key, pos, budget, new StringBuilder(prefix), out);
+                return out;
+            }
+            String bits = node.bits;
+            if(pos + bits.length() > key.length())
+                return out;
+            int remaining = budget;
+            for(int i = 0; i < bits.length(); i++)
+                if(bits.charAt(i) != key.charAt(pos + i) && --remaining < 0)
+                    return out;
+            String path = prefix + bits;
+            int next = pos + bits.length();
+            if(next == key.length()){
+                if(node.isKey)
+                    out.add(path);
+                return out;
+            }
+            DistanceTask leftTask = null;
+            if(node.left != null){
+                leftTask = new DistanceTask(node.left, key, next, remaining, path, depth + 1);
+                leftTask.fork();
+            }
+            List<String> rightKeys = (node.right == null) ? null :
+                    new DistanceTask(node.right, key, next, remaining, path, depth + 1).compute();
+            if(leftTask != null)
+                out.addAll(leftTask.join());
+            if(rightKeys != null)
+                out.addAll(rightKeys);
+            return out;
+        }
+    }
+
+    /* The three set operations differ only in which keys they keep: those in both tries, and those in just one. */
+    private enum SetOperation {
+        UNION(true, true, true), INTERSECTION(true, false, false), DIFFERENCE(false, true, false);
+
+        final boolean keepsBoth, keepsFirstOnly, keepsSecondOnly;
+
+        SetOperation(boolean keepsBoth, boolean keepsFirstOnly, boolean keepsSecondOnly){
+            this.keepsBoth = keepsBoth;
+            this.keepsFirstOnly = keepsFirstOnly;
+            this.keepsSecondOnly = keepsSecondOnly;
+        }
 
+        boolean keeps(boolean inFirst, boolean inSecond){
+            if(inFirst)
+                return inSecond ? keepsBoth : keepsFirstOnly;
+            return inSecond && keepsSecondOnly;
+        }
+    }
+
+    /* A fresh copy of the subtree below node, whose label starts at offset. */
+    private static Node copy(Node node, int offset){
+        return new Node(node.bits.substring(offset), node.isKey,
+                node.left == null ? null : copy(node.left, 0), node.right == null ? null : copy(node.right, 0));
+    }
+
+    private static int countKeys(Node node){
+        if(node == null)
+            return 0;
+        return (node.isKey ? 1 : 0) + countKeys(node.left) + countKeys(node.right);
+    }
+
+    /* Walks the subtrees below a and b simultaneously, starting at offsets ai and bi of their labels, which
+     * correspond to the same key prefix. Returns the (fresh) subtree holding the keys that the operation keeps,
+     * or null if there are none. Wherever the two tries part ways, the subtree that is only in one of them is
+     * either copied wholesale or skipped without being looked at. The children of the nodes in the topmost
+     * forkDepth levels are combined by separate tasks. */
+    private static Node combine(Node a, int ai, Node b, int bi, SetOperation op, boolean isRoot, int forkDepth){
+        if(a == null)
+            return op.keepsSecondOnly ? copy(b, bi) : null;
+        if(b == null)
+            return op.keepsFirstOnly ? copy(a, ai) : null;
+        String aBits = a.bits, bBits = b.bits;
+        int from = ai;
+        while(ai < aBits.length() && bi < bBits.length() && aBits.charAt(ai) == bBits.charAt(bi)){
+            ai++;
+            bi++;
+        }
+        String label = aBits.substring(from, ai);
+        boolean aEnds = (ai == aBits.length()), bEnds = (bi == bBits.length());
+        Node left, right;
+        if(!aEnds && !bEnds){ // The tries diverge in the middle of both labels.
+            Node fromA = op.keepsFirstOnly ? copy(a, ai) : null, fromB = op.keepsSecondOnly ? copy(b, bi) : null;
+            boolean aGoesLeft = aBits.charAt(ai) == '0';
+            return normalize(label, false, aGoesLeft ? fromA : fromB, aGoesLeft ? fromB : fromA, isRoot);
+        }
+        boolean isKey = op.keeps(aEnds && a.isKey, bEnds && b.isKey);
+
+        // Where a label goes on, the node itself stands in for the child on the side of its next bit.
+        Node aLeft = aEnds ? a.left : (aBits.charAt(ai) == '0' ? a : null);
+        Node aRight = aEnds ? a.right : (aBits.charAt(ai) == '1' ? a : null);
+        Node bLeft = bEnds ? b.left : (bBits.charAt(bi) == '0' ? b : null);
+        Node bRight = bEnds ? b.right : (bBits.charAt(bi) == '1' ? b : null);
+        int aLeftOffset = aEnds ? 0 : ai, aRightOffset = aLeftOffset, bLeftOffset = bEnds ? 0 : bi, bRightOffset = bLeftOffset;
+        boolean hasLeft = aLeft != null || bLeft != null, hasRight = aRight != null || bRight != null;
+        if(forkDepth > 0 && hasLeft && hasRight){
+            CombineTask leftTask = new CombineTask(aLeft, aLeftOffset, bLeft, bLeftOffset, op, false, forkDepth - 1);
+            leftTask.fork();
+            right = combine(aRight, aRightOffset, bRight, bRightOffset, op, false, forkDepth - 1);
+            left = leftTask.join();
+        } else {
+            left = hasLeft ? combine(aLeft, aLeftOffset, bLeft, bLeftOffset, op, false, forkDepth - 1) : null;
+            right = hasRight ? combine(aRight, aRightOffset, bRight, bRightOffset, op, false, forkDepth - 1) : null;
+        }
+        return normalize(label, isKey, left, right, isRoot);
+    }
+
+    /* Builds the node for a label, or merges it into its only child (or drops it) if it would not be a key. */
+    private static Node normalize(String label, boolean isKey, Node left, Node right, boolean isRoot){
+        if(isRoot || isKey || (left != null && right != null))
+            return new Node(label, isKey, left, right);
+        if(left == null && right == null)
+            return null;
+        Node child = (left != null) ? left : right;
+        child.bits = label + child.bits;
+        return child;
+    }
+
+    private static final class CombineTask extends RecursiveTask<Node> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Node a, b;
+        private final int ai, bi, forkDepth;
+        private final SetOperation op;
+        private final boolean isRoot;
 
+        CombineTask(Node a, int ai, Node b, int bi, SetOperation op, boolean isRoot, int forkDepth){
+            this.a = a;
+            this.ai = ai;
+            this.b = b;
+            this.bi = bi;
+            this.op = op;
+            this.isRoot = isRoot;
+            this.forkDepth = forkDepth;
+        }
 
-    /* *********************************************************************
+        @Override
+        protected Node compute(){
+            return combine(a, ai, b, bi, op, isRoot, forkDepth);
+        }
+    }
+
+    private BinaryPatriciaTrie combine(BinaryPatriciaTrie other, SetOperation op, ForkJoinPool pool){
+        Node newRoot = (pool == null) ? combine(root, 0, other.root, 0, op, true, 0)
+                : pool.invoke(new CombineTask(root, 0, other.root, 0, op, true, FORK_DEPTH));
+        return new BinaryPatriciaTrie(newRoot, countKeys(newRoot));
+    }
+
+    /* Accumulates the histograms of getStatistics(), growing them as deeper leaves and longer labels show up. */
+    private static final class StatisticsCollector {
+
+        long[] leafDepths = new long[32], skipLengths = new long[32];
+        int nodes;
+        long bytes;
+
+        static long[] increment(long[] histogram, int index){
+            if(index >= histogram.length){
+                long[] bigger = new long[Math.max(index + 1, 2 * histogram.length)];
+                System.arraycopy(histogram, 0, bigger, 0, histogram.length);
+                histogram = bigger;
+            }
+            histogram[index]++;
+            return histogram;
+        }
+
+        void visit(Node node, int depth){
+            nodes++;
+            bytes += TrieStatistics.nodeBytes(node.bits.length());
+            if(depth > 0)
+                skipLengths = increment(skipLengths, node.bits.length());
+            // The root of an empty trie is childless, but holds no key, so it is no leaf.
+            if(node.left == null && node.right == null && (depth > 0 || node.isKey))
+                leafDepths = increment(leafDepths, depth);
+            if(node.left != null)
+                visit(node.left, depth + 1);
+            if(node.right != null)
+                visit(node.right, depth + 1);
+        }
+
+        static long[] trim(long[] histogram){
+            int length = histogram.length;
+            while(length > 0 && histogram[length - 1] == 0)
+                length--;
+            long[] trimmed = new long[length];
+            System.arraycopy(histogram, 0, trimmed, 0, length);
+            return trimmed;
+        }
+    }
+
+    /* ********************************************************************
      ************************* PUBLIC (INTERFACE) METHODS *******************
      **********************************************************************/
 
@@ -29,9 +338,15 @@ public class BinaryPatriciaTrie {
     /**
      * Simple constructor that will initialize the internals of <tt>this</tt>.
      */
-    BinaryPatriciaTrie() {
-        throw UNIMPL_METHOD;
+    public BinaryPatriciaTrie() {
+        root = new Node("", false);
+        count = 0;
+    }
 
+    /* Wraps an already built tree of nodes; used by the bulk loader. */
+    BinaryPatriciaTrie(Node root, int count) {
+        this.root = root;
+        this.count = count;
     }
 
     /**
@@ -41,7 +356,80 @@ public class BinaryPatriciaTrie {
      * @return true if and only if key is in the trie, false otherwise.
      */
     public boolean search(String key) {
-        throw UNIMPL_METHOD;
+        Node current = root;
+        int pos = 0;
+        while(true){
+            String bits = current.bits;
+            if(!key.regionMatches(pos, bits, 0, bits.length()))
+                return false;
+            pos += bits.length();
+            if(pos == key.length())
+                return current.isKey;
+            current = current.child(key.charAt(pos));
+            if(current == null)
+                return false;
+        }
+    }
+
+    /**
+     * <p>Searches the trie for every one of the provided <tt>keys</tt>, storing the outcome of the search for
+     * <tt>keys[i]</tt> in <tt>results[i]</tt>. The outcome is exactly the same as the one of calling
+     * {@link #search(String)} for every key in turn.</p>
+     *
+     * <p>The difference lies in how the descents are scheduled: instead of walking the trie all the way down
+     * for one key before starting with the next, several descents are advanced one node at a time in a round-robin
+     * fashion, and a finished descent immediately makes room for the next key. Since every descent touches
+     * memory that is unrelated to the others, the cache misses of a large trie are no longer paid one after another.</p>
+     *
+     * @param keys The String keys to look for.
+     * @param results An array at least as long as <tt>keys</tt>, which will hold the search outcomes.
+     * @throws IllegalArgumentException If <tt>results</tt> is shorter than <tt>keys</tt>.
+     * @see #search(String)
+     */
+    public void searchBatch(String[] keys, boolean[] results) {
+        if(results.length < keys.length)
+            throw new IllegalArgumentException("searchBatch(): results array can hold " + results.length +
+                    " outcomes, but " + keys.length + " keys were provided.");
+        Node[] nodes = new Node[BATCH_LANES];
+        int[] positions = new int[BATCH_LANES], owners = new int[BATCH_LANES];
+        int next = 0, active = 0;
+        for(int lane = 0; lane < BATCH_LANES && next < keys.length; lane++, active++){
+            nodes[lane] = root;
+            owners[lane] = next++;
+        }
+        while(active > 0){
+            for(int lane = 0; lane < BATCH_LANES; lane++){
+                Node current = nodes[lane];
+                if(current == null)
+                    continue;
+                String key = keys[owners[lane]], bits = current.bits;
+                int pos = positions[lane];
+                boolean found = false;
+                if(key.regionMatches(pos, bits, 0, bits.length())){
+                    pos += bits.length();
+                    if(pos == key.length())
+                        found = current.isKey;
+                    else {
+                        Node child = current.child(key.charAt(pos));
+                        if(child != null){ // Descent goes on in the next round.
+                            nodes[lane] = child;
+                            positions[lane] = pos;
+                            continue;
+                        }
+                    }
+                }
+                // The descent is over: record its outcome and feed the lane with the next key, if any.
+                results[owners[lane]] = found;
+                if(next < keys.length){
+                    nodes[lane] = root;
+                    positions[lane] = 0;
+                    owners[lane] = next++;
+                } else {
+                    nodes[lane] = null;
+                    active--;
+                }
+            }
+        }
     }
 
 
@@ -52,10 +440,158 @@ public class BinaryPatriciaTrie {
      * @return true if and only if the key was not already in the trie, false otherwise.
      */
     public boolean insert(String key) {
-        throw UNIMPL_METHOD;
+        return insert((CharSequence)key);
+    }
+
+    /* The actual insertion, which only needs random access to the bits of the key. This allows the bulk loader
+     * to insert keys straight out of a memory-mapped file; a String is only built for the label of a new leaf. */
+    boolean insert(CharSequence key){
+        Node current = root;
+        int pos = 0;
+        while(true){
+            String bits = current.bits;
+            int common = commonPrefix(key, pos, bits);
+            if(common < bits.length()){ // Key diverges from (or ends within) the label: split the node.
+                Node tail = new Node(bits.substring(common), current.isKey, current.left, current.right);
+                current.bits = bits.substring(0, common);
+                current.left = current.right = null;
+                current.setChild(tail);
+                pos += common;
+                current.isKey = (pos == key.length());
+                if(!current.isKey)
+                    current.setChild(new Node(key.subSequence(pos, key.length()).toString(), true));
+                count++;
+                return true;
+            }
+            pos += common;
+            if(pos == key.length()){
+                if(current.isKey)
+                    return false;
+                current.isKey = true;
+                count++;
+                return true;
+            }
+            Node child = current.child(key.charAt(pos));
+            if(child == null){
+                current.setChild(new Node(key.subSequence(pos, key.length()).toString(), true));
+                count++;
+                return true;
+            }
+            current = child;
+        }
+    }
+
+
+
+    /**
+     * <p>Finds every key of the trie which is within <i>Hamming distance</i> <tt>distance</tt> of <tt>key</tt>,
+     * that is, every key of the same length as <tt>key</tt> which differs from it in at most <tt>distance</tt> bit
+     * positions. A subtree is abandoned as soon as the bits on the way to it have used up the mismatch budget,
+     * or as soon as its keys are known to be longer than <tt>key</tt>.</p>
+     *
+     * @param key The query key.
+     * @param distance The maximum number of differing bits.
+     * @return A {@link List} of the matching keys, in symmetric order.
+     * @throws IllegalArgumentException If <tt>distance</tt> is negative.
+     * @see #searchWithinDistance(String, int, ForkJoinPool)
+     */
+    public List<String> searchWithinDistance(String key, int distance) {
+        if(distance < 0)
+            throw new IllegalArgumentException("searchWithinDistance(): distance should be non-negative, was " + distance + ".");
+        ArrayList<String> out = new ArrayList<String>();
+        withinDistance(root, key, 0, distance, new StringBuilder(), out);
+        return out;
+    }
+
+    /**
+     * Same as {@link #searchWithinDistance(String, int)}, except that the branches in the topmost levels of the
+     * trie are searched in parallel by the provided {@link ForkJoinPool}. The trie should not be modified while the
+     * search is running.
+     *
+     * @param key The query key.
+     * @param distance The maximum number of differing bits.
+     * @param pool The {@link ForkJoinPool} to run the search in.
+     * @return A {@link List} of the matching keys, in symmetric order.
+     * @throws IllegalArgumentException If <tt>distance</tt> is negative.
+     */
+    public List<String> searchWithinDistance(String key, int distance, ForkJoinPool pool) {
+        if(distance < 0)
+            throw new IllegalArgumentException("searchWithinDistance(): distance should be non-negative, was " + distance + ".");
+        return pool.invoke(new DistanceTask(root, key, 0, distance, "", 0));
+    }
+
+    /**
+     * Returns a new trie with every key that is contained in <tt>this</tt>, in <tt>other</tt>, or in both. Both
+     * tries are walked simultaneously, and a subtree that only exists in one of them is copied without any
+     * further comparisons. Neither <tt>this</tt> nor <tt>other</tt> is modified, and the new trie shares no
+     * nodes with them.
+     *
+     * @param other The trie to unite <tt>this</tt> with.
+     * @return The union of the two tries.
+     */
+    public BinaryPatriciaTrie union(BinaryPatriciaTrie other) {
+        return combine(other, SetOperation.UNION, null);
+    }
+
+    /**
+     * Same as {@link #union(BinaryPatriciaTrie)}, except that the topmost independent subtrees are combined in
+     * parallel by the provided {@link ForkJoinPool}. Neither trie should be modified while the operation is running.
+     *
+     * @param other The trie to unite <tt>this</tt> with.
+     * @param pool The {@link ForkJoinPool} to run the operation in.
+     * @return The union of the two tries.
+     */
+    public BinaryPatriciaTrie union(BinaryPatriciaTrie other, ForkJoinPool pool) {
+        return combine(other, SetOperation.UNION, pool);
+    }
+
+    /**
+     * Returns a new trie with every key that is contained in both <tt>this</tt> and <tt>other</tt>. Both tries are
+     * walked simultaneously, and wherever their bit prefixes diverge, the subtrees below are skipped altogether,
+     * so the work done depends on the common structure of the tries rather than on their sizes.
+     *
+     * @param other The trie to intersect <tt>this</tt> with.
+     * @return The intersection of the two tries.
+     */
+    public BinaryPatriciaTrie intersection(BinaryPatriciaTrie other) {
+        return combine(other, SetOperation.INTERSECTION, null);
     }
 
+    /**
+     * Same as {@link #intersection(BinaryPatriciaTrie)}, except that the topmost independent subtrees are combined
+     * in parallel by the provided {@link ForkJoinPool}. Neither trie should be modified while the operation is running.
+     *
+     * @param other The trie to intersect <tt>this</tt> with.
+     * @param pool The {@link ForkJoinPool} to run the operation in.
+     * @return The intersection of the two tries.
+     */
+    public BinaryPatriciaTrie intersection(BinaryPatriciaTrie other, ForkJoinPool pool) {
+        return combine(other, SetOperation.INTERSECTION, pool);
+    }
+
+    /**
+     * Returns a new trie with every key of <tt>this</tt> that is not contained in <tt>other</tt>. Subtrees of
+     * <tt>other</tt> which diverge from <tt>this</tt> are skipped, and subtrees of <tt>this</tt> which diverge from
+     * <tt>other</tt> are copied without any further comparisons.
+     *
+     * @param other The trie whose keys should be left out.
+     * @return The difference of the two tries.
+     */
+    public BinaryPatriciaTrie difference(BinaryPatriciaTrie other) {
+        return combine(other, SetOperation.DIFFERENCE, null);
+    }
 
+    /**
+     * Same as {@link #difference(BinaryPatriciaTrie)}, except that the topmost independent subtrees are combined
+     * in parallel by the provided {@link ForkJoinPool}. Neither trie should be modified while the operation is running.
+     *
+     * @param other The trie whose keys should be left out.
+     * @param pool The {@link ForkJoinPool} to run the operation in.
+     * @return The difference of the two tries.
+     */
+    public BinaryPatriciaTrie difference(BinaryPatriciaTrie other, ForkJoinPool pool) {
+        return combine(other, SetOperation.DIFFERENCE, pool);
+    }
 
     /**
      * Deletes <tt>key</tt> from the trie.
@@ -64,7 +600,38 @@ public class BinaryPatriciaTrie {
      * @return True if and only if key was contained by the trie before we attempted deletion, false otherwise.
      */
     public boolean delete(String key) {
-        throw UNIMPL_METHOD;
+        Node parent = null, current = root;
+        int pos = 0;
+        while(true){
+            String bits = current.bits;
+            if(!key.regionMatches(pos, bits, 0, bits.length()))
+                return false;
+            pos += bits.length();
+            if(pos == key.length())
+                break;
+            parent = current;
+            current = current.child(key.charAt(pos));
+            if(current == null)
+                return false;
+        }
+        if(!current.isKey)
+            return false;
+        current.isKey = false;
+        count--;
+        if(current == root)
+            return true;
+
+        // Restore the invariant that non-key inner nodes have exactly two children.
+        if(current.left == null && current.right == null){
+            if(parent.left == current)
+                parent.left = null;
+            else
+                parent.right = null;
+            if(parent != root && !parent.isKey)
+                parent.mergeWithChild();
+        } else if(current.left == null || current.right == null)
+            current.mergeWithChild();
+        return true;
     }
 
 
@@ -74,7 +641,7 @@ public class BinaryPatriciaTrie {
      * @return true if and only if {@link #getSize()} == 0, false otherwise.
      */
     public boolean isEmpty() {
-        throw UNIMPL_METHOD;
+        return count == 0;
     }
 
     /**
@@ -83,7 +650,20 @@ public class BinaryPatriciaTrie {
      * @return The number of keys in the tree.
      */
     public int getSize() {
-        throw UNIMPL_METHOD;
+        return count;
+    }
+
+    /**
+     * Walks the whole trie and gathers statistics about its shape: the distribution of leaf depths and label
+     * lengths, the number of nodes per key and an estimate of the bytes spent per key.
+     *
+     * @return A {@link TrieStatistics} snapshot of the current shape of the trie.
+     */
+    public TrieStatistics getStatistics() {
+        StatisticsCollector collector = new StatisticsCollector();
+        collector.visit(root, 0);
+        return new TrieStatistics(count, collector.nodes, collector.bytes,
+                StatisticsCollector.trim(collector.leafDepths), StatisticsCollector.trim(collector.skipLengths));
     }
 
     /**
@@ -105,7 +685,9 @@ public class BinaryPatriciaTrie {
      * order</i>.
      */
     public Iterator<String> inorderTraversal() {
-        throw UNIMPL_METHOD;
+        ArrayList<String> keys = new ArrayList<String>(count);
+        inorder(root, new StringBuilder(), keys);
+        return keys.iterator();
     }
 
 
@@ -120,6 +702,14 @@ public class BinaryPatriciaTrie {
      * only 001 and 010, <b>010</b> would be the longest string.</p>
      */
     public String getLongest() {
-        throw UNIMPL_METHOD;
+        // Keys of equal length come out of an inorder traversal in ascending value, so the last one wins ties.
+        String longest = "";
+        Iterator<String> keys = inorderTraversal();
+        while(keys.hasNext()){
+            String key = keys.next();
+            if(key.length() >= longest.length())
+                longest = key;
+        }
+        return longest;
     }
-}
\ No newline at end of file
+}
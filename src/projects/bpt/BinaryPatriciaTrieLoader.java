@@ -0,0 +1,223 @@
+package projects.bpt;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * <p><tt>BinaryPatriciaTrieLoader</tt> fills a {@link BinaryPatriciaTrie} from a text file with one binary key per line.
+ * The file is read through a memory-mapped {@link FileChannel}, one window of up to a gigabyte at a time, and its bytes
+ * are parsed in place, a small chunk at a time: no line is ever turned into a {@link String}, and the only Strings
+ * allocated are the labels of the trie nodes themselves.</p>
+ *
+ * <p>As long as the keys come in ascending lexicographic order, the trie is built bottom-up along its rightmost path,
+ * in time linear in the size of the file and without a single descent from the root. The first key that is out of
+ * order switches the loader to plain insertions into the trie built so far, so unsorted files are loaded correctly,
+ * just not as fast.</p>
+ *
+ * <p>Lines may end in <tt>\n</tt> or <tt>\r\n</tt>. Empty lines are ignored; any other character than <tt>0</tt> and
+ * <tt>1</tt> makes the loader fail with an {@link IOException}.</p>
+ *
+ * @see BinaryPatriciaTrie
+ */
+public final class BinaryPatriciaTrieLoader {
+
+    /* The largest region of the file that is mapped at a time. Must be at most Integer.MAX_VALUE. */
+    private static final long WINDOW = 1L << 30;
+
+    /* Mapped bytes are parsed in chunks of this size, so that scanning them is a tight loop over a plain array. */
+    private static final int CHUNK = 1 << 16;
+
+    private BinaryPatriciaTrieLoader(){
+    }
+
+    /* A reusable view of a key inside the parsing buffer. */
+    private static final class KeyView implements CharSequence {
+
+        private byte[] bytes;
+        private int start, length;
+
+        void reset(byte[] bytes, int start, int length){
+            this.bytes = bytes;
+            this.start = start;
+            this.length = length;
+        }
+
+        byte byteAt(int index){
+            return bytes[start + index];
+        }
+
+        @Override
+        public int length(){
+            return length;
+        }
+
+        @Override
+        public char charAt(int index){
+            return (char)bytes[start + index];
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to){
+            return new String(bytes, start + from, to - from, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public String toString(){
+            return subSequence(0, length).toString();
+        }
+    }
+
+    /* Builds a trie out of keys given in ascending order. The stack holds the path from the root to the node of the
+     * previous key; since every key is larger than all the keys before it, no node on that path has a child to the
+     * right of the path, and the next key can only branch off to the right of it. */
+    private static final class SortedBuilder {
+
+        private final BinaryPatriciaTrie.Node root = new BinaryPatriciaTrie.Node("", false);
+        private final ArrayList<BinaryPatriciaTrie.Node> path = new ArrayList<BinaryPatriciaTrie.Node>();
+        private int[] starts = new int[16]; // Depth at which the label of every node on the path starts.
+        private byte[] previous = new byte[64];
+        private int previousLength, count;
+        private boolean hasPrevious;
+
+        SortedBuilder(){
+            path.add(root);
+        }
+
+        /* Appends the key, or returns false without changing anything if it is smaller than the previous one.
+         * The key is never empty: loadLine() skips empty lines. */
+        boolean append(KeyView key){
+            int length = key.length(), lcp = 0;
+            if(hasPrevious){
+                int max = Math.min(length, previousLength);
+                while(lcp < max && key.byteAt(lcp) == previous[lcp])
+                    lcp++;
+                if(lcp == length) // Either a duplicate, or a proper prefix of the previous key.
+                    return length == previousLength;
+                if(lcp < previousLength && key.byteAt(lcp) < previous[lcp])
+                    return false;
+            }
+
+            // Pop the nodes that begin at or below the branching depth, then split the node the key branches off of.
+            int top = path.size() - 1;
+            while(top > 0 && starts[top] >= lcp)
+                path.remove(top--);
+            BinaryPatriciaTrie.Node parent = path.get(top);
+            int end = starts[top] + parent.bits.length();
+            if(end > lcp){
+                int cut = lcp - starts[top];
+                BinaryPatriciaTrie.Node tail = new BinaryPatriciaTrie.Node(parent.bits.substring(cut), parent.isKey,
+                        parent.left, parent.right);
+                parent.bits = parent.bits.substring(0, cut);
+                parent.isKey = false;
+                parent.left = parent.right = null;
+                parent.setChild(tail);
+            }
+            BinaryPatriciaTrie.Node leaf = new BinaryPatriciaTrie.Node(key.subSequence(lcp, length).toString(), true);
+            parent.setChild(leaf);
+            path.add(leaf);
+            if(path.size() > starts.length){
+                int[] newStarts = new int[2 * starts.length];
+                System.arraycopy(starts, 0, newStarts, 0, starts.length);
+                starts = newStarts;
+            }
+            starts[path.size() - 1] = lcp;
+            count++;
+            remember(key);
+            return true;
+        }
+
+        private void remember(KeyView key){
+            int length = key.length();
+            if(length > previous.length)
+                previous = new byte[Math.max(length, 2 * previous.length)];
+            System.arraycopy(key.bytes, key.start, previous, 0, length);
+            previousLength = length;
+            hasPrevious = true;
+        }
+
+        BinaryPatriciaTrie toTrie(){
+            return new BinaryPatriciaTrie(root, count);
+        }
+    }
+
+    private static int indexOfNewline(byte[] bytes, int from, int to){
+        while(from < to && bytes[from] != '\n')
+            from++;
+        return from;
+    }
+
+    /* Validates and loads a single line, returning the trie that future lines should be inserted into,
+     * or null if the keys are still in order. */
+    private static BinaryPatriciaTrie loadLine(KeyView key, SortedBuilder builder, BinaryPatriciaTrie trie,
+                                               long lineNumber, Path file) throws IOException {
+        int length = key.length();
+        if(length > 0 && key.byteAt(length - 1) == '\r')
+            length--;
+        int bad = 0;
+        for(int i = 0; i < length; i++)
+            bad |= key.byteAt(i) - '0'; // Stays 0 or 1 if and only if every byte is '0' or '1'.
+        if((bad & ~1) != 0)
+            throw new IOException("load(): line " + lineNumber + " of " + file + " is not a binary key.");
+        if(length == 0)
+            return trie;
+        key.reset(key.bytes, key.start, length);
+        if(trie == null && !builder.append(key))
+            trie = builder.toTrie(); // Out of order: fall back to insertions from now on.
+        if(trie != null)
+            trie.insert(key);
+        return trie;
+    }
+
+    /**
+     * Loads every key of the provided file into a new {@link BinaryPatriciaTrie}.
+     *
+     * @param file The {@link Path} of a file with one binary key per line.
+     * @return A {@link BinaryPatriciaTrie} containing all the keys of the file.
+     * @throws IOException If the file cannot be read, or if it contains a character other than <tt>0</tt>, <tt>1</tt>
+     * and line terminators.
+     */
+    public static BinaryPatriciaTrie load(Path file) throws IOException {
+        SortedBuilder builder = new SortedBuilder();
+        BinaryPatriciaTrie trie = null;
+        KeyView key = new KeyView();
+        long lineNumber = 0;
+        byte[] chunk = new byte[CHUNK];
+        int parsed = 0, filled = 0; // chunk[parsed...filled) holds the bytes of the current, incomplete line.
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            long size = channel.size();
+            for(long offset = 0; offset < size; offset += WINDOW){
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(WINDOW, size - offset));
+                while(buffer.hasRemaining()){
+                    // Move the incomplete line to the front of the chunk, making room for it if needed.
+                    if(parsed > 0){
+                        System.arraycopy(chunk, parsed, chunk, 0, filled - parsed);
+                        filled -= parsed;
+                        parsed = 0;
+                    } else if(filled == chunk.length){
+                        byte[] newChunk = new byte[2 * chunk.length];
+                        System.arraycopy(chunk, 0, newChunk, 0, filled);
+                        chunk = newChunk;
+                    }
+                    int scanFrom = filled, n = Math.min(buffer.remaining(), chunk.length - filled);
+                    buffer.get(chunk, filled, n);
+                    filled += n;
+                    for(int i = indexOfNewline(chunk, scanFrom, filled); i < filled; i = indexOfNewline(chunk, i + 1, filled)){
+                        key.reset(chunk, parsed, i - parsed);
+                        trie = loadLine(key, builder, trie, ++lineNumber, file);
+                        parsed = i + 1;
+                    }
+                }
+            }
+        }
+        if(parsed < filled){ // Last line, without a terminator.
+            key.reset(chunk, parsed, filled - parsed);
+            trie = loadLine(key, builder, trie, ++lineNumber, file);
+        }
+        return (trie != null) ? trie : builder.toTrie();
+    }
+}
@@ -0,0 +1,475 @@
+package projects.bpt;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+
+/**
+ * <p><tt>BurstBinaryPatriciaTrie</tt> is a hybrid between a {@link BinaryPatriciaTrie} and a <em>burst trie</em>. The
+ * upper levels of the structure are ordinary Patricia trie nodes, but every subtree which holds no more than a
+ * given number of keys is collapsed into a <em>bucket</em>: a single byte array where the remaining bits of the
+ * keys are stored back to back, packed eight to a byte and kept in symmetric order. When an insertion takes a bucket
+ * past its capacity, the bucket <em>bursts</em> back into a trie node whose children are, again, buckets.</p>
+ *
+ * <p>Since the vast majority of keys live in buckets, the structure allocates a few objects per bucket instead of
+ * a couple of nodes and Strings per key. Memory per key drops to little more than the bits of the key itself, and
+ * the garbage collector has far fewer objects to trace. The price is a linear scan of a small, contiguous bucket
+ * at the bottom of every search, which is typically cheaper than the cache misses of the nodes it replaces.</p>
+ *
+ * <p>The public interface is the same as that of {@link BinaryPatriciaTrie}, and so are the results of every method,
+ * including the order of {@link #inorderTraversal()}.</p>
+ *
+ * @see BinaryPatriciaTrie
+ */
+public class BurstBinaryPatriciaTrie {
+
+    /**
+     * The bucket capacity used by the default constructor.
+     */
+    public static final int DEFAULT_BUCKET_CAPACITY = 64;
+
+    private final int bucketCapacity;
+    private final Node root;
+    private int count;
+
+    /* Every child slot of a node holds either another node or a bucket. */
+    private static abstract class Entry {
+    }
+
+    /* Same layout as the nodes of BinaryPatriciaTrie: the label begins with the branching bit
+     * which selects the node, and only the root has an empty label. */
+    private static final class Node extends Entry {
+
+        String bits;
+        boolean isKey;
+        Entry left, right;
+
+        Node(String bits, boolean isKey){
+            this.bits = bits;
+            this.isKey = isKey;
+        }
+
+        Entry child(char bit){
+            return bit == '0' ? left : right;
+        }
+
+        void setChild(char bit, Entry child){
+            if(bit == '0')
+                left = child;
+            else
+                right = child;
+        }
+    }
+
+    /* A bucket stores the suffixes of its keys, starting from the branching bit which selects the bucket, so
+     * every entry is at least one bit long. Entries are laid out as [varint bit length][bits, most significant
+     * first] and sorted in symmetric order, which makes inorder traversal a simple left-to-right scan. */
+    private static final class Bucket extends Entry {
+
+        byte[] data;
+        int used, count;
+
+        Bucket(){
+            data = new byte[16];
+        }
+
+        static int bit(byte[] data, int bitsOffset, int i){
+            return (data[bitsOffset + (i >>> 3)] >>> (7 - (i & 7))) & 1;
+        }
+
+        /* Compares the entry whose bits start at bitsOffset with key[from...], in symmetric order. */
+        static int compare(byte[] data, int bitsOffset, int length, String key, int from){
+            int keyLength = key.length() - from, common = Math.min(length, keyLength);
+            for(int i = 0; i < common; i++){
+                int diff = bit(data, bitsOffset, i) - (key.charAt(from + i) - '0');
+                if(diff != 0)
+                    return diff;
+            }
+            if(length == keyLength)
+                return 0;
+            if(length < keyLength) // The entry is a prefix of the key.
+                return key.charAt(from + length) == '1' ? -1 : 1;
+            return bit(data, bitsOffset, keyLength) == 1 ? 1 : -1;
+        }
+
+        /* Returns the offset where the entry equal to key[from...] starts, or the bitwise complement
+         * of the offset where such an entry would have to be inserted. */
+        int locate(String key, int from){
+            int offset = 0;
+            while(offset < used){
+                int length = 0, shift = 0, bitsOffset = offset;
+                byte b;
+                do {
+                    b = data[bitsOffset++];
+                    length |= (b & 0x7f) << shift;
+                    shift += 7;
+                } while(b < 0);
+                int cmp = compare(data, bitsOffset, length, key, from);
+                if(cmp == 0)
+                    return offset;
+                if(cmp > 0)
+                    break;
+                offset = bitsOffset + ((length + 7) >>> 3);
+            }
+            return ~offset;
+        }
+
+        boolean insert(String key, int from){
+            int offset = locate(key, from);
+            if(offset >= 0)
+                return false;
+            offset = ~offset;
+            int length = key.length() - from, size = varintSize(length) + ((length + 7) >>> 3);
+            if(used + size > data.length){
+                byte[] newData = new byte[Math.max(2 * data.length, used + size)];
+                System.arraycopy(data, 0, newData, 0, used);
+                data = newData;
+            }
+            System.arraycopy(data, offset, data, offset + size, used - offset);
+            int pos = offset, remaining = length;
+            while(remaining >= 0x80){
+                data[pos++] = (byte)((remaining & 0x7f) | 0x80);
+                remaining >>>= 7;
+            }
+            data[pos++] = (byte)remaining;
+            for(int i = 0; i < (length + 7) >>> 3; i++)
+                data[pos + i] = 0;
+            for(int i = 0; i < length; i++)
+                if(key.charAt(from + i) == '1')
+                    data[pos + (i >>> 3)] |= (byte)(0x80 >>> (i & 7));
+            used += size;
+            count++;
+            return true;
+        }
+
+        boolean remove(String key, int from){
+            int offset = locate(key, from);
+            if(offset < 0)
+                return false;
+            int length = key.length() - from, size = varintSize(length) + ((length + 7) >>> 3);
+            System.arraycopy(data, offset + size, data, offset, used - offset - size);
+            used -= size;
+            count--;
+            return true;
+        }
+
+        /* Appends prefix + entry to the list for every entry, in symmetric order. */
+        void decode(String prefix, ArrayList<String> keys){
+            StringBuilder key = new StringBuilder(prefix);
+            int offset = 0;
+            while(offset < used){
+                int length = 0, shift = 0;
+                byte b;
+                do {
+                    b = data[offset++];
+                    length |= (b & 0x7f) << shift;
+                    shift += 7;
+                } while(b < 0);
+                key.setLength(prefix.length());
+                for(int i = 0; i < length; i++)
+                    key.append(bit(data, offset, i) == 1 ? '1' : '0');
+                keys.add(key.toString());
+                offset += (length + 7) >>> 3;
+            }
+        }
+
+        static int varintSize(int value){
+            int size = 1;
+            while(value >= 0x80){
+                value >>>= 7;
+                size++;
+            }
+            return size;
+        }
+    }
+
+    /* Packs the given suffixes (all non-empty, in symmetric order) into a bucket, bursting it
+     * into a node if there are too many of them. */
+    private Entry makeEntry(ArrayList<String> suffixes, int from, int to){
+        if(to - from <= bucketCapacity){
+            Bucket bucket = new Bucket();
+            for(int i = from; i < to; i++)
+                bucket.insert(suffixes.get(i), 0);
+            return bucket;
+        }
+        // Burst: the new node is labeled with the longest common prefix of all the suffixes,
+        // which is at least one bit long since they all start with the same branching bit.
+        String first = suffixes.get(from);
+        int lcp = first.length();
+        for(int i = from + 1; i < to; i++){
+            String s = suffixes.get(i);
+            int j = 0, max = Math.min(lcp, s.length());
+            while(j < max && s.charAt(j) == first.charAt(j))
+                j++;
+            lcp = j;
+        }
+        Node node = new Node(first.substring(0, lcp), false);
+        ArrayList<String> left = new ArrayList<String>(), right = new ArrayList<String>();
+        for(int i = from; i < to; i++){
+            String s = suffixes.get(i);
+            if(s.length() == lcp)
+                node.isKey = true;
+            else
+                (s.charAt(lcp) == '0' ? left : right).add(s.substring(lcp));
+        }
+        if(!left.isEmpty())
+            node.left = makeEntry(left, 0, left.size());
+        if(!right.isEmpty())
+            node.right = makeEntry(right, 0, right.size());
+        return node;
+    }
+
+    private Entry burst(Bucket bucket){
+        ArrayList<String> suffixes = new ArrayList<String>(bucket.count);
+        bucket.decode("", suffixes);
+        return makeEntry(suffixes, 0, suffixes.size());
+    }
+
+    /* Returns whatever should occupy the slot of a non-root node after one of its children or its key went away:
+     * the node itself, the node merged with its only child, or nothing at all. */
+    private Entry normalize(Node node){
+        if(node.isKey || (node.left != null && node.right != null))
+            return node;
+        Entry child = (node.left != null) ? node.left : node.right;
+        if(child == null)
+            return null;
+        if(child instanceof Node){
+            Node c = (Node)child;
+            node.bits = node.bits + c.bits;
+            node.isKey = c.isKey;
+            node.left = c.left;
+            node.right = c.right;
+            return node;
+        }
+        ArrayList<String> suffixes = new ArrayList<String>(((Bucket)child).count);
+        ((Bucket)child).decode(node.bits, suffixes);
+        return makeEntry(suffixes, 0, suffixes.size());
+    }
+
+    private static int commonPrefix(String key, int from, String bits){
+        int max = Math.min(key.length() - from, bits.length()), i = 0;
+        while(i < max && key.charAt(from + i) == bits.charAt(i))
+            i++;
+        return i;
+    }
+
+    private static void inorder(Entry entry, StringBuilder path, ArrayList<String> keys){
+        if(entry instanceof Bucket){
+            ((Bucket)entry).decode(path.toString(), keys);
+            return;
+        }
+        Node node = (Node)entry;
+        int mark = path.length();
+        path.append(node.bits);
+        if(node.left != null)
+            inorder(node.left, path, keys);
+        if(node.isKey)
+            keys.add(path.toString());
+        if(node.right != null)
+            inorder(node.right, path, keys);
+        path.setLength(mark);
+    }
+
+    /**
+     * Default constructor, which uses buckets of {@link #DEFAULT_BUCKET_CAPACITY} keys.
+     */
+    public BurstBinaryPatriciaTrie(){
+        this(DEFAULT_BUCKET_CAPACITY);
+    }
+
+    /**
+     * Non-default constructor which sets the number of keys a bucket may hold before it bursts.
+     * @param bucketCapacity The maximum number of keys in a bucket.
+     * @throws IllegalArgumentException If <tt>bucketCapacity</tt> is smaller than 1.
+     */
+    public BurstBinaryPatriciaTrie(int bucketCapacity){
+        if(bucketCapacity < 1)
+            throw new IllegalArgumentException("Bucket capacity should be at least 1, was " + bucketCapacity + ".");
+        this.bucketCapacity = bucketCapacity;
+        root = new Node("", false);
+        count = 0;
+    }
+
+    /**
+     * Searches the trie for a given <tt>key</tt>.
+     *
+     * @param key The input String key.
+     * @return true if and only if key is in the trie, false otherwise.
+     * @see BinaryPatriciaTrie#search(String)
+     */
+    public boolean search(String key){
+        Node current = root;
+        int pos = 0;
+        while(true){
+            String bits = current.bits;
+            if(!key.regionMatches(pos, bits, 0, bits.length()))
+                return false;
+            pos += bits.length();
+            if(pos == key.length())
+                return current.isKey;
+            Entry child = current.child(key.charAt(pos));
+            if(child == null)
+                return false;
+            if(child instanceof Bucket)
+                return ((Bucket)child).locate(key, pos) >= 0;
+            current = (Node)child;
+        }
+    }
+
+    /**
+     * Inserts <tt>key</tt> into the trie, bursting the bucket it lands in if the bucket overflows.
+     *
+     * @param key The input String key.
+     * @return true if and only if the key was not already in the trie, false otherwise.
+     * @see BinaryPatriciaTrie#insert(String)
+     */
+    public boolean insert(String key){
+        Node current = root;
+        int pos = 0;
+        while(true){
+            String bits = current.bits;
+            int common = commonPrefix(key, pos, bits);
+            if(common < bits.length()){ // Split the node, exactly as in a plain Patricia trie.
+                Node tail = new Node(bits.substring(common), current.isKey);
+                tail.left = current.left;
+                tail.right = current.right;
+                current.bits = bits.substring(0, common);
+                current.left = current.right = null;
+                current.setChild(tail.bits.charAt(0), tail);
+                pos += common;
+                current.isKey = (pos == key.length());
+                if(!current.isKey){
+                    Bucket bucket = new Bucket();
+                    bucket.insert(key, pos);
+                    current.setChild(key.charAt(pos), bucket);
+                }
+                count++;
+                return true;
+            }
+            pos += common;
+            if(pos == key.length()){
+                if(current.isKey)
+                    return false;
+                current.isKey = true;
+                count++;
+                return true;
+            }
+            char bit = key.charAt(pos);
+            Entry child = current.child(bit);
+            if(child == null){
+                Bucket bucket = new Bucket();
+                bucket.insert(key, pos);
+                current.setChild(bit, bucket);
+                count++;
+                return true;
+            }
+            if(child instanceof Bucket){
+                Bucket bucket = (Bucket)child;
+                if(!bucket.insert(key, pos))
+                    return false;
+                if(bucket.count > bucketCapacity)
+                    current.setChild(bit, burst(bucket));
+                count++;
+                return true;
+            }
+            current = (Node)child;
+        }
+    }
+
+    /**
+     * Deletes <tt>key</tt> from the trie. Nodes left with a single bucket below them collapse back into a bucket.
+     *
+     * @param key The String key to be deleted.
+     * @return True if and only if key was contained by the trie before we attempted deletion, false otherwise.
+     * @see BinaryPatriciaTrie#delete(String)
+     */
+    public boolean delete(String key){
+        ArrayList<Node> path = new ArrayList<Node>();
+        Node current = root;
+        int pos = 0;
+        while(true){
+            path.add(current);
+            String bits = current.bits;
+            if(!key.regionMatches(pos, bits, 0, bits.length()))
+                return false;
+            pos += bits.length();
+            if(pos == key.length()){
+                if(!current.isKey)
+                    return false;
+                current.isKey = false;
+                break;
+            }
+            char bit = key.charAt(pos);
+            Entry child = current.child(bit);
+            if(child == null)
+                return false;
+            if(child instanceof Bucket){
+                Bucket bucket = (Bucket)child;
+                if(!bucket.remove(key, pos))
+                    return false;
+                if(bucket.count == 0)
+                    current.setChild(bit, null);
+                break;
+            }
+            current = (Node)child;
+        }
+        count--;
+        // Walk back up, fixing the nodes that lost a key or a child. Only the root may stay degenerate.
+        for(int i = path.size() - 1; i > 0; i--){
+            Node node = path.get(i);
+            Entry replacement = normalize(node);
+            path.get(i - 1).setChild(node.bits.charAt(0), replacement);
+            if(replacement != null)
+                break;
+        }
+        return true;
+    }
+
+    /**
+     * Queries the trie for emptiness.
+     *
+     * @return true if and only if {@link #getSize()} == 0, false otherwise.
+     */
+    public boolean isEmpty(){
+        return count == 0;
+    }
+
+    /**
+     * Returns the number of keys in the tree.
+     *
+     * @return The number of keys in the tree.
+     */
+    public int getSize(){
+        return count;
+    }
+
+    /**
+     * Performs an <i>inorder (symmetric) traversal</i> of the trie. The keys come out in the same order as they would
+     * from a {@link BinaryPatriciaTrie} holding the same keys.
+     *
+     * @return An {@link Iterator} over the {@link String} keys stored in the trie, exposing the elements in <i>symmetric
+     * order</i>.
+     * @see BinaryPatriciaTrie#inorderTraversal()
+     */
+    public Iterator<String> inorderTraversal(){
+        ArrayList<String> keys = new ArrayList<String>(count);
+        inorder(root, new StringBuilder(), keys);
+        return keys.iterator();
+    }
+
+    /**
+     * Finds the longest {@link String} stored in the trie, breaking ties in terms of <b>value</b>.
+     *
+     * @return The longest {@link String} stored in this, or "" if the trie is empty.
+     * @see BinaryPatriciaTrie#getLongest()
+     */
+    public String getLongest(){
+        String longest = "";
+        Iterator<String> keys = inorderTraversal();
+        while(keys.hasNext()){
+            String key = keys.next();
+            if(key.length() >= longest.length())
+                longest = key;
+        }
+        return longest;
+    }
+}
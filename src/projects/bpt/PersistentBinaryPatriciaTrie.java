@@ -0,0 +1,226 @@
+package projects.bpt;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+
+/**
+ * <p><tt>PersistentBinaryPatriciaTrie</tt> is an <em>immutable</em> {@link BinaryPatriciaTrie}. Instead of modifying the
+ * trie in place, {@link #insert(String)} and {@link #delete(String)} return a new version of the trie, leaving the
+ * version they were called on untouched. Only the nodes on the path from the root to the modified key are copied;
+ * every other subtree is shared between the old and the new version, so an update costs as much as a search.</p>
+ *
+ * <p>Since no version ever changes after it has been created, and all of its fields are <tt>final</tt>, any
+ * number of threads can read a version without synchronization. A writer can thus publish a new snapshot to its
+ * readers simply by storing the new version into a <tt>volatile</tt> field or an
+ * {@link java.util.concurrent.atomic.AtomicReference}, while keeping older versions around for as long as they
+ * are needed.</p>
+ *
+ * @see BinaryPatriciaTrie
+ */
+public final class PersistentBinaryPatriciaTrie {
+
+    private static final PersistentBinaryPatriciaTrie EMPTY =
+            new PersistentBinaryPatriciaTrie(new Node("", false, null, null), 0);
+
+    private final Node root;
+    private final int count;
+
+    /* Same layout as the nodes of BinaryPatriciaTrie, except that nodes are never modified once built. */
+    private static final class Node {
+
+        final String bits;
+        final boolean isKey;
+        final Node left, right;
+
+        Node(String bits, boolean isKey, Node left, Node right){
+            this.bits = bits;
+            this.isKey = isKey;
+            this.left = left;
+            this.right = right;
+        }
+
+        Node child(char bit){
+            return bit == '0' ? left : right;
+        }
+
+        /* A copy of this node, with the child for the given bit replaced. */
+        Node withChild(char bit, Node child){
+            return bit == '0' ? new Node(bits, isKey, child, right) : new Node(bits, isKey, left, child);
+        }
+    }
+
+    /* Builds a node with two children, placing each one on the side of its first bit. */
+    private static Node join(String bits, boolean isKey, Node a, Node b){
+        return a.bits.charAt(0) == '0' ? new Node(bits, isKey, a, b) : new Node(bits, isKey, b, a);
+    }
+
+    /* Returns the node which should replace one that lost a key or a child: nothing, the node itself, or the node
+     * merged with its only child. The root is always kept as it is. */
+    private static Node normalize(String bits, boolean isKey, Node left, Node right, boolean isRoot){
+        if(isRoot || isKey || (left != null && right != null))
+            return new Node(bits, isKey, left, right);
+        if(left == null && right == null)
+            return null;
+        Node child = (left != null) ? left : right;
+        return new Node(bits + child.bits, child.isKey, child.left, child.right);
+    }
+
+    /* Returns node itself if the key is already below it, or the copy of node that includes the key. */
+    private static Node insert(Node node, String key, int pos){
+        String bits = node.bits;
+        int max = Math.min(key.length() - pos, bits.length()), common = 0;
+        while(common < max && key.charAt(pos + common) == bits.charAt(common))
+            common++;
+        if(common < bits.length()){ // Split: the old node becomes the tail, sharing all of its children.
+            Node tail = new Node(bits.substring(common), node.isKey, node.left, node.right);
+            String head = bits.substring(0, common);
+            int end = pos + common;
+            if(end == key.length()) // The key ends within the label: the head becomes a key with a single child.
+                return tail.bits.charAt(0) == '0' ? new Node(head, true, tail, null) : new Node(head, true, null, tail);
+            return join(head, false, tail, new Node(key.substring(end), true, null, null));
+        }
+        pos += bits.length();
+        if(pos == key.length())
+            return node.isKey ? node : new Node(bits, true, node.left, node.right);
+        char bit = key.charAt(pos);
+        Node child = node.child(bit);
+        Node newChild = (child == null) ? new Node(key.substring(pos), true, null, null) : insert(child, key, pos);
+        return (newChild == child) ? node : node.withChild(bit, newChild);
+    }
+
+    /* Returns node itself if the key is not below it, or whatever should replace node once the key is gone. */
+    private static Node delete(Node node, String key, int pos, boolean isRoot){
+        String bits = node.bits;
+        if(!key.regionMatches(pos, bits, 0, bits.length()))
+            return node;
+        pos += bits.length();
+        if(pos == key.length())
+            return node.isKey ? normalize(bits, false, node.left, node.right, isRoot) : node;
+        char bit = key.charAt(pos);
+        Node child = node.child(bit);
+        if(child == null)
+            return node;
+        Node newChild = delete(child, key, pos, false);
+        if(newChild == child)
+            return node;
+        return (bit == '0') ? normalize(bits, node.isKey, newChild, node.right, isRoot)
+                : normalize(bits, node.isKey, node.left, newChild, isRoot);
+    }
+
+    private static void inorder(Node node, StringBuilder path, ArrayList<String> keys){
+        int mark = path.length();
+        path.append(node.bits);
+        if(node.left != null)
+            inorder(node.left, path, keys);
+        if(node.isKey)
+            keys.add(path.toString());
+        if(node.right != null)
+            inorder(node.right, path, keys);
+        path.setLength(mark);
+    }
+
+    private PersistentBinaryPatriciaTrie(Node root, int count){
+        this.root = root;
+        this.count = count;
+    }
+
+    /**
+     * Returns the empty trie, which is where every history of versions starts from.
+     * @return The empty <tt>PersistentBinaryPatriciaTrie</tt>.
+     */
+    public static PersistentBinaryPatriciaTrie empty(){
+        return EMPTY;
+    }
+
+    /**
+     * Searches this version of the trie for a given <tt>key</tt>.
+     *
+     * @param key The input String key.
+     * @return true if and only if key is in this version of the trie, false otherwise.
+     */
+    public boolean search(String key){
+        Node current = root;
+        int pos = 0;
+        while(true){
+            String bits = current.bits;
+            if(!key.regionMatches(pos, bits, 0, bits.length()))
+                return false;
+            pos += bits.length();
+            if(pos == key.length())
+                return current.isKey;
+            current = current.child(key.charAt(pos));
+            if(current == null)
+                return false;
+        }
+    }
+
+    /**
+     * Returns a version of the trie which also contains <tt>key</tt>. <tt>this</tt> is left unchanged.
+     *
+     * @param key The input String key.
+     * @return The new version, or <tt>this</tt> itself if <tt>key</tt> was already contained.
+     */
+    public PersistentBinaryPatriciaTrie insert(String key){
+        Node newRoot = insert(root, key, 0);
+        return (newRoot == root) ? this : new PersistentBinaryPatriciaTrie(newRoot, count + 1);
+    }
+
+    /**
+     * Returns a version of the trie which does not contain <tt>key</tt>. <tt>this</tt> is left unchanged.
+     *
+     * @param key The String key to be deleted.
+     * @return The new version, or <tt>this</tt> itself if <tt>key</tt> was not contained.
+     */
+    public PersistentBinaryPatriciaTrie delete(String key){
+        Node newRoot = delete(root, key, 0, true);
+        return (newRoot == root) ? this : new PersistentBinaryPatriciaTrie(newRoot, count - 1);
+    }
+
+    /**
+     * Queries this version of the trie for emptiness.
+     *
+     * @return true if and only if {@link #getSize()} == 0, false otherwise.
+     */
+    public boolean isEmpty(){
+        return count == 0;
+    }
+
+    /**
+     * Returns the number of keys in this version of the trie.
+     *
+     * @return The number of keys in this version of the trie.
+     */
+    public int getSize(){
+        return count;
+    }
+
+    /**
+     * Performs an <i>inorder (symmetric) traversal</i> of this version of the trie.
+     *
+     * @return An {@link Iterator} over the {@link String} keys stored in this version, exposing the elements in
+     * <i>symmetric order</i>.
+     * @see BinaryPatriciaTrie#inorderTraversal()
+     */
+    public Iterator<String> inorderTraversal(){
+        ArrayList<String> keys = new ArrayList<String>(count);
+        inorder(root, new StringBuilder(), keys);
+        return keys.iterator();
+    }
+
+    /**
+     * Finds the longest {@link String} stored in this version of the trie, breaking ties in terms of <b>value</b>.
+     *
+     * @return The longest {@link String} stored in this version, or "" if it is empty.
+     * @see BinaryPatriciaTrie#getLongest()
+     */
+    public String getLongest(){
+        String longest = "";
+        Iterator<String> keys = inorderTraversal();
+        while(keys.hasNext()){
+            String key = keys.next();
+            if(key.length() >= longest.length())
+                longest = key;
+        }
+        return longest;
+    }
+}
@@ -0,0 +1,128 @@
+package projects.bpt;
+
+/**
+ * <p><tt>TrieStatistics</tt> is a snapshot of the shape of a {@link BinaryPatriciaTrie}, as returned by
+ * {@link BinaryPatriciaTrie#getStatistics()}. It records how deep the leaves are, how many bits the labels of the
+ * nodes skip, and how many nodes and bytes the trie spends per key.</p>
+ *
+ * <p>The byte estimates assume a 64-bit JVM with compressed references and compact Latin-1 strings, where a node
+ * costs 32 bytes, the {@link String} of its label 24 bytes, and the array backing the label 16 bytes plus one byte
+ * per bit, rounded up to a multiple of 8. They are meant for comparing tries and layouts with each other, not as an
+ * exact measurement of the heap.</p>
+ *
+ * @see BinaryPatriciaTrie
+ */
+public final class TrieStatistics {
+
+    static final int NODE_BYTES = 32, STRING_BYTES = 24, ARRAY_HEADER_BYTES = 16;
+
+    private final int keys, nodes;
+    private final long estimatedBytes;
+    private final long[] leafDepths, skipLengths;
+
+    TrieStatistics(int keys, int nodes, long estimatedBytes, long[] leafDepths, long[] skipLengths){
+        this.keys = keys;
+        this.nodes = nodes;
+        this.estimatedBytes = estimatedBytes;
+        this.leafDepths = leafDepths;
+        this.skipLengths = skipLengths;
+    }
+
+    /* The heap footprint of a node with a label of the given length, under the assumptions above. */
+    static long nodeBytes(int labelLength){
+        return NODE_BYTES + STRING_BYTES + ((ARRAY_HEADER_BYTES + labelLength + 7) & ~7L);
+    }
+
+    /**
+     * Returns the number of keys in the trie.
+     * @return The number of keys in the trie.
+     */
+    public int getKeyCount(){
+        return keys;
+    }
+
+    /**
+     * Returns the number of nodes in the trie, including the root.
+     * @return The number of nodes in the trie.
+     */
+    public int getNodeCount(){
+        return nodes;
+    }
+
+    /**
+     * Returns the number of nodes per key, or 0 for an empty trie.
+     * @return The number of nodes per key.
+     */
+    public double getNodesPerKey(){
+        return keys == 0 ? 0 : (double)nodes / keys;
+    }
+
+    /**
+     * Returns the estimated heap footprint of all the nodes of the trie.
+     * @return The estimated number of bytes taken by the trie.
+     */
+    public long getEstimatedBytes(){
+        return estimatedBytes;
+    }
+
+    /**
+     * Returns the estimated heap footprint of the trie per key, or 0 for an empty trie.
+     * @return The estimated number of bytes per key.
+     */
+    public double getEstimatedBytesPerKey(){
+        return keys == 0 ? 0 : (double)estimatedBytes / keys;
+    }
+
+    /**
+     * Returns the histogram of leaf depths: element <tt>d</tt> is the number of leaves which are <tt>d</tt> nodes
+     * below the root. A root which holds the empty key and has no children counts as a leaf of depth 0; the root of an
+     * empty trie is no leaf, so that an empty trie has no leaves at all.
+     * @return A copy of the leaf depth histogram.
+     */
+    public long[] getLeafDepthHistogram(){
+        return leafDepths.clone();
+    }
+
+    /**
+     * Returns the histogram of skip lengths: element <tt>s</tt> is the number of nodes, other than the root,
+     * whose label is <tt>s</tt> bits long; in other words, the number of nodes which let a search skip <tt>s - 1</tt>
+     * bits without branching.
+     * @return A copy of the skip length histogram.
+     */
+    public long[] getSkipLengthHistogram(){
+        return skipLengths.clone();
+    }
+
+    /**
+     * Returns the average depth of the leaves of the trie.
+     * @return The average depth of the leaves, in nodes.
+     */
+    public double getAverageLeafDepth(){
+        long leaves = 0, total = 0;
+        for(int d = 0; d < leafDepths.length; d++){
+            leaves += leafDepths[d];
+            total += d * leafDepths[d];
+        }
+        return leaves == 0 ? 0 : (double)total / leaves;
+    }
+
+    /**
+     * Standard toString() method. Returns a summary of the statistics, followed by both histograms.
+     * @return A String-like representation of the object.
+     */
+    @Override
+    public String toString(){
+        StringBuilder retVal = new StringBuilder();
+        retVal.append(String.format("keys=%d, nodes=%d, nodes/key=%.3f, ~bytes/key=%.1f, avg leaf depth=%.2f%n",
+                keys, nodes, getNodesPerKey(), getEstimatedBytesPerKey(), getAverageLeafDepth()));
+        retVal.append("leaf depths:");
+        for(int d = 0; d < leafDepths.length; d++)
+            if(leafDepths[d] != 0)
+                retVal.append(' ').append(d).append(':').append(leafDepths[d]);
+        retVal.append(String.format("%nskip lengths:"));
+        for(int s = 0; s < skipLengths.length; s++)
+            if(skipLengths[s] != 0)
+                retVal.append(' ').append(s).append(':').append(skipLengths[s]);
+        return retVal.toString();
+    }
+}
@@ -0,0 +1,85 @@
+package projects.bpt.clients;
+
+import projects.bpt.BinaryPatriciaTrie;
+
+import java.util.Random;
+
+/** <b>BatchSearchTimingClient</b> compares the throughput of {@link BinaryPatriciaTrie#searchBatch(String[], boolean[])}
+ * against that of calling {@link BinaryPatriciaTrie#search(String)} once per key. For the comparison to be meaningful,
+ * the trie should be much larger than the last level cache; the defaults below build a trie of a few hundred megabytes,
+ * so run with a large enough heap (e.g. <tt>-Xmx4g</tt>).
+ *
+ * <p>Arguments (all optional): number of keys, key length in bits, batch size.</p>
+ */
+public class BatchSearchTimingClient {
+
+    private static Random r = new Random(47);
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args){
+        int numKeys = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+        int keyLength = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int batchSize = args.length > 2 ? Integer.parseInt(args[2]) : 128;
+
+        System.out.println("Building a trie of " + numKeys + " random " + keyLength + "-bit keys...");
+        BinaryPatriciaTrie trie = new BinaryPatriciaTrie();
+        String[] queries = new String[numKeys];
+        for(int i = 0; i < numKeys; i++){
+            String key = randomKey(keyLength);
+            trie.insert(key);
+            queries[i] = (i % 2 == 0) ? key : randomKey(keyLength); // Roughly half of the queries are hits.
+        }
+        shuffle(queries);
+
+        String[] batch = new String[batchSize];
+        boolean[] results = new boolean[batchSize];
+        for(int round = 0; round < ROUNDS; round++){
+            long start = System.nanoTime();
+            int hits = 0;
+            for(String q : queries)
+                if(trie.search(q))
+                    hits++;
+            long single = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int batchedHits = 0;
+            for(int from = 0; from < queries.length; from += batchSize){
+                int len = Math.min(batchSize, queries.length - from);
+                if(len != batch.length){
+                    batch = new String[len];
+                    results = new boolean[len];
+                }
+                System.arraycopy(queries, from, batch, 0, len);
+                trie.searchBatch(batch, results);
+                for(int i = 0; i < len; i++)
+                    if(results[i])
+                        batchedHits++;
+            }
+            long batched = System.nanoTime() - start;
+            if(hits != batchedHits)
+                throw new IllegalStateException("Batched and per-key search disagree!");
+            System.out.println("Round " + (round + 1) + ": per-key loop " + mops(queries.length, single) +
+                    " Mops/s, searchBatch " + mops(queries.length, batched) + " Mops/s.");
+        }
+    }
+
+    private static String randomKey(int length){
+        char[] bits = new char[length];
+        for(int i = 0; i < length; i++)
+            bits[i] = r.nextBoolean() ? '1' : '0';
+        return new String(bits);
+    }
+
+    private static void shuffle(String[] a){
+        for(int i = a.length - 1; i > 0; i--){
+            int j = r.nextInt(i + 1);
+            String tmp = a[i];
+            a[i] = a[j];
+            a[j] = tmp;
+        }
+    }
+
+    private static String mops(int ops, long nanos){
+        return String.format("%.2f", ops * 1000.0 / nanos);
+    }
+}
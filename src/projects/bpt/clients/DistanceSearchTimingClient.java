@@ -0,0 +1,68 @@
+package projects.bpt.clients;
+
+import projects.bpt.BinaryPatriciaTrie;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/** <b>DistanceSearchTimingClient</b> compares {@link BinaryPatriciaTrie#searchWithinDistance(String, int)} with its
+ * parallel flavor, {@link BinaryPatriciaTrie#searchWithinDistance(String, int, ForkJoinPool)}, for a growing
+ * Hamming distance. The parallel search can only pay off with several cores, so the number of available processors
+ * is printed first. The last of a few rounds is reported, so that the JIT has warmed up.
+ *
+ * <p>Arguments (all optional): number of keys, key length in bits, number of queries, largest distance.</p>
+ */
+public class DistanceSearchTimingClient {
+
+    private static Random r = new Random(48);
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args){
+        int numKeys = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int keyLength = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int numQueries = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int maxDistance = args.length > 3 ? Integer.parseInt(args[3]) : 6;
+
+        BinaryPatriciaTrie trie = new BinaryPatriciaTrie();
+        for(int i = 0; i < numKeys; i++)
+            trie.insert(randomKey(keyLength));
+        String[] queries = new String[numQueries];
+        for(int i = 0; i < numQueries; i++)
+            queries[i] = randomKey(keyLength);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors() + ", pool parallelism: "
+                + pool.getParallelism() + ".");
+        System.out.println(numKeys + " random " + keyLength + "-bit keys, " + numQueries + " queries.");
+        System.out.println("Distance\tMatches per query\tSequential (us/query)\tParallel (us/query)");
+        for(int distance = 0; distance <= maxDistance; distance += 2){
+            long sequential = 0, parallel = 0, matches = 0;
+            for(int round = 0; round < ROUNDS; round++){
+                long start = System.nanoTime(), found = 0;
+                for(String q : queries)
+                    found += trie.searchWithinDistance(q, distance).size();
+                sequential = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                long parallelFound = 0;
+                for(String q : queries){
+                    List<String> result = trie.searchWithinDistance(q, distance, pool);
+                    parallelFound += result.size();
+                }
+                parallel = System.nanoTime() - start;
+                if(found != parallelFound)
+                    throw new IllegalStateException("Sequential and parallel search disagree!");
+                matches = found;
+            }
+            System.out.println(distance + "\t\t" + String.format("%.1f", (double)matches / numQueries) + "\t\t\t"
+                    + sequential / 1000 / numQueries + "\t\t\t" + parallel / 1000 / numQueries);
+        }
+    }
+
+    private static String randomKey(int length){
+        char[] bits = new char[length];
+        for(int i = 0; i < length; i++)
+            bits[i] = r.nextBoolean() ? '1' : '0';
+        return new String(bits);
+    }
+}
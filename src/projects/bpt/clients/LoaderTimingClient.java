@@ -0,0 +1,72 @@
+package projects.bpt.clients;
+
+import projects.bpt.BinaryPatriciaTrie;
+import projects.bpt.BinaryPatriciaTrieLoader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/** <b>LoaderTimingClient</b> writes a file of random binary keys, once in random and once in sorted order, and
+ * compares the time {@link BinaryPatriciaTrieLoader#load(Path)} takes to load each of them against reading them
+ * with {@link BufferedReader#readLine()} and inserting them one by one.
+ *
+ * <p>Arguments (all optional): number of keys, key length in bits.</p>
+ */
+public class LoaderTimingClient {
+
+    public static void main(String[] args) throws IOException {
+        int numKeys = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+        int keyLength = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+
+        Random r = new Random(47);
+        String[] keys = new String[numKeys];
+        for(int i = 0; i < numKeys; i++){
+            char[] bits = new char[keyLength];
+            for(int j = 0; j < keyLength; j++)
+                bits[j] = r.nextBoolean() ? '1' : '0';
+            keys[i] = new String(bits);
+        }
+        Path file = Files.createTempFile("keys", ".txt");
+        try {
+            for(String order : new String[]{"random", "sorted"}){
+                if(order.equals("sorted"))
+                    Arrays.sort(keys);
+                try(BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)){
+                    for(String key : keys){
+                        writer.write(key);
+                        writer.newLine();
+                    }
+                }
+                for(int round = 0; round < 3; round++){
+                    System.gc(); // Don't let the garbage of one loader slow down the other.
+                    long start = System.currentTimeMillis();
+                    BinaryPatriciaTrie readLine = new BinaryPatriciaTrie();
+                    try(BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)){
+                        String line;
+                        while((line = reader.readLine()) != null)
+                            readLine.insert(line);
+                    }
+                    long readLineMillis = System.currentTimeMillis() - start;
+                    int readLineSize = readLine.getSize();
+                    readLine = null;
+                    System.gc();
+                    start = System.currentTimeMillis();
+                    BinaryPatriciaTrie mapped = BinaryPatriciaTrieLoader.load(file);
+                    long mappedMillis = System.currentTimeMillis() - start;
+                    if(mapped.getSize() != readLineSize)
+                        throw new IllegalStateException("Loaders disagree on the number of keys!");
+                    System.out.println("Keys in " + order + " order, round " + (round + 1) + ": readLine() + insert() " +
+                            readLineMillis + " ms, BinaryPatriciaTrieLoader " + mappedMillis + " ms.");
+                }
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package projects.bpt.clients;
+
+import projects.bpt.BinaryPatriciaTrie;
+import projects.bpt.BurstBinaryPatriciaTrie;
+
+import java.util.Random;
+
+/** <b>MemoryFootprintClient</b> loads the same random keys into a {@link BinaryPatriciaTrie} and a
+ * {@link BurstBinaryPatriciaTrie} and reports the heap retained by each, per key. The numbers are taken from
+ * {@link Runtime} after explicit collections, so they are approximate; run with a fixed heap (e.g. <tt>-Xms4g -Xmx4g</tt>)
+ * for steadier results.
+ *
+ * <p>Arguments (all optional): number of keys, key length in bits, bucket capacity.</p>
+ */
+public class MemoryFootprintClient {
+
+    public static void main(String[] args){
+        int numKeys = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+        int keyLength = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int capacity = args.length > 2 ? Integer.parseInt(args[2]) : BurstBinaryPatriciaTrie.DEFAULT_BUCKET_CAPACITY;
+
+        long before = usedMemory();
+        BinaryPatriciaTrie plain = new BinaryPatriciaTrie();
+        Random r = new Random(47);
+        long start = System.currentTimeMillis();
+        for(int i = 0; i < numKeys; i++)
+            plain.insert(randomKey(r, keyLength));
+        long plainMillis = System.currentTimeMillis() - start;
+        long plainBytes = usedMemory() - before;
+        System.out.println("BinaryPatriciaTrie: " + plainBytes / plain.getSize() + " bytes/key, built in " + plainMillis + " ms.");
+        plain = null;
+
+        before = usedMemory();
+        BurstBinaryPatriciaTrie burst = new BurstBinaryPatriciaTrie(capacity);
+        r = new Random(47);
+        start = System.currentTimeMillis();
+        for(int i = 0; i < numKeys; i++)
+            burst.insert(randomKey(r, keyLength));
+        long burstMillis = System.currentTimeMillis() - start;
+        long burstBytes = usedMemory() - before;
+        System.out.println("BurstBinaryPatriciaTrie(" + capacity + "): " + burstBytes / burst.getSize() +
+                " bytes/key, built in " + burstMillis + " ms.");
+    }
+
+    private static String randomKey(Random r, int length){
+        char[] bits = new char[length];
+        for(int i = 0; i < length; i++)
+            bits[i] = r.nextBoolean() ? '1' : '0';
+        return new String(bits);
+    }
+
+    private static long usedMemory(){
+        Runtime rt = Runtime.getRuntime();
+        for(int i = 0; i < 3; i++)
+            System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,101 @@
+package projects.bpt.clients;
+
+import projects.bpt.BinaryPatriciaTrie;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/** <b>SetAlgebraTimingClient</b> times {@link BinaryPatriciaTrie#union(BinaryPatriciaTrie)},
+ * {@link BinaryPatriciaTrie#intersection(BinaryPatriciaTrie)} and {@link BinaryPatriciaTrie#difference(BinaryPatriciaTrie)}
+ * against their parallel flavors, which run on a {@link ForkJoinPool}, and against the obvious alternative of
+ * inserting or deleting the keys of one trie into a copy of the other, one key at a time. The two tries share about
+ * half of their keys. The parallel operations can only pay off with several cores, so the number of available
+ * processors is printed first. The best of a few rounds is reported, which leaves out the JIT warming up and the
+ * occasional long garbage collection, since every operation allocates a whole new trie.
+ *
+ * <p>Arguments (all optional): number of keys per trie, key length in bits.</p>
+ */
+public class SetAlgebraTimingClient {
+
+    private static Random r = new Random(49);
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args){
+        int numKeys = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int keyLength = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+
+        BinaryPatriciaTrie a = new BinaryPatriciaTrie(), b = new BinaryPatriciaTrie();
+        String[] keysOfA = new String[numKeys], keysOfB = new String[numKeys];
+        for(int i = 0; i < numKeys; i++){
+            keysOfA[i] = randomKey(keyLength);
+            keysOfB[i] = (i % 2 == 0) ? keysOfA[i] : randomKey(keyLength);
+            a.insert(keysOfA[i]);
+            b.insert(keysOfB[i]);
+        }
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors() + ", pool parallelism: "
+                + pool.getParallelism() + ".");
+        System.out.println("Two tries of " + numKeys + " random " + keyLength + "-bit keys, half of them shared.");
+
+        long[] times = new long[9];
+        Arrays.fill(times, Long.MAX_VALUE);
+        for(int round = 0; round < ROUNDS; round++){
+            long start = System.nanoTime();
+            BinaryPatriciaTrie union = a.union(b);
+            times[0] = Math.min(times[0], System.nanoTime() - start);
+            start = System.nanoTime();
+            BinaryPatriciaTrie parallelUnion = a.union(b, pool);
+            times[1] = Math.min(times[1], System.nanoTime() - start);
+            start = System.nanoTime();
+            BinaryPatriciaTrie insertedUnion = a.union(new BinaryPatriciaTrie()); // A copy of a.
+            for(String key : keysOfB)
+                insertedUnion.insert(key);
+            times[2] = Math.min(times[2], System.nanoTime() - start);
+
+            start = System.nanoTime();
+            BinaryPatriciaTrie intersection = a.intersection(b);
+            times[3] = Math.min(times[3], System.nanoTime() - start);
+            start = System.nanoTime();
+            BinaryPatriciaTrie parallelIntersection = a.intersection(b, pool);
+            times[4] = Math.min(times[4], System.nanoTime() - start);
+            start = System.nanoTime();
+            BinaryPatriciaTrie searchedIntersection = new BinaryPatriciaTrie();
+            for(String key : keysOfB)
+                if(a.search(key))
+                    searchedIntersection.insert(key);
+            times[5] = Math.min(times[5], System.nanoTime() - start);
+
+            start = System.nanoTime();
+            BinaryPatriciaTrie difference = a.difference(b);
+            times[6] = Math.min(times[6], System.nanoTime() - start);
+            start = System.nanoTime();
+            BinaryPatriciaTrie parallelDifference = a.difference(b, pool);
+            times[7] = Math.min(times[7], System.nanoTime() - start);
+            start = System.nanoTime();
+            BinaryPatriciaTrie deletedDifference = a.union(new BinaryPatriciaTrie());
+            for(String key : keysOfB)
+                deletedDifference.delete(key);
+            times[8] = Math.min(times[8], System.nanoTime() - start);
+
+            if(union.getSize() != parallelUnion.getSize() || union.getSize() != insertedUnion.getSize()
+                    || intersection.getSize() != parallelIntersection.getSize()
+                    || intersection.getSize() != searchedIntersection.getSize()
+                    || difference.getSize() != parallelDifference.getSize()
+                    || difference.getSize() != deletedDifference.getSize())
+                throw new IllegalStateException("The three ways of computing a set operation disagree!");
+        }
+        System.out.println("Operation\tSequential (ms)\tParallel (ms)\tKey by key (ms)");
+        String[] names = {"union\t", "intersection", "difference"};
+        for(int op = 0; op < 3; op++)
+            System.out.println(names[op] + "\t" + times[3 * op] / 1000000 + "\t\t" + times[3 * op + 1] / 1000000 + "\t\t"
+                    + times[3 * op + 2] / 1000000);
+    }
+
+    private static String randomKey(int length){
+        char[] bits = new char[length];
+        for(int i = 0; i < length; i++)
+            bits[i] = r.nextBoolean() ? '1' : '0';
+        return new String(bits);
+    }
+}
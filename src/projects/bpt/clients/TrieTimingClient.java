@@ -0,0 +1,119 @@
+package projects.bpt.clients;
+
+import projects.bpt.BinaryPatriciaTrie;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+/** <b>TrieTimingClient</b> compares the insertion, search and deletion throughput of {@link BinaryPatriciaTrie} with
+ * that of a {@link HashSet} and a {@link TreeSet} of {@link String}s, for three kinds of keys:
+ * <ul>
+ *     <li><b>random</b>: uniformly random bit strings.</li>
+ *     <li><b>sequential</b>: the binary representations of consecutive integers, zero-padded to the same length.</li>
+ *     <li><b>shared-prefix</b>: random bit strings behind a long prefix that all keys have in common.</li>
+ * </ul>
+ * Every experiment is repeated a few times and only the last repetition is reported, so that the JIT has warmed up.
+ * The {@link projects.bpt.TrieStatistics} of the last trie built for every kind of keys are printed as well.
+ *
+ * <p>Arguments (all optional): number of keys, key length in bits.</p>
+ */
+public class TrieTimingClient {
+
+    private static final int REPETITIONS = 4;
+
+    private interface KeySet {
+        boolean insert(String key);
+        boolean search(String key);
+        boolean delete(String key);
+    }
+
+    private static KeySet of(final BinaryPatriciaTrie trie){
+        return new KeySet(){
+            public boolean insert(String key){ return trie.insert(key); }
+            public boolean search(String key){ return trie.search(key); }
+            public boolean delete(String key){ return trie.delete(key); }
+            public String toString(){ return "BinaryPatriciaTrie"; }
+        };
+    }
+
+    private static KeySet of(final Set<String> set, final String name){
+        return new KeySet(){
+            public boolean insert(String key){ return set.add(key); }
+            public boolean search(String key){ return set.contains(key); }
+            public boolean delete(String key){ return set.remove(key); }
+            public String toString(){ return name; }
+        };
+    }
+
+    public static void main(String[] args){
+        int numKeys = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int keyLength = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        Random r = new Random(47);
+
+        for(String distribution : new String[]{"random", "sequential", "shared-prefix"}){
+            String[] keys = keys(distribution, numKeys, keyLength, r);
+            String[] misses = keys("random", numKeys, keyLength + 1, r); // Never stored: longer than every key.
+            System.out.println("================ " + distribution + " keys ================");
+            for(int structure = 0; structure < 3; structure++){
+                for(int rep = 0; rep < REPETITIONS; rep++){
+                    BinaryPatriciaTrie trie = new BinaryPatriciaTrie();
+                    KeySet set = (structure == 0) ? of(trie) : (structure == 1) ? of(new HashSet<String>(), "HashSet<String>")
+                            : of(new TreeSet<String>(), "TreeSet<String>");
+                    long start = System.nanoTime();
+                    for(String key : keys)
+                        set.insert(key);
+                    long insert = System.nanoTime() - start;
+                    start = System.nanoTime();
+                    for(String key : keys)
+                        if(!set.search(key))
+                            throw new IllegalStateException(set + " lost key " + key);
+                    long hit = System.nanoTime() - start;
+                    start = System.nanoTime();
+                    for(String key : misses)
+                        if(set.search(key))
+                            throw new IllegalStateException(set + " found absent key " + key);
+                    long miss = System.nanoTime() - start;
+                    boolean last = (rep == REPETITIONS - 1);
+                    if(last && structure == 0)
+                        System.out.println(trie.getStatistics());
+                    start = System.nanoTime();
+                    for(String key : keys)
+                        set.delete(key);
+                    long delete = System.nanoTime() - start;
+                    if(last)
+                        System.out.println(String.format("%-20s insert %7.2f, search hit %7.2f, search miss %7.2f, delete %7.2f Mops/s",
+                                set, mops(numKeys, insert), mops(numKeys, hit), mops(numKeys, miss), mops(numKeys, delete)));
+                }
+            }
+        }
+    }
+
+    private static String[] keys(String distribution, int howMany, int length, Random r){
+        String[] keys = new String[howMany];
+        StringBuilder prefix = new StringBuilder();
+        for(int i = 0; i < length / 2; i++)
+            prefix.append(r.nextBoolean() ? '1' : '0');
+        for(int i = 0; i < howMany; i++){
+            StringBuilder key = new StringBuilder(length);
+            if(distribution.equals("sequential")){
+                String bits = Long.toBinaryString(i);
+                for(int j = bits.length(); j < length; j++)
+                    key.append('0');
+                key.append(bits);
+            } else {
+                if(distribution.equals("shared-prefix"))
+                    key.append(prefix);
+                while(key.length() < length)
+                    key.append(r.nextBoolean() ? '1' : '0');
+            }
+            keys[i] = key.toString();
+        }
+        return keys;
+    }
+
+    private static double mops(int ops, long nanos){
+        return ops * 1000.0 / nanos;
+    }
+}
@@ -0,0 +1,32 @@
+package projects.bpt.test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Random;
+
+/**
+ * <p>Keys and traversals shared by the tests of this package. Not a test itself.</p>
+ *
+ * @see BinaryPatriciaTrieTest
+ */
+final class BinaryKeys {
+
+    private BinaryKeys(){}
+
+    /* A key of 1 to maxLength random bits. */
+    static String random(Random r, int maxLength){
+        StringBuilder key = new StringBuilder();
+        int length = 1 + r.nextInt(maxLength);
+        for(int i = 0; i < length; i++)
+            key.append(r.nextBoolean() ? '1' : '0');
+        return key.toString();
+    }
+
+    /* Every key of a traversal, in the order of the traversal. */
+    static ArrayList<String> keysOf(Iterator<String> it){
+        ArrayList<String> keys = new ArrayList<String>();
+        while(it.hasNext())
+            keys.add(it.next());
+        return keys;
+    }
+}
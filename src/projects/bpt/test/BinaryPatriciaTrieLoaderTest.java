@@ -0,0 +1,112 @@
+package projects.bpt.test;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import projects.bpt.BinaryPatriciaTrie;
+import projects.bpt.BinaryPatriciaTrieLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>A testing framework for {@link BinaryPatriciaTrieLoader}.</p>
+ *
+ * @see BinaryPatriciaTrieTest
+ */
+public class BinaryPatriciaTrieLoaderTest {
+
+    private Path file;
+    private Random r = new Random(47);
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("keys", ".txt");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private BinaryPatriciaTrie load(String contents) throws IOException {
+        Files.write(file, contents.getBytes(StandardCharsets.US_ASCII));
+        return BinaryPatriciaTrieLoader.load(file);
+    }
+
+    private void assertLoadsLike(ArrayList<String> lines) throws IOException {
+        BinaryPatriciaTrie expected = new BinaryPatriciaTrie();
+        StringBuilder contents = new StringBuilder();
+        for(String line : lines){
+            expected.insert(line);
+            contents.append(line).append('\n');
+        }
+        BinaryPatriciaTrie loaded = load(contents.toString());
+        assertEquals(expected.getSize(), loaded.getSize());
+        assertEquals(BinaryKeys.keysOf(expected.inorderTraversal()), BinaryKeys.keysOf(loaded.inorderTraversal()));
+        for(String line : lines)
+            assertTrue(loaded.search(line));
+        // The loaded trie should remain fully usable.
+        for(String line : new TreeSet<String>(lines))
+            assertTrue(loaded.delete(line));
+        assertTrue(loaded.isEmpty());
+    }
+
+    private ArrayList<String> randomKeys(int howMany){
+        ArrayList<String> keys = new ArrayList<String>();
+        for(int i = 0; i < howMany; i++)
+            keys.add(BinaryKeys.random(r, 20));
+        return keys;
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        assertTrue(load("").isEmpty());
+        assertTrue(load("\n\r\n\n").isEmpty());
+    }
+
+    @Test
+    public void testSortedInput() throws IOException {
+        ArrayList<String> keys = new ArrayList<String>(new TreeSet<String>(randomKeys(3000)));
+        assertLoadsLike(keys);
+    }
+
+    @Test
+    public void testSortedInputWithPrefixesAndDuplicates() throws IOException {
+        BinaryPatriciaTrie trie = load("0\n00\n00\n000\n0001\n001\n01\n1\n11\n110\n");
+        assertEquals(9, trie.getSize());
+        assertEquals("0001", trie.getLongest());
+        assertFalse(trie.search("10"));
+    }
+
+    @Test
+    public void testUnsortedInput() throws IOException {
+        ArrayList<String> keys = randomKeys(3000);
+        assertLoadsLike(keys);
+        Collections.sort(keys);
+        Collections.reverse(keys);
+        assertLoadsLike(keys);
+    }
+
+    @Test
+    public void testLineTerminators() throws IOException {
+        BinaryPatriciaTrie trie = load("01\r\n1\r\n\r\n0110");
+        assertEquals(3, trie.getSize());
+        assertTrue(trie.search("01"));
+        assertTrue(trie.search("1"));
+        assertTrue(trie.search("0110"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidCharacter() throws IOException {
+        load("01\n012\n");
+    }
+}
@@ -0,0 +1,256 @@
+package projects.bpt.test;
+
+import org.junit.Before;
+import org.junit.Test;
+import projects.bpt.BinaryPatriciaTrie;
+import projects.bpt.TrieStatistics;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>A testing framework for {@link BinaryPatriciaTrie}.</p>
+ *
+ * @see BinaryPatriciaTrie
+ */
+public class BinaryPatriciaTrieTest {
+
+    private BinaryPatriciaTrie trie;
+    private Random r = new Random(47);
+
+    private String randomKey(int maxLength){
+        StringBuilder key = new StringBuilder();
+        int length = 1 + r.nextInt(maxLength);
+        for(int i = 0; i < length; i++)
+            key.append(r.nextBoolean() ? '1' : '0');
+        return key.toString();
+    }
+
+    @Before
+    public void setUp(){
+        trie = new BinaryPatriciaTrie();
+    }
+
+    @Test
+    public void testEmptyTrie(){
+        assertTrue("Trie should be empty.", trie.isEmpty());
+        assertEquals("Trie should have no keys.", 0, trie.getSize());
+        assertFalse("Empty trie should not contain anything.", trie.search("0"));
+        assertEquals("The longest key of an empty trie should be the empty string.", "", trie.getLongest());
+        assertFalse("Inorder traversal of an empty trie should be empty.", trie.inorderTraversal().hasNext());
+    }
+
+    @Test
+    public void testInsertSearchAndPrefixes(){
+        String[] keys = {"00", "0", "0010", "1", "0011", "11011"};
+        for(String key : keys)
+            assertTrue("Key " + key + " should have been inserted.", trie.insert(key));
+        assertFalse("Duplicate key should not have been inserted.", trie.insert("0010"));
+        assertEquals(keys.length, trie.getSize());
+        for(String key : keys)
+            assertTrue("Key " + key + " should have been found.", trie.search(key));
+        for(String key : new String[]{"", "001", "01", "110", "110110", "10"})
+            assertFalse("Key " + key + " should not have been found.", trie.search(key));
+    }
+
+    @Test
+    public void testInorderTraversalAndLongest(){
+        for(String key : new String[]{"01", "11", "0", "001", "010"})
+            trie.insert(key);
+        Iterator<String> it = trie.inorderTraversal();
+        for(String expected : new String[]{"001", "0", "010", "01", "11"})
+            assertEquals(expected, it.next());
+        assertFalse(it.hasNext());
+        assertEquals("Ties should be broken by value.", "010", trie.getLongest());
+    }
+
+    @Test
+    public void testDelete(){
+        for(String key : new String[]{"0", "00", "01", "0110", "0111"})
+            trie.insert(key);
+        assertFalse("Absent key should not have been deleted.", trie.delete("011"));
+        assertTrue(trie.delete("01"));
+        assertTrue(trie.delete("0110"));
+        assertFalse(trie.search("0110"));
+        assertTrue(trie.search("0111"));
+        assertTrue(trie.delete("0"));
+        assertTrue(trie.search("00"));
+        assertEquals(2, trie.getSize());
+        assertTrue(trie.delete("00"));
+        assertTrue(trie.delete("0111"));
+        assertTrue(trie.isEmpty());
+        assertFalse(trie.inorderTraversal().hasNext());
+    }
+
+    @Test
+    public void testRandomizedAgainstHashSet(){
+        Set<String> reference = new HashSet<String>();
+        for(int i = 0; i < 5000; i++){
+            String key = randomKey(16);
+            if(r.nextInt(3) == 0)
+                assertEquals("delete(" + key + ")", reference.remove(key), trie.delete(key));
+            else
+                assertEquals("insert(" + key + ")", reference.add(key), trie.insert(key));
+        }
+        assertEquals(reference.size(), trie.getSize());
+        for(int i = 0; i < 2000; i++){
+            String key = randomKey(16);
+            assertEquals("search(" + key + ")", reference.contains(key), trie.search(key));
+        }
+        int traversed = 0;
+        for(Iterator<String> it = trie.inorderTraversal(); it.hasNext(); traversed++)
+            assertTrue(reference.contains(it.next()));
+        assertEquals(reference.size(), traversed);
+    }
+
+    @Test
+    public void testSearchBatch(){
+        ArrayList<String> queries = new ArrayList<String>();
+        for(int i = 0; i < 3000; i++){
+            String key = randomKey(24);
+            if(r.nextBoolean())
+                trie.insert(key);
+            queries.add(key);
+            queries.add(randomKey(24));
+        }
+        String[] keys = queries.toArray(new String[0]);
+        boolean[] results = new boolean[keys.length];
+        trie.searchBatch(keys, results);
+        for(int i = 0; i < keys.length; i++)
+            assertEquals("searchBatch() disagreed with search() on " + keys[i], trie.search(keys[i]), results[i]);
+        trie.searchBatch(new String[0], new boolean[0]); // Should not throw.
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSearchBatchShortResults(){
+        trie.searchBatch(new String[]{"0", "1"}, new boolean[1]);
+    }
+
+    @Test
+    public void testSearchWithinDistance(){
+        ArrayList<String> keys = new ArrayList<String>();
+        for(int i = 0; i < 4000; i++){
+            String key = randomKey(16);
+            if(trie.insert(key))
+                keys.add(key);
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for(int i = 0; i < 50; i++){
+            String query = randomKey(16);
+            int distance = r.nextInt(4);
+            Set<String> expected = new HashSet<String>();
+            for(String key : keys){
+                if(key.length() != query.length())
+                    continue;
+                int mismatches = 0;
+                for(int j = 0; j < key.length(); j++)
+                    if(key.charAt(j) != query.charAt(j))
+                        mismatches++;
+                if(mismatches <= distance)
+                    expected.add(key);
+            }
+            List<String> sequential = trie.searchWithinDistance(query, distance);
+            assertEquals(expected, new HashSet<String>(sequential));
+            assertEquals("Results should not contain duplicates.", expected.size(), sequential.size());
+            assertEquals("Parallel search should agree with sequential search.", sequential,
+                    trie.searchWithinDistance(query, distance, pool));
+        }
+        pool.shutdown();
+        String exact = "01101100110011001100"; // Longer than any random key.
+        assertTrue(trie.insert(exact));
+        assertEquals(1, trie.searchWithinDistance(exact, 0).size());
+        assertEquals(0, trie.searchWithinDistance(exact.substring(1) + "1", 0).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSearchWithinNegativeDistance(){
+        trie.searchWithinDistance("0", -1);
+    }
+
+    private static Set<String> keySet(BinaryPatriciaTrie trie){
+        Set<String> keys = new HashSet<String>();
+        for(Iterator<String> it = trie.inorderTraversal(); it.hasNext(); )
+            keys.add(it.next());
+        return keys;
+    }
+
+    private static void assertSameTraversal(BinaryPatriciaTrie expected, BinaryPatriciaTrie actual){
+        Iterator<String> ite = expected.inorderTraversal(), ita = actual.inorderTraversal();
+        while(ite.hasNext())
+            assertEquals(ite.next(), ita.next());
+        assertFalse(ita.hasNext());
+    }
+
+    @Test
+    public void testSetOperations(){
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for(int round = 0; round < 10; round++){
+            BinaryPatriciaTrie other = new BinaryPatriciaTrie();
+            trie = new BinaryPatriciaTrie();
+            for(int i = 0; i < 1500; i++){
+                trie.insert(randomKey(8 + round));
+                other.insert(randomKey(8 + round));
+            }
+            if(round % 3 == 0)
+                trie.insert("");
+            Set<String> first = keySet(trie), second = keySet(other);
+            Set<String> union = new HashSet<String>(first), intersection = new HashSet<String>(first),
+                    difference = new HashSet<String>(first);
+            union.addAll(second);
+            intersection.retainAll(second);
+            difference.removeAll(second);
+
+            BinaryPatriciaTrie[] results = {trie.union(other), trie.intersection(other), trie.difference(other)};
+            BinaryPatriciaTrie[] parallel = {trie.union(other, pool), trie.intersection(other, pool), trie.difference(other, pool)};
+            Set<?>[] expected = {union, intersection, difference};
+            for(int i = 0; i < results.length; i++){
+                assertEquals(expected[i], keySet(results[i]));
+                assertEquals(expected[i].size(), results[i].getSize());
+                assertSameTraversal(results[i], parallel[i]);
+                BinaryPatriciaTrie inserted = new BinaryPatriciaTrie();
+                for(Object key : expected[i])
+                    inserted.insert((String)key);
+                assertSameTraversal(inserted, results[i]); // The result should be a properly compressed trie.
+                for(Object key : expected[i]) // ...and fully usable, without affecting the operands.
+                    assertTrue(results[i].delete((String)key));
+                assertTrue(results[i].isEmpty());
+            }
+            assertEquals(first, keySet(trie));
+            assertEquals(second, keySet(other));
+        }
+        pool.shutdown();
+        assertTrue(new BinaryPatriciaTrie().union(new BinaryPatriciaTrie()).isEmpty());
+    }
+
+    @Test
+    public void testStatistics(){
+        TrieStatistics empty = trie.getStatistics();
+        assertEquals(0, empty.getKeyCount());
+        assertEquals(1, empty.getNodeCount());
+        assertEquals(0, empty.getNodesPerKey(), 0);
+        assertArrayEquals("An empty trie has no leaves.", new long[0], empty.getLeafDepthHistogram());
+        assertEquals(0, empty.getAverageLeafDepth(), 0);
+        trie.insert("");
+        assertArrayEquals("A root holding the empty key is a leaf.", new long[]{1}, trie.getStatistics().getLeafDepthHistogram());
+        trie.delete("");
+
+        // Root -> "0" (key) -> {"0110" (key 00110), "1" (key 01) -> "1" (key 011)}, Root -> "111" (key)
+        for(String key : new String[]{"0", "00110", "01", "011", "111"})
+            trie.insert(key);
+        TrieStatistics stats = trie.getStatistics();
+        assertEquals(5, stats.getKeyCount());
+        assertEquals(6, stats.getNodeCount());
+        assertEquals(1.2, stats.getNodesPerKey(), 1e-9);
+        assertArrayEquals(new long[]{0, 1, 1, 1}, stats.getLeafDepthHistogram());
+        assertArrayEquals(new long[]{0, 3, 0, 1, 1}, stats.getSkipLengthHistogram());
+        assertEquals(2.0, stats.getAverageLeafDepth(), 1e-9);
+        assertTrue(stats.getEstimatedBytesPerKey() > 0);
+    }
+}
@@ -0,0 +1,121 @@
+package projects.bpt.test;
+
+import org.junit.Test;
+import projects.bpt.BinaryPatriciaTrie;
+import projects.bpt.BurstBinaryPatriciaTrie;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>A testing framework for {@link BurstBinaryPatriciaTrie}. Small bucket capacities are used throughout,
+ * so that buckets burst and collapse often.</p>
+ *
+ * @see BinaryPatriciaTrieTest
+ */
+public class BurstBinaryPatriciaTrieTest {
+
+    private Random r = new Random(47);
+
+    private static void assertSameKeys(BinaryPatriciaTrie expected, BurstBinaryPatriciaTrie actual){
+        assertEquals(BinaryKeys.keysOf(expected.inorderTraversal()), BinaryKeys.keysOf(actual.inorderTraversal()));
+        assertEquals(expected.getSize(), actual.getSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity(){
+        new BurstBinaryPatriciaTrie(0);
+    }
+
+    @Test
+    public void testEmptyTrie(){
+        BurstBinaryPatriciaTrie trie = new BurstBinaryPatriciaTrie();
+        assertTrue(trie.isEmpty());
+        assertFalse(trie.search("1"));
+        assertFalse(trie.delete("1"));
+        assertEquals("", trie.getLongest());
+    }
+
+    @Test
+    public void testPrefixesAndLongKeys(){
+        BurstBinaryPatriciaTrie trie = new BurstBinaryPatriciaTrie(2);
+        StringBuilder longKey = new StringBuilder();
+        for(int i = 0; i < 300; i++) // Long enough to need a two-byte length in a bucket.
+            longKey.append(i % 3 == 0 ? '1' : '0');
+        String[] keys = {"0", "00", "000", "0001", longKey.toString(), "", "1"};
+        for(String key : keys)
+            assertTrue(trie.insert(key));
+        for(String key : keys){
+            assertFalse(trie.insert(key));
+            assertTrue(trie.search(key));
+        }
+        assertFalse(trie.search("0000"));
+        assertEquals(longKey.toString(), trie.getLongest());
+        for(String key : keys)
+            assertTrue(trie.delete(key));
+        assertTrue(trie.isEmpty());
+    }
+
+    @Test
+    public void testRandomizedAgainstPlainTrie(){
+        for(int capacity : new int[]{1, 3, 16}){
+            BurstBinaryPatriciaTrie trie = new BurstBinaryPatriciaTrie(capacity);
+            BinaryPatriciaTrie plain = new BinaryPatriciaTrie();
+            Set<String> reference = new HashSet<String>();
+            for(int i = 0; i < 6000; i++){
+                String key = BinaryKeys.random(r, 14);
+                if(r.nextInt(3) == 0){
+                    assertEquals("delete(" + key + ")", reference.remove(key), trie.delete(key));
+                    plain.delete(key);
+                } else {
+                    assertEquals("insert(" + key + ")", reference.add(key), trie.insert(key));
+                    plain.insert(key);
+                }
+            }
+            assertEquals(reference.size(), trie.getSize());
+            for(int i = 0; i < 2000; i++){
+                String key = BinaryKeys.random(r, 14);
+                assertEquals("search(" + key + ")", reference.contains(key), trie.search(key));
+            }
+            assertSameKeys(plain, trie);
+            assertEquals(plain.getLongest(), trie.getLongest());
+        }
+    }
+
+    @Test
+    public void testBucketCapacityBoundaries(){
+        for(int capacity : new int[]{1, 2, 3, 8}){
+            // A chain of keys, each a prefix of the next, all under "1": they share a bucket until the key after
+            // the capacity-th bursts it. Keys under "0" differ from the chain in their first bit, so they sit in a
+            // bucket of their own which fills up and bursts on the same boundaries.
+            List<String> keys = new ArrayList<String>();
+            StringBuilder chain = new StringBuilder("1"), sibling = new StringBuilder("0");
+            for(int i = 0; i <= capacity + 1; i++){
+                keys.add(chain.append(i % 2).toString());
+                keys.add(sibling.append(i % 3 == 0 ? '1' : '0').toString() + (i % 2 == 0 ? "" : "1"));
+            }
+            BurstBinaryPatriciaTrie trie = new BurstBinaryPatriciaTrie(capacity);
+            BinaryPatriciaTrie plain = new BinaryPatriciaTrie();
+            for(String key : keys){
+                assertEquals("insert(" + key + ")", plain.insert(key), trie.insert(key));
+                assertSameKeys(plain, trie);
+            }
+            for(String key : keys)
+                assertTrue("search(" + key + ")", trie.search(key));
+            assertEquals(plain.getLongest(), trie.getLongest());
+            // Deleting from the longest key down shrinks the buckets back through every capacity.
+            for(int i = keys.size() - 1; i >= 0; i--){
+                String key = keys.get(i);
+                assertEquals("delete(" + key + ")", plain.delete(key), trie.delete(key));
+                assertFalse(trie.search(key));
+                assertSameKeys(plain, trie);
+            }
+            assertTrue(trie.isEmpty());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package projects.bpt.test;
+
+import org.junit.Test;
+import projects.bpt.BinaryPatriciaTrie;
+import projects.bpt.PersistentBinaryPatriciaTrie;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>A testing framework for {@link PersistentBinaryPatriciaTrie}.</p>
+ *
+ * @see BinaryPatriciaTrieTest
+ */
+public class PersistentBinaryPatriciaTrieTest {
+
+    private Random r = new Random(47);
+
+    @Test
+    public void testEmptyVersion(){
+        PersistentBinaryPatriciaTrie empty = PersistentBinaryPatriciaTrie.empty();
+        assertTrue(empty.isEmpty());
+        assertFalse(empty.search(""));
+        assertSame("Deleting from the empty trie should not create a version.", empty, empty.delete("01"));
+        assertEquals("", empty.getLongest());
+    }
+
+    @Test
+    public void testVersionsAreIndependent(){
+        PersistentBinaryPatriciaTrie v0 = PersistentBinaryPatriciaTrie.empty();
+        PersistentBinaryPatriciaTrie v1 = v0.insert("0101").insert("01").insert("0110");
+        PersistentBinaryPatriciaTrie v2 = v1.delete("01").insert("1");
+        assertSame("Inserting a present key should not create a version.", v1, v1.insert("0110"));
+        assertTrue(v0.isEmpty());
+        assertEquals(3, v1.getSize());
+        assertTrue(v1.search("01"));
+        assertFalse(v1.search("1"));
+        assertEquals(3, v2.getSize());
+        assertFalse(v2.search("01"));
+        assertTrue(v2.search("1"));
+        assertTrue(v2.search("0101"));
+    }
+
+    @Test
+    public void testRandomizedAgainstMutableTrie(){
+        BinaryPatriciaTrie mutable = new BinaryPatriciaTrie();
+        PersistentBinaryPatriciaTrie version = PersistentBinaryPatriciaTrie.empty();
+        ArrayList<PersistentBinaryPatriciaTrie> history = new ArrayList<PersistentBinaryPatriciaTrie>();
+        ArrayList<ArrayList<String>> snapshots = new ArrayList<ArrayList<String>>();
+        for(int i = 0; i < 4000; i++){
+            String key = BinaryKeys.random(r, 12);
+            if(r.nextInt(3) == 0){
+                assertEquals("delete(" + key + ")", mutable.delete(key), version.delete(key) != version);
+                version = version.delete(key);
+            } else {
+                assertEquals("insert(" + key + ")", mutable.insert(key), version.insert(key) != version);
+                version = version.insert(key);
+            }
+            if(i % 400 == 0){
+                history.add(version);
+                snapshots.add(BinaryKeys.keysOf(mutable.inorderTraversal()));
+            }
+        }
+        assertEquals(mutable.getSize(), version.getSize());
+        assertEquals(BinaryKeys.keysOf(mutable.inorderTraversal()), BinaryKeys.keysOf(version.inorderTraversal()));
+        assertEquals(mutable.getLongest(), version.getLongest());
+        for(int i = 0; i < history.size(); i++) // Older versions must not have been affected by later updates.
+            assertEquals(snapshots.get(i), BinaryKeys.keysOf(history.get(i).inorderTraversal()));
+    }
+}
@@ -0,0 +1,76 @@
+package projects.pqueue.heaps;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>An <tt>ElementCodec</tt> turns the elements of an {@link ExternalMinHeap} into bytes and back, so that they can be
+ * written to disk. Encodings may be of variable length, as long as no element takes more than
+ * {@link #maxEncodedSize()} bytes.</p>
+ *
+ * @param <T> The type of element encoded.
+ *
+ * @see ExternalMinHeap
+ */
+public interface ElementCodec<T> {
+
+	/**
+	 * A codec for {@link Integer}s, four bytes each.
+	 */
+	ElementCodec<Integer> INTEGERS = new ElementCodec<Integer>() {
+		@Override
+		public int maxEncodedSize(){
+			return Integer.BYTES;
+		}
+
+		@Override
+		public void encode(Integer element, ByteBuffer buffer){
+			buffer.putInt(element);
+		}
+
+		@Override
+		public Integer decode(ByteBuffer buffer){
+			return buffer.getInt();
+		}
+	};
+
+	/**
+	 * A codec for {@link Long}s, eight bytes each.
+	 */
+	ElementCodec<Long> LONGS = new ElementCodec<Long>() {
+		@Override
+		public int maxEncodedSize(){
+			return Long.BYTES;
+		}
+
+		@Override
+		public void encode(Long element, ByteBuffer buffer){
+			buffer.putLong(element);
+		}
+
+		@Override
+		public Long decode(ByteBuffer buffer){
+			return buffer.getLong();
+		}
+	};
+
+	/**
+	 * Returns the largest number of bytes that {@link #encode(Object, ByteBuffer)} may write for a single element.
+	 * @return An upper bound on the size of an encoded element, in bytes.
+	 */
+	int maxEncodedSize();
+
+	/**
+	 * Writes <tt>element</tt> at the position of <tt>buffer</tt>, which has at least {@link #maxEncodedSize()}
+	 * bytes remaining.
+	 * @param element The element to encode.
+	 * @param buffer The buffer to write the element to.
+	 */
+	void encode(T element, ByteBuffer buffer);
+
+	/**
+	 * Reads back an element written by {@link #encode(Object, ByteBuffer)}, from the position of <tt>buffer</tt>.
+	 * @param buffer The buffer to read the element from.
+	 * @return The decoded element.
+	 */
+	T decode(ByteBuffer buffer);
+}
@@ -0,0 +1,422 @@
+package projects.pqueue.heaps;
+
+import projects.pqueue.InvalidCapacityException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>An <tt>ExternalMinHeap</tt> is a {@link MinHeap} which can hold far more elements than fit in memory. New
+ * elements go to an in-memory {@link ArrayMinHeap} of bounded capacity. Whenever that heap is full, its contents are
+ * sorted and <em>spilled</em> to a temporary file as a <em>run</em>, with large sequential writes. The minimum of the
+ * whole heap is the smallest of the in-memory minimum and the first unread element of every run, which are kept in a
+ * small heap of their own; {@link #deleteMin()} thus merges the runs lazily, reading each one sequentially through a
+ * buffer of its own. A spill sorts the array of the in-memory heap in place and writes it through a single buffer,
+ * which every spill of the heap reuses, so that it takes no memory beyond the heap itself.</p>
+ *
+ * <p>To keep the number of buffers bounded, as soon as there are {@value #MAX_RUNS} runs, the smaller half of them
+ * is merged into a single run. Every element is therefore rewritten only a logarithmic number of times, and memory
+ * use never exceeds the in-memory heap plus {@value #MAX_RUNS} + 1 buffers of {@value #BUFFER_SIZE} bytes, not
+ * counting the iterators and the short-lived readers of a merge.</p>
+ *
+ * <p>Elements are turned into bytes by an {@link ElementCodec}. Run files are opened with
+ * {@link StandardOpenOption#DELETE_ON_CLOSE}: they are deleted as soon as they have been read in full, and all of
+ * them are deleted by {@link #clear()} and {@link #close()}. Some platforms even unlink them right after opening
+ * them, so that they do not outlive the process. Failures to read or write them are reported as
+ * {@link UncheckedIOException}s, since the methods of {@link MinHeap} cannot throw an {@link IOException}.</p>
+ *
+ * @param <T> The {@link Comparable} type of object held by the <tt>ExternalMinHeap</tt>.
+ *
+ * @see MinHeap
+ * @see ElementCodec
+ */
+public class ExternalMinHeap<T extends Comparable<T>> implements MinHeap<T>, AutoCloseable {
+
+	private static final int DEFAULT_MEMORY_CAPACITY = 1 << 20, MAX_RUNS = 64, BUFFER_SIZE = 1 << 16;
+
+	private final ElementCodec<T> codec;
+	private final int memoryCapacity;
+	private final Path directory;
+	private final ArrayMinHeap<T> memory;
+	private final List<Run> openRuns = new ArrayList<Run>();
+	private ArrayMinHeap<Run> runs = new ArrayMinHeap<Run>(); // The open runs, ordered by their first unread element.
+	private ByteBuffer writeBuffer; // Allocated on the first spill, and reused by every later one.
+	private long size, bytesWritten;
+	private int modificationCount; // Makes our iterators fail-fast.
+
+	/* A sorted run on disk, read sequentially from a given offset. The element at the head of the run has already
+	 * been read into memory, but has not been removed from the heap yet. The runs of the heap read through direct
+	 * buffers, which they keep for as long as they are open; the short-lived readers of an iterator read through
+	 * heap buffers, which are cheaper to allocate and are reclaimed as soon as the iterator is. */
+	private final class Run implements Comparable<Run> {
+
+		private final FileChannel channel;
+		private final long length;
+		private final ByteBuffer buffer;
+		private long position, headOffset, remaining; // position is the offset of the first byte not yet buffered.
+		private T head;
+
+		Run(FileChannel channel, long length, long offset, long count, boolean direct) throws IOException {
+			this.channel = channel;
+			this.length = length;
+			buffer = direct ? ByteBuffer.allocateDirect(BUFFER_SIZE) : ByteBuffer.allocate(BUFFER_SIZE);
+			position = offset;
+			remaining = count;
+			buffer.flip();
+			advance();
+		}
+
+		/* A new reader over the rest of other, head included. Both share the file, which only the original closes. */
+		Run(Run other) throws IOException {
+			this(other.channel, other.length, other.headOffset, other.remaining + 1, false);
+		}
+
+		/* Reads the next element into head, returning false once the run is exhausted. */
+		boolean advance() throws IOException {
+			if(remaining == 0){
+				head = null;
+				return false;
+			}
+			if(buffer.remaining() < codec.maxEncodedSize() && position < length){
+				buffer.compact();
+				while(buffer.hasRemaining() && position < length){
+					int n = channel.read(buffer, position);
+					if(n < 0)
+						break;
+					position += n;
+				}
+				buffer.flip();
+			}
+			headOffset = position - buffer.remaining();
+			head = codec.decode(buffer);
+			remaining--;
+			return true;
+		}
+
+		void close() throws IOException {
+			channel.close(); // Also deletes the file.
+		}
+
+		@Override
+		public int compareTo(Run other){
+			return head.compareTo(other.head);
+		}
+	}
+
+	/* Merges a sorted iterator over in-memory elements with some runs, consuming the runs as it goes. */
+	private final class MergingIterator implements Iterator<T> {
+
+		private final Iterator<T> sorted;
+		private final ArrayMinHeap<Run> merged;
+		private T next;
+
+		MergingIterator(Iterator<T> sorted, Collection<Run> runs){
+			this.sorted = sorted;
+			next = sorted.hasNext() ? sorted.next() : null;
+			merged = new ArrayMinHeap<Run>(runs);
+		}
+
+		@Override
+		public boolean hasNext(){
+			return next != null || !merged.isEmpty();
+		}
+
+		@Override
+		public T next() throws NoSuchElementException {
+			if(!hasNext())
+				throw new NoSuchElementException("next(): Iterator exhausted elements.");
+			try {
+				Run top = merged.isEmpty() ? null : merged.getMin();
+				if(top == null || (next != null && next.compareTo(top.head) <= 0)){
+					T element = next;
+					next = sorted.hasNext() ? sorted.next() : null;
+					return element;
+				}
+				T element = top.head;
+				if(top.advance())
+					merged.replaceMin(top);
+				else
+					merged.deleteMin();
+				return element;
+			} catch(EmptyHeapException e){
+				throw new IllegalStateException(e); // Cannot happen: merged was checked for emptiness.
+			} catch(IOException e){
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/* Writes the elements of sorted to a new run file, and opens the run for reading. */
+	private Run writeRun(Iterator<T> sorted) throws IOException {
+		Path file = Files.createTempFile(directory, "minheap-run-", ".bin");
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+				StandardOpenOption.DELETE_ON_CLOSE);
+		try {
+			if(writeBuffer == null)
+				writeBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+			ByteBuffer buffer = writeBuffer;
+			buffer.clear(); // A failed write may have left bytes behind.
+			int max = codec.maxEncodedSize();
+			long count = 0, length = 0;
+			while(sorted.hasNext()){
+				if(buffer.remaining() < max)
+					length += flush(channel, buffer);
+				codec.encode(sorted.next(), buffer);
+				count++;
+			}
+			length += flush(channel, buffer);
+			bytesWritten += length;
+			return new Run(channel, length, 0, count, true);
+		} catch(IOException | RuntimeException e){
+			channel.close();
+			throw e;
+		}
+	}
+
+	private static long flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		long written = buffer.remaining();
+		while(buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+		return written;
+	}
+
+	/* Moves the in-memory heap to a new run, merging the smaller half of the runs if there are too many of them. The
+	 * merge reads through new readers, and the runs it merges are only replaced once the merged run has been written,
+	 * so that a failed write leaves every run as it was; writeRun() deletes the partial file. */
+	private void spill(){
+		try {
+			// Sorting in place leaves memory a valid heap, so nothing is lost if the write fails.
+			openRuns.add(writeRun(Arrays.asList(memory.sortInPlace()).subList(0, memory.size()).iterator()));
+			memory.clear();
+			if(openRuns.size() >= MAX_RUNS){
+				Collections.sort(openRuns, (a, b) -> Long.compare(a.remaining, b.remaining));
+				List<Run> smaller = openRuns.subList(0, MAX_RUNS / 2);
+				List<Run> readers = new ArrayList<Run>(smaller.size());
+				for(Run run : smaller)
+					readers.add(new Run(run));
+				Run merged = writeRun(new MergingIterator(Collections.<T>emptyIterator(), readers));
+				List<Run> replaced = new ArrayList<Run>(smaller);
+				smaller.clear();
+				openRuns.add(merged);
+				IOException failure = null;
+				for(Run run : replaced){
+					try {
+						run.close();
+					} catch(IOException e){
+						failure = e;
+					}
+				}
+				if(failure != null)
+					throw failure;
+			}
+		} catch(IOException e){
+			throw new UncheckedIOException(e);
+		} finally {
+			runs = new ArrayMinHeap<Run>(openRuns);
+		}
+	}
+
+	/**
+	 * Creates an <tt>ExternalMinHeap</tt> which holds up to 2<sup>20</sup> elements in memory and spills the rest
+	 * to the default temporary-file directory.
+	 *
+	 * @param codec The {@link ElementCodec} used to write elements to disk and read them back.
+	 */
+	public ExternalMinHeap(ElementCodec<T> codec){
+		this.codec = codec;
+		memoryCapacity = DEFAULT_MEMORY_CAPACITY;
+		directory = Paths.get(System.getProperty("java.io.tmpdir"));
+		memory = new ArrayMinHeap<T>();
+	}
+
+	/**
+	 * Creates an <tt>ExternalMinHeap</tt> which holds up to <tt>memoryCapacity</tt> elements in memory and spills
+	 * the rest to files in <tt>directory</tt>.
+	 *
+	 * @param codec The {@link ElementCodec} used to write elements to disk and read them back.
+	 * @param memoryCapacity The largest number of elements kept in the in-memory heap.
+	 * @param directory The directory where run files are created.
+	 * @throws InvalidCapacityException If <tt>memoryCapacity</tt> is smaller than 1.
+	 */
+	public ExternalMinHeap(ElementCodec<T> codec, int memoryCapacity, Path directory) throws InvalidCapacityException {
+		if(memoryCapacity < 1)
+			throw new InvalidCapacityException("Invalid capacity provided!");
+		this.codec = codec;
+		this.memoryCapacity = memoryCapacity;
+		this.directory = directory;
+		memory = new ArrayMinHeap<T>();
+	}
+
+	/**
+	 * Returns the largest number of elements this heap keeps in memory.
+	 * @return The capacity of the in-memory heap.
+	 */
+	public int getMemoryCapacity(){
+		return memoryCapacity;
+	}
+
+	/**
+	 * Returns the number of runs which currently hold elements on disk.
+	 * @return The number of open run files.
+	 */
+	public int getRunCount(){
+		return openRuns.size();
+	}
+
+	/**
+	 * Returns the number of bytes written to run files so far, both by spills and by merges of runs.
+	 * @return The total size of all the runs ever written, in bytes.
+	 */
+	public long getBytesWritten(){
+		return bytesWritten;
+	}
+
+	/**
+	 * Returns the number of elements in the heap, which may exceed the range of {@link #size()}.
+	 * @return The number of elements in the heap.
+	 */
+	public long longSize(){
+		return size;
+	}
+
+	@Override
+	public void insert(T element){
+		if(memory.size() == memoryCapacity)
+			spill();
+		memory.insert(element);
+		size++;
+		modificationCount++;
+	}
+
+	@Override
+	public T deleteMin() throws EmptyHeapException {
+		if(isEmpty())
+			throw new EmptyHeapException("deleteMin(): heap is empty.");
+		Run top = runs.isEmpty() ? null : runs.getMin();
+		T min;
+		if(top == null || (!memory.isEmpty() && memory.getMin().compareTo(top.head) <= 0))
+			min = memory.deleteMin();
+		else {
+			min = top.head;
+			try {
+				if(top.advance())
+					runs.replaceMin(top);
+				else {
+					runs.deleteMin();
+					openRuns.remove(top);
+					top.close();
+				}
+			} catch(IOException e){
+				throw new UncheckedIOException(e);
+			}
+		}
+		size--;
+		modificationCount++;
+		return min;
+	}
+
+	@Override
+	public T getMin() throws EmptyHeapException {
+		if(isEmpty())
+			throw new EmptyHeapException("getMin(): heap is empty.");
+		if(runs.isEmpty())
+			return memory.getMin();
+		T runMin = runs.getMin().head;
+		return (memory.isEmpty() || runMin.compareTo(memory.getMin()) < 0) ? runMin : memory.getMin();
+	}
+
+	/**
+	 * Returns the number of elements in the heap, or {@link Integer#MAX_VALUE} if there are more.
+	 * @return The number of elements in the heap, capped at {@link Integer#MAX_VALUE}.
+	 * @see #longSize()
+	 */
+	@Override
+	public int size(){
+		return (int)Math.min(size, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	/**
+	 * Clears the heap of all elements, deleting all of its run files.
+	 */
+	@Override
+	public void clear(){
+		IOException failure = null;
+		for(Run run : openRuns){
+			try {
+				run.close();
+			} catch(IOException e){
+				failure = e;
+			}
+		}
+		openRuns.clear();
+		runs.clear();
+		memory.clear();
+		size = 0;
+		modificationCount++;
+		if(failure != null)
+			throw new UncheckedIOException(failure);
+	}
+
+	/**
+	 * Same as {@link #clear()}, so that an <tt>ExternalMinHeap</tt> can be used in a try-with-resources statement
+	 * which guarantees that its files are deleted.
+	 */
+	@Override
+	public void close(){
+		clear();
+	}
+
+	/**
+	 * Returns a fail-fast {@link Iterator} over the elements of the heap in ascending order. The iterator merges a
+	 * sorted copy of the in-memory heap with new readers over the runs, so iterating reads every run once more,
+	 * sequentially, but leaves the heap itself untouched.
+	 *
+	 * @return A fail-fast {@link Iterator} over the elements of the heap in ascending order.
+	 */
+	@Override
+	public Iterator<T> iterator(){
+		List<Run> readers = new ArrayList<Run>(openRuns.size());
+		try {
+			for(Run run : openRuns)
+				readers.add(new Run(run));
+		} catch(IOException e){
+			throw new UncheckedIOException(e);
+		}
+		final MergingIterator merging = new MergingIterator(memory.iterator(), readers);
+		final int expectedModificationCount = modificationCount;
+		return new Iterator<T>() {
+			@Override
+			public boolean hasNext(){
+				return merging.hasNext();
+			}
+
+			@Override
+			public T next() throws ConcurrentModificationException, NoSuchElementException {
+				if(modificationCount != expectedModificationCount)
+					throw new ConcurrentModificationException("next(): Heap was modified while traversing it through iterator.");
+				return merging.next();
+			}
+		};
+	}
+}
@@ -0,0 +1,405 @@
+package projects.pqueue.heaps;
+
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p><tt>HeapSort</tt> gathers static methods which sort arrays and turn them into heaps, in place.</p>
+ *
+ * <p>The <tt>sort</tt> methods are <em>heapsorts</em>: the array is turned into a max-heap, whose maximum is then
+ * repeatedly swapped with the last element of the heap. Unlike quicksort, heapsort takes <i>O(n log n)</i> time in
+ * the worst case, whatever the input; unlike mergesort, it needs no more than <i>O(1)</i> extra memory. These methods
+ * allocate nothing at all, which makes them a good fit for latency-sensitive code, although they are slower on
+ * average than {@link java.util.Arrays#sort(int[])}, whose memory accesses are much more local. Heapsort is not
+ * stable.</p>
+ *
+ * <p>When the maximum is removed, the last element of the heap takes its place; since that element comes from the
+ * bottom of the heap, it almost always sinks back down to it. The sorts therefore first move the hole left by the
+ * maximum all the way down, along the larger children, and only then move the element up from there, which saves
+ * about half of the comparisons of a plain sift-down.</p>
+ *
+ * <p>The <tt>heapify</tt> methods turn an array into a <b>min</b>-heap, laid out like the binary
+ * {@link ArrayMinHeap}s. The <tt>parallelHeapify</tt> methods do so on the common {@link ForkJoinPool}: the two
+ * subtrees of a node are independent heaps, so they are built in parallel before the node itself is sifted down,
+ * and only the few nodes at the top of the heap are sifted down one at a time.</p>
+ *
+ * @see ArrayMinHeap
+ */
+public final class HeapSort {
+
+	/* Subtrees with at most this many nodes are heapified by a single task. */
+	private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+	private HeapSort(){
+	}
+
+	/* The size of the subtree rooted at index i is at most (n >> depth of i). */
+	private static boolean isSmall(int i, int n){
+		return (n >>> (31 - Integer.numberOfLeadingZeros(i + 1))) <= PARALLEL_THRESHOLD;
+	}
+
+	/* ************************************************ int[] ************************************************ */
+
+	/**
+	 * Sorts an array of <tt>int</tt>s in ascending order, in place, in <i>O(n log n)</i> time.
+	 * @param a The array to sort.
+	 */
+	public static void sort(int[] a){
+		int n = a.length;
+		for(int i = (n - 2) >>> 1; n > 1 && i >= 0; i--)
+			siftDownMax(a, i, a[i], n);
+		for(int end = n - 1; end > 0; end--){
+			int x = a[end];
+			a[end] = a[0];
+			siftDownMaxFromLeaf(a, x, end);
+		}
+	}
+
+	private static void siftDownMax(int[] a, int i, int x, int n){
+		int child;
+		while((child = 2 * i + 1) < n){
+			if(child + 1 < n && a[child + 1] > a[child])
+				child++;
+			if(a[child] <= x)
+				break;
+			a[i] = a[child];
+			i = child;
+		}
+		a[i] = x;
+	}
+
+	/* Places x at the root of the max-heap a[0...n), moving the hole down to a leaf first, then x up from there. */
+	private static void siftDownMaxFromLeaf(int[] a, int x, int n){
+		int i = 0, child;
+		while((child = 2 * i + 1) < n){
+			if(child + 1 < n && a[child + 1] > a[child])
+				child++;
+			a[i] = a[child];
+			i = child;
+		}
+		while(i > 0){
+			int parent = (i - 1) >>> 1;
+			if(a[parent] >= x)
+				break;
+			a[i] = a[parent];
+			i = parent;
+		}
+		a[i] = x;
+	}
+
+	/**
+	 * Turns an array of <tt>int</tt>s into a binary min-heap, in place, in <i>O(n)</i> time.
+	 * @param a The array to heapify.
+	 */
+	public static void heapify(int[] a){
+		heapifySubtree(a, 0);
+	}
+
+	/**
+	 * Turns an array of <tt>int</tt>s into a binary min-heap, in place, building independent subtrees in parallel
+	 * on the common {@link ForkJoinPool}.
+	 * @param a The array to heapify.
+	 */
+	public static void parallelHeapify(int[] a){
+		ForkJoinPool.commonPool().invoke(new IntHeapifyTask(a, 0));
+	}
+
+	private static void siftDownMin(int[] a, int i, int x, int n){
+		int child;
+		while((child = 2 * i + 1) < n){
+			if(child + 1 < n && a[child + 1] < a[child])
+				child++;
+			if(a[child] >= x)
+				break;
+			a[i] = a[child];
+			i = child;
+		}
+		a[i] = x;
+	}
+
+	/* Floyd's construction, restricted to the subtree rooted at index root: its nodes are sifted down one level at a
+	 * time, from the deepest level with children up to root itself. */
+	private static void heapifySubtree(int[] a, int root){
+		int n = a.length, lastParent = (n - 2) >>> 1;
+		if(n < 2 || root > lastParent)
+			return;
+		int levels = 0;
+		while((((long)root + 1) << (levels + 1)) - 1 <= lastParent)
+			levels++;
+		for(int k = levels; k >= 0; k--){
+			int first = ((root + 1) << k) - 1, last = Math.min(first + (1 << k) - 1, lastParent);
+			for(int i = last; i >= first; i--)
+				siftDownMin(a, i, a[i], n);
+		}
+	}
+
+	private static final class IntHeapifyTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int[] a;
+		private final int root;
+
+		IntHeapifyTask(int[] a, int root){
+			this.a = a;
+			this.root = root;
+		}
+
+		@Override
+		protected void compute(){
+			if(isSmall(root, a.length)){
+				heapifySubtree(a, root);
+				return;
+			}
+			invokeAll(new IntHeapifyTask(a, 2 * root + 1), new IntHeapifyTask(a, 2 * root + 2));
+			siftDownMin(a, root, a[root], a.length);
+		}
+	}
+
+	/* ************************************************ long[] *********************************************** */
+
+	/**
+	 * Sorts an array of <tt>long</tt>s in ascending order, in place, in <i>O(n log n)</i> time.
+	 * @param a The array to sort.
+	 */
+	public static void sort(long[] a){
+		int n = a.length;
+		for(int i = (n - 2) >>> 1; n > 1 && i >= 0; i--)
+			siftDownMax(a, i, a[i], n);
+		for(int end = n - 1; end > 0; end--){
+			long x = a[end];
+			a[end] = a[0];
+			siftDownMaxFromLeaf(a, x, end);
+		}
+	}
+
+	private static void siftDownMax(long[] a, int i, long x, int n){
+		int child;
+		while((child = 2 * i + 1) < n){
+			if(child + 1 < n && a[child + 1] > a[child])
+				child++;
+			if(a[child] <= x)
+				break;
+			a[i] = a[child];
+			i = child;
+		}
+		a[i] = x;
+	}
+
+	private static void siftDownMaxFromLeaf(long[] a, long x, int n){
+		int i = 0, child;
+		while((child = 2 * i + 1) < n){
+			if(child + 1 < n && a[child + 1] > a[child])
+				child++;
+			a[i] = a[child];
+			i = child;
+		}
+		while(i > 0){
+			int parent = (i - 1) >>> 1;
+			if(a[parent] >= x)
+				break;
+			a[i] = a[parent];
+			i = parent;
+		}
+		a[i] = x;
+	}
+
+	/**
+	 * Turns an array of <tt>long</tt>s into a binary min-heap, in place, in <i>O(n)</i> time.
+	 * @param a The array to heapify.
+	 */
+	public static void heapify(long[] a){
+		heapifySubtree(a, 0);
+	}
+
+	/**
+	 * Turns an array of <tt>long</tt>s into a binary min-heap, in place, building independent subtrees in parallel
+	 * on the common {@link ForkJoinPool}.
+	 * @param a The array to heapify.
+	 */
+	public static void parallelHeapify(long[] a){
+		ForkJoinPool.commonPool().invoke(new LongHeapifyTask(a, 0));
+	}
+
+	private static void siftDownMin(long[] a, int i, long x, int n){
+		int child;
+		while((child = 2 * i + 1) < n){
+			if(child + 1 < n && a[child + 1] < a[child])
+				child++;
+			if(a[child] >= x)
+				break;
+			a[i] = a[child];
+			i = child;
+		}
+		a[i] = x;
+	}
+
+	private static void heapifySubtree(long[] a, int root){
+		int n = a.length, lastParent = (n - 2) >>> 1;
+		if(n < 2 || root > lastParent)
+			return;
+		int levels = 0;
+		while((((long)root + 1) << (levels + 1)) - 1 <= lastParent)
+			levels++;
+		for(int k = levels; k >= 0; k--){
+			int first = ((root + 1) << k) - 1, last = Math.min(first + (1 << k) - 1, lastParent);
+			for(int i = last; i >= first; i--)
+				siftDownMin(a, i, a[i], n);
+		}
+	}
+
+	private static final class LongHeapifyTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final long[] a;
+		private final int root;
+
+		LongHeapifyTask(long[] a, int root){
+			this.a = a;
+			this.root = root;
+		}
+
+		@Override
+		protected void compute(){
+			if(isSmall(root, a.length)){
+				heapifySubtree(a, root);
+				return;
+			}
+			invokeAll(new LongHeapifyTask(a, 2 * root + 1), new LongHeapifyTask(a, 2 * root + 2));
+			siftDownMin(a, root, a[root], a.length);
+		}
+	}
+
+	/* ************************************************ T[] ************************************************** */
+
+	/**
+	 * Sorts an array of objects in ascending order of their natural ordering, in place, in <i>O(n log n)</i> time.
+	 * @param a The array to sort.
+	 * @param <T> The {@link Comparable} type of the elements.
+	 */
+	public static <T extends Comparable<? super T>> void sort(T[] a){
+		sort(a, Comparator.<T>naturalOrder());
+	}
+
+	/**
+	 * Sorts an array of objects in ascending order, as defined by a {@link Comparator}, in place, in
+	 * <i>O(n log n)</i> time.
+	 * @param a The array to sort.
+	 * @param comparator The {@link Comparator} which orders the elements.
+	 * @param <T> The type of the elements.
+	 */
+	public static <T> void sort(T[] a, Comparator<? super T> comparator){
+		int n = a.length;
+		for(int i = (n - 2) >>> 1; n > 1 && i >= 0; i--)
+			siftDownMax(a, i, a[i], n, comparator);
+		for(int end = n - 1; end > 0; end--){
+			T x = a[end];
+			a[end] = a[0];
+			siftDownMaxFromLeaf(a, x, end, comparator);
+		}
+	}
+
+	private static <T> void siftDownMax(T[] a, int i, T x, int n, Comparator<? super T> comparator){
+		int child;
+		while((child = 2 * i + 1) < n){
+			if(child + 1 < n && comparator.compare(a[child + 1], a[child]) > 0)
+				child++;
+			if(comparator.compare(a[child], x) <= 0)
+				break;
+			a[i] = a[child];
+			i = child;
+		}
+		a[i] = x;
+	}
+
+	private static <T> void siftDownMaxFromLeaf(T[] a, T x, int n, Comparator<? super T> comparator){
+		int i = 0, child;
+		while((child = 2 * i + 1) < n){
+			if(child + 1 < n && comparator.compare(a[child + 1], a[child]) > 0)
+				child++;
+			a[i] = a[child];
+			i = child;
+		}
+		while(i > 0){
+			int parent = (i - 1) >>> 1;
+			if(comparator.compare(a[parent], x) >= 0)
+				break;
+			a[i] = a[parent];
+			i = parent;
+		}
+		a[i] = x;
+	}
+
+	/**
+	 * Turns an array of objects into a binary min-heap of their natural ordering, in place, in <i>O(n)</i> time.
+	 * @param a The array to heapify.
+	 * @param <T> The {@link Comparable} type of the elements.
+	 */
+	public static <T extends Comparable<? super T>> void heapify(T[] a){
+		heapifySubtree(a, 0, Comparator.<T>naturalOrder());
+	}
+
+	/**
+	 * Turns an array of objects into a binary min-heap of their natural ordering, in place, building independent
+	 * subtrees in parallel on the common {@link ForkJoinPool}.
+	 * @param a The array to heapify.
+	 * @param <T> The {@link Comparable} type of the elements.
+	 */
+	public static <T extends Comparable<? super T>> void parallelHeapify(T[] a){
+		ForkJoinPool.commonPool().invoke(new HeapifyTask<T>(a, 0, Comparator.<T>naturalOrder()));
+	}
+
+	private static <T> void siftDownMin(T[] a, int i, T x, int n, Comparator<? super T> comparator){
+		int child;
+		while((child = 2 * i + 1) < n){
+			if(child + 1 < n && comparator.compare(a[child + 1], a[child]) < 0)
+				child++;
+			if(comparator.compare(a[child], x) >= 0)
+				break;
+			a[i] = a[child];
+			i = child;
+		}
+		a[i] = x;
+	}
+
+	private static <T> void heapifySubtree(T[] a, int root, Comparator<? super T> comparator){
+		int n = a.length, lastParent = (n - 2) >>> 1;
+		if(n < 2 || root > lastParent)
+			return;
+		int levels = 0;
+		while((((long)root + 1) << (levels + 1)) - 1 <= lastParent)
+			levels++;
+		for(int k = levels; k >= 0; k--){
+			int first = ((root + 1) << k) - 1, last = Math.min(first + (1 << k) - 1, lastParent);
+			for(int i = last; i >= first; i--)
+				siftDownMin(a, i, a[i], n, comparator);
+		}
+	}
+
+	private static final class HeapifyTask<T> extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final T[] a;
+		private final int root;
+		private final Comparator<? super T> comparator;
+
+		HeapifyTask(T[] a, int root, Comparator<? super T> comparator){
+			this.a = a;
+			this.root = root;
+			this.comparator = comparator;
+		}
+
+		@Override
+		protected void compute(){
+			if(isSmall(root, a.length)){
+				heapifySubtree(a, root, comparator);
+				return;
+			}
+			invokeAll(new HeapifyTask<T>(a, 2 * root + 1, comparator), new HeapifyTask<T>(a, 2 * root + 2, comparator));
+			siftDownMin(a, root, a[root], a.length, comparator);
+		}
+	}
+}
@@ -0,0 +1,275 @@
+package projects.pqueue.heaps;
+
+import projects.pqueue.InvalidCapacityException;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * <p><tt>IndexedMinHeap</tt> is an {@link ArrayMinHeap} whose elements can be changed or removed in place. Every
+ * insertion through {@link #insertWithHandle(Comparable)} returns a {@link Handle} to the inserted element, which keeps
+ * track of where the element currently is in the heap. Given a handle, {@link #decreaseKey(Handle, Comparable)},
+ * {@link #increaseKey(Handle, Comparable)} and {@link #remove(Handle)} all run in <i>O(log n)</i> time.</p>
+ *
+ * <p>This is what algorithms like Dijkstra's need in order to lower the distance of a vertex that is already
+ * queued: without handles, the only option is to insert a duplicate and skip the stale copy when it comes out, which
+ * lets the heap grow to several times the number of live elements.</p>
+ *
+ * <p>A handle is valid from the moment its element is inserted until the element leaves the heap, be it through
+ * {@link #deleteMin()}, {@link #remove(Handle)} or {@link #clear()}. Passing an invalid handle, or one obtained from
+ * another heap, throws an {@link IllegalArgumentException}.</p>
+ *
+ * @param <T> The {@link Comparable} type of object held by the <tt>IndexedMinHeap</tt>.
+ *
+ * @see ArrayMinHeap
+ */
+@SuppressWarnings("unchecked")
+public class IndexedMinHeap<T extends Comparable<T>> extends ArrayMinHeap<T> {
+
+	private Handle<T>[] handles; // handles[i] is the handle of data[i].
+
+	/**
+	 * A reference to an element of an {@link IndexedMinHeap}.
+	 *
+	 * @param <T> The {@link Comparable} type of object held by the heap.
+	 */
+	public static final class Handle<T extends Comparable<T>> {
+
+		private final IndexedMinHeap<T> owner;
+		private T element;
+		private int index; // -1 once the element has left the heap.
+
+		private Handle(IndexedMinHeap<T> owner, T element){
+			this.owner = owner;
+			this.element = element;
+		}
+
+		/**
+		 * Returns the element this handle refers to.
+		 * @return The current element of this handle, or the last one it had if it is no longer in the heap.
+		 */
+		public T getElement(){
+			return element;
+		}
+
+		/**
+		 * Queries the handle for validity.
+		 * @return <tt>true</tt> if the element of this handle is still in its heap, <tt>false</tt> otherwise.
+		 */
+		public boolean isValid(){
+			return index >= 0;
+		}
+	}
+
+	private void checkHandle(Handle<T> handle){
+		if(handle.owner != this || handle.index < 0)
+			throw new IllegalArgumentException("Handle does not refer to an element of this heap.");
+	}
+
+	/* The sifts of ArrayMinHeap, keeping every moved handle pointed at the new index of its element. */
+	private void siftUp(int i, Handle<T> h){
+		T x = h.element;
+		while(i > 0){
+			int parent = (i - 1) / arity;
+			T p = data[parent];
+			if(x.compareTo(p) >= 0)
+				break;
+			data[i] = p;
+			handles[i] = handles[parent];
+			handles[i].index = i;
+			i = parent;
+		}
+		data[i] = x;
+		handles[i] = h;
+		h.index = i;
+	}
+
+	private void siftDown(int i, Handle<T> h){
+		T x = h.element;
+		while(true){
+			int first = arity * i + 1;
+			if(first >= size)
+				break;
+			int last = Math.min(first + arity, size), min = first;
+			T minChild = data[first];
+			for(int c = first + 1; c < last; c++)
+				if(data[c].compareTo(minChild) < 0){
+					min = c;
+					minChild = data[c];
+				}
+			if(minChild.compareTo(x) >= 0)
+				break;
+			data[i] = minChild;
+			handles[i] = handles[min];
+			handles[i].index = i;
+			i = min;
+		}
+		data[i] = x;
+		handles[i] = h;
+		h.index = i;
+	}
+
+	/* Removes the element at index i, filling its place with the last element of the heap. */
+	private T removeAt(int i){
+		Handle<T> removed = handles[i];
+		int last = --size;
+		Handle<T> moved = handles[last];
+		data[last] = null;
+		handles[last] = null;
+		if(i < last){
+			if(i > 0 && moved.element.compareTo(data[(i - 1) / arity]) < 0)
+				siftUp(i, moved);
+			else
+				siftDown(i, moved);
+		}
+		removed.index = -1;
+		modificationCount++;
+		return removed.element;
+	}
+
+	/**
+	 *  Default constructor.
+	 */
+	public IndexedMinHeap(){
+		super();
+		handles = (Handle<T>[])new Handle<?>[data.length];
+	}
+
+	/**
+	 * Non-default constructor which creates a heap where every node has <tt>arity</tt> children,
+	 * pre-allocating space for <tt>capacity</tt> elements.
+	 *
+	 * @param arity The number of children per node. Must be at least 2.
+	 * @param capacity The initial capacity of the heap.
+	 * @throws IllegalArgumentException If <tt>arity</tt> is smaller than 2.
+	 * @throws InvalidCapacityException If <tt>capacity</tt> is negative.
+	 */
+	public IndexedMinHeap(int arity, int capacity) throws InvalidCapacityException{
+		super(arity, capacity);
+		handles = (Handle<T>[])new Handle<?>[capacity];
+	}
+
+	/**
+	 * Adds an element to the heap, returning a {@link Handle} to it.
+	 *
+	 * @param element The element to insert to the heap.
+	 * @return A {@link Handle} which refers to <tt>element</tt> for as long as it stays in the heap.
+	 */
+	public Handle<T> insertWithHandle(T element){
+		if(size == data.length){
+			int newCapacity = Math.max(1, 2 * data.length);
+			data = Arrays.copyOf(data, newCapacity);
+			handles = Arrays.copyOf(handles, newCapacity);
+		}
+		Handle<T> h = new Handle<T>(this, element);
+		siftUp(size++, h);
+		modificationCount++;
+		return h;
+	}
+
+	@Override
+	public void insert(T element){
+		insertWithHandle(element);
+	}
+
+	@Override
+	public T deleteMin() throws EmptyHeapException{
+		if(isEmpty())
+			throw new EmptyHeapException("deleteMin(): heap is empty.");
+		return removeAt(0);
+	}
+
+	/**
+	 * Inserts the elements one at a time. The bulk insertion of {@link ArrayMinHeap} moves elements without their
+	 * handles, so it cannot be used here.
+	 */
+	@Override
+	public void insertAll(Collection<? extends T> elements){
+		for(T element : elements)
+			insertWithHandle(element);
+	}
+
+	/**
+	 * Removes the elements one at a time, invalidating their handles. The bulk removal of {@link ArrayMinHeap}
+	 * moves elements without their handles, so it cannot be used here.
+	 */
+	@Override
+	public int deleteMin(int k, T[] out){
+		if(k < 0 || k > out.length)
+			throw new IllegalArgumentException("deleteMin(): cannot remove " + k + " elements into an array of length " + out.length + ".");
+		int n = Math.min(k, size);
+		for(int i = 0; i < n; i++)
+			out[i] = removeAt(0);
+		return n;
+	}
+
+	/**
+	 * Removes the minimum element and inserts <tt>element</tt> in its place, with a single sift. The handle of the
+	 * minimum becomes invalid; use {@link #insertWithHandle(Comparable)} instead if a handle to <tt>element</tt>
+	 * is needed.
+	 */
+	@Override
+	public T replaceMin(T element) throws EmptyHeapException{
+		if(isEmpty())
+			throw new EmptyHeapException("replaceMin(): heap is empty.");
+		Handle<T> min = handles[0];
+		min.index = -1;
+		siftDown(0, new Handle<T>(this, element));
+		modificationCount++;
+		return min.element;
+	}
+
+	@Override
+	public void clear(){
+		for(int i = 0; i < size; i++)
+			handles[i].index = -1;
+		Arrays.fill(handles, 0, size, null);
+		super.clear();
+	}
+
+	/**
+	 * Replaces the element of a handle with a smaller or equal one.
+	 *
+	 * @param handle A valid {@link Handle} of this heap.
+	 * @param element The new element, which should not be larger than the current one.
+	 * @throws IllegalArgumentException If the handle is not valid, or if <tt>element</tt> is larger than the current
+	 * element of the handle.
+	 */
+	public void decreaseKey(Handle<T> handle, T element){
+		checkHandle(handle);
+		if(element.compareTo(handle.element) > 0)
+			throw new IllegalArgumentException("decreaseKey(): new element is larger than the current one.");
+		handle.element = element;
+		siftUp(handle.index, handle);
+		modificationCount++;
+	}
+
+	/**
+	 * Replaces the element of a handle with a larger or equal one.
+	 *
+	 * @param handle A valid {@link Handle} of this heap.
+	 * @param element The new element, which should not be smaller than the current one.
+	 * @throws IllegalArgumentException If the handle is not valid, or if <tt>element</tt> is smaller than the current
+	 * element of the handle.
+	 */
+	public void increaseKey(Handle<T> handle, T element){
+		checkHandle(handle);
+		if(element.compareTo(handle.element) < 0)
+			throw new IllegalArgumentException("increaseKey(): new element is smaller than the current one.");
+		handle.element = element;
+		siftDown(handle.index, handle);
+		modificationCount++;
+	}
+
+	/**
+	 * Removes the element of a handle from the heap, invalidating the handle.
+	 *
+	 * @param handle A valid {@link Handle} of this heap.
+	 * @return The removed element.
+	 * @throws IllegalArgumentException If the handle is not valid.
+	 */
+	public T remove(Handle<T> handle){
+		checkHandle(handle);
+		return removeAt(handle.index);
+	}
+}
@@ -0,0 +1,186 @@
+package projects.pqueue.heaps;
+
+import projects.pqueue.InvalidCapacityException;
+
+import java.util.Arrays;
+
+/**
+ * <p><tt>IntMinHeap</tt> is a min-heap of values ordered by <tt>int</tt> priorities. Unlike a {@link MinHeap}, it
+ * does not require its elements to be {@link Comparable}: every priority is kept in an <tt>int[]</tt>, next to its
+ * value in a parallel <tt>Object[]</tt>. Sifting compares primitive <tt>int</tt>s directly, without calling
+ * <tt>compareTo()</tt> through an interface, and no operation allocates anything, except when the arrays have to
+ * grow.</p>
+ *
+ * <p>Like {@link ArrayMinHeap}, an <tt>IntMinHeap</tt> can have any <em>arity</em> of at least 2, chosen at
+ * construction time. Values with equal priorities are removed in no particular order.</p>
+ *
+ * @param <V> The type of the values held by the <tt>IntMinHeap</tt>.
+ *
+ * @see ArrayMinHeap
+ */
+@SuppressWarnings("unchecked")
+public class IntMinHeap<V> {
+
+	private static final int DEFAULT_CAPACITY = 10, DEFAULT_ARITY = 2;
+
+	private int[] priorities;
+	private Object[] values;
+	private int size;
+	private final int arity;
+
+	private void expandCapacity(){
+		int newCapacity = Math.max(1, 2 * priorities.length);
+		priorities = Arrays.copyOf(priorities, newCapacity);
+		values = Arrays.copyOf(values, newCapacity);
+	}
+
+	/* Moves the pair (p, v) up from index i until its parent has no larger priority. */
+	private void siftUp(int i, int p, Object v){
+		while(i > 0){
+			int parent = (i - 1) / arity;
+			if(p >= priorities[parent])
+				break;
+			priorities[i] = priorities[parent];
+			values[i] = values[parent];
+			i = parent;
+		}
+		priorities[i] = p;
+		values[i] = v;
+	}
+
+	/* Moves the pair (p, v) down from index i until none of its children has a smaller priority. */
+	private void siftDown(int i, int p, Object v){
+		while(true){
+			int first = arity * i + 1;
+			if(first >= size)
+				break;
+			int last = Math.min(first + arity, size), min = first, minPriority = priorities[first];
+			for(int c = first + 1; c < last; c++)
+				if(priorities[c] < minPriority){
+					min = c;
+					minPriority = priorities[c];
+				}
+			if(minPriority >= p)
+				break;
+			priorities[i] = minPriority;
+			values[i] = values[min];
+			i = min;
+		}
+		priorities[i] = p;
+		values[i] = v;
+	}
+
+	/**
+	 * Default constructor. Creates an empty binary heap.
+	 */
+	public IntMinHeap(){
+		priorities = new int[DEFAULT_CAPACITY];
+		values = new Object[DEFAULT_CAPACITY];
+		arity = DEFAULT_ARITY;
+	}
+
+	/**
+	 * Non-default constructor which creates a heap where every node has <tt>arity</tt> children,
+	 * pre-allocating space for <tt>capacity</tt> values.
+	 *
+	 * @param arity The number of children per node. Must be at least 2.
+	 * @param capacity The initial capacity of the heap.
+	 * @throws IllegalArgumentException If <tt>arity</tt> is smaller than 2.
+	 * @throws InvalidCapacityException If <tt>capacity</tt> is negative.
+	 */
+	public IntMinHeap(int arity, int capacity) throws InvalidCapacityException{
+		if(arity < 2)
+			throw new IllegalArgumentException("Heap arity should be at least 2, was " + arity + ".");
+		if(capacity < 0)
+			throw new InvalidCapacityException("Invalid capacity provided!");
+		priorities = new int[capacity];
+		values = new Object[capacity];
+		this.arity = arity;
+	}
+
+	/**
+	 * Adds a value to the heap.
+	 *
+	 * @param priority The priority of the value. Smaller priorities come out first.
+	 * @param value The value to add.
+	 */
+	public void insert(int priority, V value){
+		if(size == priorities.length)
+			expandCapacity();
+		siftUp(size++, priority, value);
+	}
+
+	/**
+	 * Returns, <b>but does not remove</b>, the value of minimum priority.
+	 *
+	 * @return The value of minimum priority.
+	 * @throws EmptyHeapException If the heap is empty.
+	 */
+	public V getMin() throws EmptyHeapException{
+		if(isEmpty())
+			throw new EmptyHeapException("getMin(): heap is empty.");
+		return (V)values[0];
+	}
+
+	/**
+	 * Returns the minimum priority in the heap.
+	 *
+	 * @return The priority of the value that {@link #getMin()} returns.
+	 * @throws EmptyHeapException If the heap is empty.
+	 */
+	public int getMinPriority() throws EmptyHeapException{
+		if(isEmpty())
+			throw new EmptyHeapException("getMinPriority(): heap is empty.");
+		return priorities[0];
+	}
+
+	/**
+	 * Returns <b>and removes</b> the value of minimum priority.
+	 *
+	 * @return The value of minimum priority.
+	 * @throws EmptyHeapException If the heap is empty.
+	 */
+	public V deleteMin() throws EmptyHeapException{
+		if(isEmpty())
+			throw new EmptyHeapException("deleteMin(): heap is empty.");
+		V min = (V)values[0];
+		int last = --size;
+		Object lastValue = values[last];
+		values[last] = null;
+		if(size > 0)
+			siftDown(0, priorities[last], lastValue);
+		return min;
+	}
+
+	/**
+	 * Returns the number of values in the heap.
+	 * @return The number of values in the heap.
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * Queries the heap for emptiness.
+	 * @return <tt>true</tt> if the heap is empty, <tt>false</tt> otherwise.
+	 */
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	/**
+	 * Clears the heap of all values.
+	 */
+	public void clear(){
+		Arrays.fill(values, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * Returns the number of children of every node of this heap.
+	 * @return The arity of the heap.
+	 */
+	public int getArity(){
+		return arity;
+	}
+}
@@ -1,5 +1,6 @@
 package projects.pqueue.heaps;
 
+import java.util.Collection;
 import java.util.Iterator;
 
 /**
@@ -62,4 +63,37 @@ public interface MinHeap<T extends Comparable<T>> extends Iterable<T>{
 	 * order.
 	 */
 	public Iterator<T> iterator();
+	
+	/**
+	 * Adds all the elements of a {@link Collection} to the <tt>MinHeap</tt>. By default, the elements are inserted
+	 * one at a time; implementations may insert them in bulk, for less work per element.
+	 * @param elements The elements to insert to the <tt>MinHeap</tt>.
+	 */
+	public default void insertAll(Collection<? extends T> elements){
+		for(T element : elements)
+			insert(element);
+	}
+
+	/**
+	 * Removes up to <tt>k</tt> of the smallest elements from the <tt>MinHeap</tt>, storing them in <tt>out</tt>
+	 * in ascending order. Fewer than <tt>k</tt> elements are removed only if the <tt>MinHeap</tt> runs out of
+	 * elements, in which case it is left empty. By default, {@link #deleteMin()} is called repeatedly;
+	 * implementations may remove the elements in bulk, for less work per element.
+	 * @param k The largest number of elements to remove.
+	 * @param out The array which receives the removed elements, from index 0 onwards.
+	 * @return The number of elements removed, which is <tt>min(k, size())</tt>.
+	 * @throws IllegalArgumentException If <tt>k</tt> is negative or larger than <tt>out.length</tt>.
+	 */
+	public default int deleteMin(int k, T[] out){
+		if(k < 0 || k > out.length)
+			throw new IllegalArgumentException("deleteMin(): cannot remove " + k + " elements into an array of length " + out.length + ".");
+		int n = Math.min(k, size());
+		try {
+			for(int i = 0; i < n; i++)
+				out[i] = deleteMin();
+		} catch(EmptyHeapException e){
+			throw new IllegalStateException(e); // Cannot happen: we remove no more than size() elements.
+		}
+		return n;
+	}
 }
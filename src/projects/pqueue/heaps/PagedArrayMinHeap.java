@@ -0,0 +1,270 @@
+package projects.pqueue.heaps;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p><tt>PagedArrayMinHeap</tt> is an array-based {@link MinHeap} laid out as a <em>B-heap</em>. The standard
+ * implicit layout of {@link ArrayMinHeap} stores the heap level by level, so that once the array no longer fits in
+ * the caches, every level of a sift lands on a different cache line, and eventually on a different page of memory.
+ * Here, the binary tree is instead cut into small subtrees, stored in contiguous <em>pages</em> of
+ * <i>2<sup>h</sup></i> slots. A sift then touches a new page only every <i>h - 1</i> levels, i.e.
+ * <i>O(log n / log B)</i> pages in total for pages of <i>B</i> slots.</p>
+ *
+ * <p>Every page but the first holds two sibling subtrees, rooted at its slots 2 and 3, so that siblings, which are
+ * always compared together, always share a page; slots 0 and 1 are left unused. The first page holds the root of the
+ * heap in its slot 1 instead. Within a page, the node in slot <i>o</i> has its children in slots <i>2o</i> and
+ * <i>2o + 1</i>, just like in the standard layout. Every node in the bottom half of a page has its two children at
+ * slots 2 and 3 of a page of its own: the <i>2<sup>h-1</sup></i> child pages of every page are numbered like the
+ * nodes of an implicit <i>2<sup>h-1</sup></i>-ary heap. Pages are filled one after the other, so that the last element
+ * is always a leaf.</p>
+ *
+ * <p>The layout pays off when the heap is much larger than the caches, and when comparing two elements is cheap;
+ * {@link projects.pqueue.heaps.clients.PagedHeapTimingClient} compares the two layouts on growing heaps.</p>
+ *
+ * @param <T> The {@link Comparable} type of object held by the <tt>PagedArrayMinHeap</tt>.
+ *
+ * @see ArrayMinHeap
+ */
+@SuppressWarnings("unchecked")
+public class PagedArrayMinHeap<T extends Comparable<T>> implements MinHeap<T> {
+
+	private static final int DEFAULT_PAGE_HEIGHT = 4, MAX_PAGE_HEIGHT = 20;
+
+	private T[] data;
+	private int size, lastSlot; // Slots are filled in increasing order, so a slot is used if and only if <= lastSlot.
+	private final int pageHeight, pageSize, pageMask; // pageSize = 2^pageHeight slots.
+	private int modificationCount; // Makes our iterators fail-fast.
+
+	/* The slot of the k-th element in fill order, 0-based. The first page holds pageSize - 1 elements, and every
+	 * other page pageSize - 2. */
+	private int slotOf(int k){
+		if(k < pageSize - 1)
+			return k + 1;
+		k -= pageSize - 1;
+		int page = 1 + k / (pageSize - 2);
+		return (page << pageHeight) + 2 + k % (pageSize - 2);
+	}
+
+	private int parent(int slot){
+		int offset = slot & pageMask, page = slot >>> pageHeight;
+		if(offset >= 4 || page == 0) // Within the page; the children of the root of the heap, too.
+			return slot - offset + (offset >>> 1);
+		int j = page - 1, parentPage = j / (pageSize >>> 1);
+		return (parentPage << pageHeight) + (pageSize >>> 1) + j % (pageSize >>> 1);
+	}
+
+	private void ensureCapacity(int slot){
+		if(slot >= data.length)
+			data = Arrays.copyOf(data, Math.max(slot + 1, 2 * data.length));
+	}
+
+	private void siftUp(int slot, T x){
+		while(slot != 1){ // Slot 1 is the root.
+			int parent = parent(slot);
+			T p = data[parent];
+			if(x.compareTo(p) >= 0)
+				break;
+			data[slot] = p;
+			slot = parent;
+		}
+		data[slot] = x;
+	}
+
+	/* Children within the page are found like in the standard layout. The children of a node in the bottom half
+	 * of its page are at the top of a child page, whose slot is computed in long arithmetic, since the pages below
+	 * the last ones of a large heap would not fit in an int. */
+	private void siftDown(int slot, T x){
+		int half = pageSize >>> 1;
+		while(true){
+			int offset = slot & pageMask, first;
+			if(offset < half){
+				first = slot + offset;
+				if(first > lastSlot)
+					break;
+			} else {
+				long childSlot = (((long)(slot >>> pageHeight) * half + 1 + (offset - half)) << pageHeight) + 2;
+				if(childSlot > lastSlot)
+					break;
+				first = (int)childSlot;
+			}
+			int min = first;
+			T minChild = data[first];
+			if(first < lastSlot && data[first + 1].compareTo(minChild) < 0){ // Siblings are always adjacent.
+				min = first + 1;
+				minChild = data[min];
+			}
+			if(minChild.compareTo(x) >= 0)
+				break;
+			data[slot] = minChild;
+			slot = min;
+		}
+		data[slot] = x;
+	}
+
+	/**
+	 * Default constructor. Creates a heap with pages of 16 slots, which is the size of a 64-byte cache line full of
+	 * compressed references.
+	 */
+	public PagedArrayMinHeap(){
+		this(DEFAULT_PAGE_HEIGHT);
+	}
+
+	/**
+	 * Creates a heap with pages of <i>2<sup>pageHeight</sup></i> slots.
+	 *
+	 * @param pageHeight The height of the subtree stored in every page.
+	 * @throws IllegalArgumentException If <tt>pageHeight</tt> is not between 2 and 20.
+	 */
+	public PagedArrayMinHeap(int pageHeight){
+		if(pageHeight < 2 || pageHeight > MAX_PAGE_HEIGHT)
+			throw new IllegalArgumentException("Page height should be between 2 and " + MAX_PAGE_HEIGHT + ", was " +
+					pageHeight + ".");
+		this.pageHeight = pageHeight;
+		pageSize = 1 << pageHeight;
+		pageMask = pageSize - 1;
+		data = (T[])(new Comparable<?>[pageSize]);
+	}
+
+	/**
+	 * Copy constructor initializes the current MinHeap as a carbon
+	 * copy of the parameter.
+	 *
+	 * @param other The MinHeap to copy the elements from.
+	 */
+	public PagedArrayMinHeap(MinHeap<T> other){
+		this(other instanceof PagedArrayMinHeap ? ((PagedArrayMinHeap<T>)other).pageHeight : DEFAULT_PAGE_HEIGHT);
+		for(T el : other)
+			insert(el);
+	}
+
+	/**
+	 * Returns the height of the subtree stored in every page of this heap.
+	 * @return The page height of this heap.
+	 */
+	public int getPageHeight(){
+		return pageHeight;
+	}
+
+	/**
+	 * Standard equals() method. Two {@link MinHeap}s are equal if they hold the same elements, as exposed
+	 * by their {@link #iterator()}s, regardless of their internal layout.
+	 *
+	 * @return true If the parameter Object and the current MinHeap
+	 * are identical Objects.
+	 */
+	@Override
+	public boolean equals(Object other){
+		if(other == null || other.getClass() != getClass())
+			return false;
+		PagedArrayMinHeap<T> oheap = (PagedArrayMinHeap<T>)other;
+		if(oheap.size() != size())
+			return false;
+		Iterator<T> ito = oheap.iterator(), itc = iterator();
+		while(ito.hasNext())
+			if(ito.next().compareTo(itc.next()) != 0)
+				return false;
+		return true;
+	}
+
+	/**
+	 * Returns a hash code which is consistent with {@link #equals(Object)} for element types whose natural ordering is
+	 * consistent with their own <tt>equals()</tt>: the sum of the hash codes of the elements, which does not depend on
+	 * how they are laid out in the pages.
+	 *
+	 * @return A hash code for this heap.
+	 */
+	@Override
+	public int hashCode(){
+		int hash = 0;
+		for(int k = 0; k < size; k++)
+			hash += data[slotOf(k)].hashCode();
+		return hash;
+	}
+
+	@Override
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	@Override
+	public int size(){
+		return size;
+	}
+
+	@Override
+	public void clear(){
+		Arrays.fill(data, null);
+		size = lastSlot = 0;
+		modificationCount++;
+	}
+
+	@Override
+	public void insert(T element){
+		int slot = slotOf(size);
+		ensureCapacity(slot);
+		size++;
+		lastSlot = slot;
+		siftUp(slot, element);
+		modificationCount++;
+	}
+
+	@Override
+	public T getMin() throws EmptyHeapException{
+		if(isEmpty())
+			throw new EmptyHeapException("getMin(): heap is empty.");
+		return data[1];
+	}
+
+	@Override
+	public T deleteMin() throws EmptyHeapException{
+		if(isEmpty())
+			throw new EmptyHeapException("deleteMin(): heap is empty.");
+		T min = data[1];
+		T last = data[lastSlot];
+		data[lastSlot] = null;
+		lastSlot = (--size > 0) ? slotOf(size - 1) : 0;
+		if(size > 0)
+			siftDown(1, last);
+		modificationCount++;
+		return min;
+	}
+
+	@Override
+	public Iterator<T> iterator(){
+		return new PagedArrayMinHeapIterator();
+	}
+
+	/* Fail-fast iterator which exposes the elements in ascending order, out of a sorted snapshot of the heap. */
+	class PagedArrayMinHeapIterator implements Iterator<T> {
+
+		private final T[] sorted;
+		private final int expectedModificationCount;
+		private int current;
+
+		PagedArrayMinHeapIterator(){
+			sorted = (T[])(new Comparable<?>[size]);
+			for(int k = 0; k < size; k++)
+				sorted[k] = data[slotOf(k)];
+			Arrays.sort(sorted);
+			expectedModificationCount = modificationCount;
+			current = 0;
+		}
+
+		@Override
+		public boolean hasNext(){
+			return current < sorted.length;
+		}
+
+		@Override
+		public T next() throws ConcurrentModificationException, NoSuchElementException{
+			if(modificationCount != expectedModificationCount)
+				throw new ConcurrentModificationException("next(): Heap was modified while traversing it through iterator.");
+			if(!hasNext())
+				throw new NoSuchElementException("next(): Iterator exhausted elements.");
+			return sorted[current++];
+		}
+	}
+}
@@ -0,0 +1,389 @@
+package projects.pqueue.heaps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>A <tt>PairingHeap</tt> is a {@link MinHeap} made of a single heap-ordered tree of any shape, where every node
+ * keeps a pointer to its leftmost child and to its siblings. Two such trees are <em>linked</em> in constant time, by
+ * making the root with the larger element the leftmost child of the other root. Therefore:</p>
+ * <ul>
+ *     <li>{@link #insert(Comparable)} links a new single-node tree with the root, in <i>O(1)</i> time.</li>
+ *     <li>{@link #meld(PairingHeap)} links the roots of two heaps, in <i>O(1)</i> time, emptying the other heap.</li>
+ *     <li>{@link #decreaseKey(Handle, Comparable)} cuts the subtree of the element out of its tree and links it with
+ *     the root, in <i>O(1)</i> amortized time, as far as is known. The exact bound is still an open problem; it
+ *     is at most <i>O(2<sup>2&radic;(log log n)</sup>)</i>, which is a very small number in practice.</li>
+ *     <li>{@link #deleteMin()} removes the root and links its children in two passes, first in pairs from left to
+ *     right, then the pairs from right to left, in <i>O(log n)</i> amortized time.</li>
+ * </ul>
+ *
+ * <p>As with {@link IndexedMinHeap}, elements inserted through {@link #insertWithHandle(Comparable)} can be
+ * changed or removed through their {@link Handle}. A handle stays valid after its heap is melded into another
+ * one, where it can then be used; it becomes invalid once its element leaves the heap. Passing an invalid
+ * handle, or one that belongs to another heap, throws an {@link IllegalArgumentException}.</p>
+ *
+ * @param <T> The {@link Comparable} type of object held by the <tt>PairingHeap</tt>.
+ *
+ * @see MinHeap
+ * @see IndexedMinHeap
+ */
+@SuppressWarnings("unchecked")
+public class PairingHeap<T extends Comparable<T>> implements MinHeap<T> {
+
+	/* Identifies the heap a node belongs to. Melding forwards the identity of the emptied heap to that of the
+	 * heap which took its nodes, so that handles follow their elements without being visited. */
+	private static final class Owner {
+		private Owner forward;
+		private boolean cleared;
+	}
+
+	private static Owner resolve(Owner owner){
+		while(owner.forward != null){
+			if(owner.forward.forward != null)
+				owner.forward = owner.forward.forward; // Path halving keeps chains of melds short.
+			owner = owner.forward;
+		}
+		return owner;
+	}
+
+	/**
+	 * A reference to an element of a {@link PairingHeap}. It also serves as the node of the element in the heap.
+	 *
+	 * @param <T> The {@link Comparable} type of object held by the heap.
+	 */
+	public static final class Handle<T extends Comparable<T>> {
+
+		private T element;
+		private Handle<T> child, next, prev; // prev is the left sibling, or the parent of a leftmost child.
+		private Owner owner;
+		private boolean inHeap = true;
+
+		private Handle(T element, Owner owner){
+			this.element = element;
+			this.owner = owner;
+		}
+
+		/**
+		 * Returns the element this handle refers to.
+		 * @return The current element of this handle, or the last one it had if it is no longer in a heap.
+		 */
+		public T getElement(){
+			return element;
+		}
+
+		/**
+		 * Queries the handle for validity.
+		 * @return <tt>true</tt> if the element of this handle is still in a heap, <tt>false</tt> otherwise.
+		 */
+		public boolean isValid(){
+			return inHeap && !resolve(owner).cleared;
+		}
+	}
+
+	private Handle<T> root;
+	private int size;
+	private Owner owner = new Owner();
+	private int modificationCount; // Makes our iterators fail-fast.
+
+	/* Links two roots, returning the new root. Ties keep the first root on top. */
+	private static <T extends Comparable<T>> Handle<T> link(Handle<T> a, Handle<T> b){
+		if(b.element.compareTo(a.element) < 0){
+			Handle<T> tmp = a;
+			a = b;
+			b = tmp;
+		}
+		b.next = a.child;
+		if(a.child != null)
+			a.child.prev = b;
+		b.prev = a;
+		a.child = b;
+		a.next = a.prev = null;
+		return a;
+	}
+
+	/* Detaches the subtree of a non-root node from its parent and siblings. */
+	private static <T extends Comparable<T>> void cut(Handle<T> node){
+		if(node.prev.child == node)
+			node.prev.child = node.next;
+		else
+			node.prev.next = node.next;
+		if(node.next != null)
+			node.next.prev = node.prev;
+		node.next = node.prev = null;
+	}
+
+	/* The two-pass pairing of a list of siblings into a single tree. */
+	private static <T extends Comparable<T>> Handle<T> mergePairs(Handle<T> first){
+		if(first == null)
+			return null;
+		Handle<T> pairs = null; // The linked pairs, in reverse order.
+		Handle<T> a = first;
+		while(a != null){
+			Handle<T> b = a.next;
+			if(b == null){
+				a.prev = null;
+				a.next = pairs;
+				pairs = a;
+				break;
+			}
+			Handle<T> rest = b.next;
+			a.next = b.next = a.prev = b.prev = null;
+			Handle<T> pair = link(a, b);
+			pair.next = pairs;
+			pairs = pair;
+			a = rest;
+		}
+		Handle<T> result = pairs, current = pairs.next;
+		result.next = null;
+		while(current != null){
+			Handle<T> following = current.next;
+			current.next = null;
+			result = link(result, current);
+			current = following;
+		}
+		return result;
+	}
+
+	private void checkHandle(Handle<T> handle){
+		if(!handle.inHeap || resolve(handle.owner) != owner)
+			throw new IllegalArgumentException("Handle does not refer to an element of this heap.");
+	}
+
+	/**
+	 * Default constructor.
+	 */
+	public PairingHeap(){
+		root = null;
+		size = 0;
+	}
+
+	/**
+	 * Second, non-default constructor.
+	 * @param rootElement the element to create the root with.
+	 */
+	public PairingHeap(T rootElement){
+		this();
+		insert(rootElement);
+	}
+
+	/**
+	 * Copy constructor initializes the current MinHeap as a carbon
+	 * copy of the parameter. Since insertions take constant time, this takes linear time.
+	 *
+	 * @param other The MinHeap to copy the elements from.
+	 */
+	public PairingHeap(MinHeap<T> other){
+		this();
+		for(T el : other)
+			insert(el);
+	}
+
+	/**
+	 * Standard equals() method. Two {@link MinHeap}s are equal if they hold the same elements, as exposed
+	 * by their {@link #iterator()}s, regardless of their internal layout.
+	 *
+	 * @return true If the parameter Object and the current MinHeap
+	 * are identical Objects.
+	 */
+	@Override
+	public boolean equals(Object other){
+		if(other == null || other.getClass() != getClass())
+			return false;
+		PairingHeap<T> oheap = (PairingHeap<T>)other;
+		if(oheap.size() != size())
+			return false;
+		Iterator<T> ito = oheap.iterator(), itc = iterator();
+		while(ito.hasNext())
+			if(ito.next().compareTo(itc.next()) != 0)
+				return false;
+		return true;
+	}
+
+	/**
+	 * Returns a hash code which is consistent with {@link #equals(Object)} for element types whose natural ordering is
+	 * consistent with their own <tt>equals()</tt>: the sum of the hash codes of the elements, which does not depend on
+	 * the layout of the heap.
+	 *
+	 * @return A hash code for this heap.
+	 */
+	@Override
+	public int hashCode(){
+		int hash = 0;
+		for(T element : this)
+			hash += element.hashCode();
+		return hash;
+	}
+
+	@Override
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	@Override
+	public int size(){
+		return size;
+	}
+
+	@Override
+	public void clear(){
+		owner.cleared = true; // Invalidates every handle at once.
+		owner = new Owner();
+		root = null;
+		size = 0;
+		modificationCount++;
+	}
+
+	/**
+	 * Adds an element to the heap, returning a {@link Handle} to it.
+	 *
+	 * @param element The element to insert to the heap.
+	 * @return A {@link Handle} which refers to <tt>element</tt> for as long as it stays in the heap.
+	 */
+	public Handle<T> insertWithHandle(T element){
+		Handle<T> node = new Handle<T>(element, owner);
+		root = (root == null) ? node : link(root, node);
+		size++;
+		modificationCount++;
+		return node;
+	}
+
+	@Override
+	public void insert(T element){
+		insertWithHandle(element);
+	}
+
+	@Override
+	public T getMin() throws EmptyHeapException{
+		if(isEmpty())
+			throw new EmptyHeapException("getMin(): heap is empty.");
+		return root.element;
+	}
+
+	@Override
+	public T deleteMin() throws EmptyHeapException{
+		if(isEmpty())
+			throw new EmptyHeapException("deleteMin(): heap is empty.");
+		Handle<T> min = root;
+		root = mergePairs(min.child);
+		min.child = null;
+		min.inHeap = false;
+		size--;
+		modificationCount++;
+		return min.element;
+	}
+
+	/**
+	 * Moves all the elements of <tt>other</tt> into this heap, in constant time. <tt>other</tt> is left empty, and
+	 * the handles to its elements can be used with this heap from now on.
+	 *
+	 * @param other The heap to take the elements of.
+	 * @throws IllegalArgumentException If <tt>other</tt> is this heap.
+	 */
+	public void meld(PairingHeap<T> other){
+		if(other == this)
+			throw new IllegalArgumentException("meld(): cannot meld a heap with itself.");
+		if(other.root != null){
+			root = (root == null) ? other.root : link(root, other.root);
+			size += other.size;
+		}
+		other.owner.forward = owner;
+		other.owner = new Owner();
+		other.root = null;
+		other.size = 0;
+		modificationCount++;
+		other.modificationCount++;
+	}
+
+	/**
+	 * Replaces the element of a handle with a smaller or equal one, in constant amortized time.
+	 *
+	 * @param handle A valid {@link Handle} of this heap.
+	 * @param element The new element, which should not be larger than the current one.
+	 * @throws IllegalArgumentException If the handle is not valid, or if <tt>element</tt> is larger than the current
+	 * element of the handle.
+	 */
+	public void decreaseKey(Handle<T> handle, T element){
+		checkHandle(handle);
+		if(element.compareTo(handle.element) > 0)
+			throw new IllegalArgumentException("decreaseKey(): new element is larger than the current one.");
+		handle.element = element;
+		if(handle != root){
+			cut(handle);
+			root = link(root, handle);
+		}
+		modificationCount++;
+	}
+
+	/**
+	 * Removes the element of a handle from the heap, invalidating the handle.
+	 *
+	 * @param handle A valid {@link Handle} of this heap.
+	 * @return The removed element.
+	 * @throws IllegalArgumentException If the handle is not valid.
+	 */
+	public T remove(Handle<T> handle){
+		checkHandle(handle);
+		if(handle == root){
+			root = mergePairs(handle.child);
+		} else {
+			cut(handle);
+			Handle<T> children = mergePairs(handle.child);
+			if(children != null)
+				root = link(root, children);
+		}
+		handle.child = null;
+		handle.inHeap = false;
+		size--;
+		modificationCount++;
+		return handle.element;
+	}
+
+	@Override
+	public Iterator<T> iterator(){
+		return new PairingHeapIterator();
+	}
+
+	/* Fail-fast iterator which exposes the elements in ascending order, out of a sorted snapshot of the heap. */
+	class PairingHeapIterator implements Iterator<T> {
+
+		private final Object[] sorted; // Sorted in the natural order of T.
+		private final int expectedModificationCount;
+		private int current;
+
+		PairingHeapIterator(){
+			sorted = new Object[size];
+			int n = 0;
+			ArrayList<Handle<T>> stack = new ArrayList<Handle<T>>();
+			if(root != null)
+				stack.add(root);
+			while(!stack.isEmpty()){ // Every node is reached from its parent or its left sibling.
+				Handle<T> node = stack.remove(stack.size() - 1);
+				sorted[n++] = node.element;
+				if(node.next != null)
+					stack.add(node.next);
+				if(node.child != null)
+					stack.add(node.child);
+			}
+			Arrays.sort(sorted);
+			expectedModificationCount = modificationCount;
+			current = 0;
+		}
+
+		@Override
+		public boolean hasNext(){
+			return current < sorted.length;
+		}
+
+		@Override
+		public T next() throws ConcurrentModificationException, NoSuchElementException{
+			if(modificationCount != expectedModificationCount)
+				throw new ConcurrentModificationException("next(): Heap was modified while traversing it through iterator.");
+			if(!hasNext())
+				throw new NoSuchElementException("next(): Iterator exhausted elements.");
+			return (T)sorted[current++];
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package projects.pqueue.heaps;
+
+import projects.pqueue.InvalidCapacityException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * <p><tt>TopKSelector</tt> keeps the <i>K</i> largest elements out of a stream of any length, in <i>O(K)</i> memory.
+ * It is built on an {@link ArrayMinHeap} which never holds more than <i>K</i> elements, and whose minimum is therefore
+ * the smallest element that still makes the cut. Once the heap is full:</p>
+ * <ul>
+ *     <li>an element no larger than the minimum is rejected with a single comparison, which is what happens to most
+ *     elements of a long stream;</li>
+ *     <li>a larger element takes the place of the minimum through {@link ArrayMinHeap#replaceMin(Comparable)}, in
+ *     <i>O(log K)</i> time.</li>
+ * </ul>
+ *
+ * <p>Among equal elements, the ones offered first are kept. A <tt>TopKSelector</tt> is not thread-safe; to select
+ * in parallel, give every thread its own selector and {@link #merge(TopKSelector)} them at the end.</p>
+ *
+ * @param <T> The {@link Comparable} type of object selected.
+ *
+ * @see ArrayMinHeap
+ */
+public class TopKSelector<T extends Comparable<T>> implements Iterable<T> {
+
+	private final ArrayMinHeap<T> heap;
+	private final int k;
+
+	/**
+	 * Creates a selector for the <tt>k</tt> largest elements.
+	 *
+	 * @param k The number of elements to keep.
+	 * @throws IllegalArgumentException If <tt>k</tt> is smaller than 1.
+	 */
+	public TopKSelector(int k){
+		if(k < 1)
+			throw new IllegalArgumentException("TopKSelector needs k to be at least 1, was " + k + ".");
+		try {
+			heap = new ArrayMinHeap<T>(2, k);
+		} catch(InvalidCapacityException exc){ // Cannot happen, since k is positive.
+			throw new IllegalStateException(exc);
+		}
+		this.k = k;
+	}
+
+	/**
+	 * Offers an element to the selector.
+	 *
+	 * @param element The element to offer.
+	 * @return <tt>true</tt> if the element is among the <tt>k</tt> largest offered so far, <tt>false</tt> if it has
+	 * been rejected.
+	 */
+	public boolean offer(T element){
+		if(heap.size() < k){
+			heap.insert(element);
+			return true;
+		}
+		try {
+			if(element.compareTo(heap.getMin()) <= 0)
+				return false;
+			heap.replaceMin(element);
+			return true;
+		} catch(EmptyHeapException exc){ // Cannot happen, since the heap is full.
+			throw new IllegalStateException(exc);
+		}
+	}
+
+	/**
+	 * Offers every element of another selector to this one, so that this selector ends up with the <tt>k</tt>
+	 * largest elements offered to either of them. <tt>other</tt> is left unchanged. Its elements are offered largest
+	 * first, so that the merge stops at the first one which this selector rejects: every later one would be rejected
+	 * as well.
+	 *
+	 * @param other The selector whose elements to offer. Merging a selector with itself leaves it unchanged.
+	 */
+	public void merge(TopKSelector<T> other){
+		if(other == this)
+			return;
+		for(T element : other.getTopK())
+			if(!offer(element))
+				return;
+	}
+
+	/**
+	 * Returns the smallest element which is currently kept. Once the selector is full, an element has to be
+	 * larger than this one to be kept.
+	 *
+	 * @return The smallest element kept.
+	 * @throws EmptyHeapException If no element has been offered yet.
+	 */
+	public T getThreshold() throws EmptyHeapException{
+		return heap.getMin();
+	}
+
+	/**
+	 * Returns the elements kept, largest first.
+	 * @return A new {@link List} of the elements kept, in descending order.
+	 */
+	public List<T> getTopK(){
+		List<T> top = new ArrayList<T>(heap.size());
+		for(T element : heap)
+			top.add(element);
+		Collections.reverse(top);
+		return top;
+	}
+
+	/**
+	 * Returns the maximum number of elements kept by this selector.
+	 * @return <tt>k</tt>.
+	 */
+	public int getK(){
+		return k;
+	}
+
+	/**
+	 * Returns the number of elements currently kept, which is <tt>k</tt> once at least <tt>k</tt> elements have
+	 * been offered.
+	 * @return The number of elements kept.
+	 */
+	public int size(){
+		return heap.size();
+	}
+
+	/**
+	 * Queries the selector for fullness.
+	 * @return <tt>true</tt> if the selector holds <tt>k</tt> elements, <tt>false</tt> otherwise.
+	 */
+	public boolean isFull(){
+		return heap.size() == k;
+	}
+
+	/**
+	 * Forgets every element offered so far.
+	 */
+	public void clear(){
+		heap.clear();
+	}
+
+	/**
+	 * Returns a fail-fast {@link Iterator} over the elements kept, in <b>ascending</b> order, like that of a
+	 * {@link MinHeap}.
+	 * @return An {@link Iterator} over the elements kept.
+	 */
+	@Override
+	public Iterator<T> iterator(){
+		return heap.iterator();
+	}
+}
@@ -0,0 +1,76 @@
+package projects.pqueue.heaps.clients;
+
+import projects.pqueue.InvalidCapacityException;
+import projects.pqueue.heaps.ArrayMinHeap;
+import projects.pqueue.heaps.EmptyHeapException;
+
+import java.util.Random;
+
+/** <b>ArityTimingClient</b> finds the fastest arity for a large {@link ArrayMinHeap} used as an event scheduler. For
+ * every arity, it times three phases:
+ * <ul>
+ *     <li><b>build</b>: inserting all the events, with random timestamps.</li>
+ *     <li><b>hold</b>: the steady state of a scheduler, where the earliest event is removed and a new one is scheduled
+ *     a random delay after it, keeping the size of the heap constant.</li>
+ *     <li><b>drain</b>: removing every event in order.</li>
+ * </ul>
+ * Initial timestamps and delays are boxed before the clock starts, so that mostly heap operations are measured.
+ * Every experiment is repeated a few times and only the last repetition is reported, so that the JIT has warmed up.
+ * The heap holds ten million events by default, so the JVM needs a heap of a couple of gigabytes (<tt>-Xmx2g</tt>).
+ *
+ * <p>Arguments (all optional): number of events, number of hold operations.</p>
+ */
+public class ArityTimingClient {
+
+    private static final int[] ARITIES = {2, 3, 4, 8, 16};
+    private static final int REPETITIONS = 3;
+
+    public static void main(String[] args) throws InvalidCapacityException, EmptyHeapException {
+        int numEvents = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+        int numHolds = args.length > 1 ? Integer.parseInt(args[1]) : numEvents;
+        Random r = new Random(47);
+        Integer[] events = new Integer[numEvents], delays = new Integer[numHolds];
+        for(int i = 0; i < numEvents; i++)
+            events[i] = r.nextInt(Integer.MAX_VALUE / 2);
+        for(int i = 0; i < numHolds; i++)
+            delays[i] = r.nextInt(numEvents);
+
+        System.out.println("Arity\tBuild (ms)\tHold (ms)\tDrain (ms)\tTotal (ms)");
+        long bestTotal = Long.MAX_VALUE;
+        int bestArity = 0;
+        for(int arity : ARITIES){
+            long build = 0, hold = 0, drain = 0;
+            for(int rep = 0; rep < REPETITIONS; rep++){
+                ArrayMinHeap<Integer> heap = new ArrayMinHeap<Integer>(arity, numEvents);
+                long start = System.nanoTime();
+                for(Integer event : events)
+                    heap.insert(event);
+                build = System.nanoTime() - start;
+
+                // A real scheduler creates every rescheduled event on the fly, so its boxing is measured too.
+                start = System.nanoTime();
+                for(Integer delay : delays)
+                    heap.insert(heap.deleteMin() + delay);
+                hold = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                int previous = Integer.MIN_VALUE;
+                while(!heap.isEmpty()){
+                    int event = heap.deleteMin();
+                    if(event < previous)
+                        throw new IllegalStateException("Arity " + arity + ": events drained out of order.");
+                    previous = event;
+                }
+                drain = System.nanoTime() - start;
+            }
+            long total = build + hold + drain;
+            System.out.println(arity + "\t" + build / 1000000 + "\t\t" + hold / 1000000 + "\t\t" + drain / 1000000
+                    + "\t\t" + total / 1000000);
+            if(total < bestTotal){
+                bestTotal = total;
+                bestArity = arity;
+            }
+        }
+        System.out.println("Fastest arity for " + numEvents + " events: " + bestArity + ".");
+    }
+}
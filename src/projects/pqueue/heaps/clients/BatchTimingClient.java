@@ -0,0 +1,110 @@
+package projects.pqueue.heaps.clients;
+
+import projects.pqueue.heaps.ArrayMinHeap;
+import projects.pqueue.heaps.EmptyHeapException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/** <b>BatchTimingClient</b> compares the batch operations of {@link ArrayMinHeap},
+ * {@link ArrayMinHeap#insertAll(java.util.Collection)} and {@link ArrayMinHeap#deleteMin(int, Comparable[])}, with
+ * loops over their single-element counterparts, in three experiments:
+ * <ol>
+ *     <li><b>Fill:</b> an empty heap receives a whole batch of elements, in random and in descending order.</li>
+ *     <li><b>Drain:</b> a full heap gives up a large fraction of its elements at once.</li>
+ *     <li><b>Chunks:</b> chunks of elements are repeatedly removed from a full heap and inserted back into it, as a
+ *     consumer of work items would do. Chunks this small are removed one element at a time by
+ *     {@link ArrayMinHeap#deleteMin(int, Comparable[])} as well, so any difference comes from
+ *     {@link ArrayMinHeap#insertAll(java.util.Collection)}.</li>
+ * </ol>
+ * The time per element is reported for each experiment, as the best of {@value #REPETITIONS} repetitions, since a
+ * single garbage collection can easily double the time of a run.
+ *
+ * <p>Arguments (all optional): size of the heap.</p>
+ */
+public class BatchTimingClient {
+
+    private static final int REPETITIONS = 5, ELEMENTS_MOVED = 2000000;
+
+    private static Integer[] batch(int size, boolean random, Random r){
+        Integer[] elements = new Integer[size];
+        for(int i = 0; i < size; i++)
+            elements[i] = random ? r.nextInt() : size - i;
+        return elements;
+    }
+
+    public static void main(String[] args) throws EmptyHeapException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        Random r = new Random(47);
+        Integer[] initial = batch(size, true, r);
+
+        System.out.println("================ Fill an empty heap with " + size + " elements ================");
+        System.out.println("Order\t\tinsert() loop\tinsertAll() (ns/element)");
+        for(boolean random : new boolean[]{true, false}){
+            List<Integer> elements = Arrays.asList(batch(size, random, r));
+            double single = Double.MAX_VALUE, batch = Double.MAX_VALUE;
+            for(int rep = 0; rep < REPETITIONS; rep++){
+                ArrayMinHeap<Integer> heap = new ArrayMinHeap<Integer>();
+                long start = System.nanoTime();
+                for(Integer e : elements)
+                    heap.insert(e);
+                single = Math.min(single, (double)(System.nanoTime() - start) / size);
+                heap = new ArrayMinHeap<Integer>();
+                start = System.nanoTime();
+                heap.insertAll(elements);
+                batch = Math.min(batch, (double)(System.nanoTime() - start) / size);
+            }
+            System.out.printf("%s\t%.0f\t\t%.0f%n", random ? "random\t" : "descending", single, batch);
+        }
+
+        System.out.println("================ Drain part of a heap of " + size + " elements ================");
+        System.out.println("Fraction\tdeleteMin() loop\tdeleteMin(k) (ns/element)");
+        for(int fraction : new int[]{8, 4, 2, 1}){
+            int k = size / fraction;
+            Integer[] out = new Integer[k];
+            double single = Double.MAX_VALUE, batch = Double.MAX_VALUE;
+            for(int rep = 0; rep < REPETITIONS; rep++){
+                ArrayMinHeap<Integer> heap = new ArrayMinHeap<Integer>(initial);
+                long start = System.nanoTime();
+                for(int i = 0; i < k; i++)
+                    out[i] = heap.deleteMin();
+                single = Math.min(single, (double)(System.nanoTime() - start) / k);
+                heap = new ArrayMinHeap<Integer>(initial);
+                start = System.nanoTime();
+                heap.deleteMin(k, out);
+                batch = Math.min(batch, (double)(System.nanoTime() - start) / k);
+            }
+            System.out.printf("1/%d\t\t%.0f\t\t\t%.0f%n", fraction, single, batch);
+        }
+
+        System.out.println("================ Move chunks through a heap of " + size + " elements ================");
+        System.out.println("Chunk\tSingle-element operations\tBatch operations (ns/element)");
+        for(int k : new int[]{64, 1000}){
+            Integer[] chunk = new Integer[k];
+            List<Integer> chunkList = Arrays.asList(chunk);
+            double single = Double.MAX_VALUE, batch = Double.MAX_VALUE;
+            for(int rep = 0; rep < REPETITIONS; rep++){
+                ArrayMinHeap<Integer> heap = new ArrayMinHeap<Integer>(initial);
+                long start = System.nanoTime();
+                for(int moved = 0; moved < ELEMENTS_MOVED; moved += k){
+                    for(int i = 0; i < k; i++)
+                        chunk[i] = heap.deleteMin();
+                    for(int i = 0; i < k; i++)
+                        heap.insert(chunk[i] + (1 << 20)); // New work, due later than the work just taken.
+                }
+                single = Math.min(single, (double)(System.nanoTime() - start) / ELEMENTS_MOVED);
+                heap = new ArrayMinHeap<Integer>(initial);
+                start = System.nanoTime();
+                for(int moved = 0; moved < ELEMENTS_MOVED; moved += k){
+                    heap.deleteMin(k, chunk);
+                    for(int i = 0; i < k; i++)
+                        chunk[i] = chunk[i] + (1 << 20);
+                    heap.insertAll(chunkList);
+                }
+                batch = Math.min(batch, (double)(System.nanoTime() - start) / ELEMENTS_MOVED);
+            }
+            System.out.printf("%d\t%.0f\t\t\t\t%.0f%n", k, single, batch);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package projects.pqueue.heaps.clients;
+
+import projects.pqueue.InvalidCapacityException;
+import projects.pqueue.heaps.ArrayMinHeap;
+import projects.pqueue.heaps.ElementCodec;
+import projects.pqueue.heaps.EmptyHeapException;
+import projects.pqueue.heaps.ExternalMinHeap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/** <b>ExternalHeapTimingClient</b> fills an {@link ExternalMinHeap} of {@link Long}s with many times more elements than
+ * it keeps in memory, then drains it, and reports the time per operation of both phases along with the amount of
+ * data written to disk, both by spills and by merges of runs. The same elements are then put through an
+ * {@link ArrayMinHeap}, which holds all of them in memory, for comparison.
+ *
+ * <p>Arguments (all optional): number of elements, number of elements kept in memory, directory of the run files.</p>
+ */
+public class ExternalHeapTimingClient {
+
+    public static void main(String[] args) throws InvalidCapacityException, EmptyHeapException, IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 8000000;
+        int memoryCapacity = args.length > 1 ? Integer.parseInt(args[1]) : 250000;
+        boolean temporary = args.length <= 2;
+        Path directory = temporary ? Files.createTempDirectory("external-heap") : Paths.get(args[2]);
+        Random r = new Random(47);
+        Long[] elements = new Long[n];
+        for(int i = 0; i < n; i++)
+            elements[i] = r.nextLong();
+
+        try(ExternalMinHeap<Long> heap = new ExternalMinHeap<Long>(ElementCodec.LONGS, memoryCapacity, directory)){
+            long start = System.nanoTime();
+            for(Long e : elements)
+                heap.insert(e);
+            long inserted = System.nanoTime();
+            int runs = heap.getRunCount();
+            while(!heap.isEmpty())
+                heap.deleteMin();
+            long drained = System.nanoTime();
+            double megabytes = heap.getBytesWritten() / 1e6, seconds = (drained - start) / 1e9;
+            System.out.printf("External heap, %d of %d elements in memory: insert %.0f ns/op, deleteMin %.0f ns/op%n",
+                    memoryCapacity, n, (double)(inserted - start) / n, (double)(drained - inserted) / n);
+            System.out.printf("%d runs after the inserts, %.1f MB written (%.2fx the data), %.1f MB/s overall%n",
+                    runs, megabytes, heap.getBytesWritten() / (8.0 * n), megabytes / seconds);
+        } finally {
+            if(temporary)
+                Files.delete(directory); // Closing the heap has deleted every run file, so it is empty.
+        }
+
+        ArrayMinHeap<Long> heap = new ArrayMinHeap<Long>();
+        long start = System.nanoTime();
+        for(Long e : elements)
+            heap.insert(e);
+        long inserted = System.nanoTime();
+        while(!heap.isEmpty())
+            heap.deleteMin();
+        long drained = System.nanoTime();
+        System.out.printf("In-memory ArrayMinHeap: insert %.0f ns/op, deleteMin %.0f ns/op%n",
+                (double)(inserted - start) / n, (double)(drained - inserted) / n);
+    }
+}
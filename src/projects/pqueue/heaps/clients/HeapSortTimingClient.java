@@ -0,0 +1,74 @@
+package projects.pqueue.heaps.clients;
+
+import projects.pqueue.heaps.HeapSort;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/** <b>HeapSortTimingClient</b> compares the heapsorts of {@link HeapSort} with the sorts of {@link Arrays}, on arrays
+ * of <tt>int</tt>s and of {@link Integer}s, and then the sequential and parallel heap constructions of
+ * {@link HeapSort} on the same arrays. The speedup of the parallel construction depends on the number of processors,
+ * which is printed along with the times.
+ *
+ * <p>Arguments (all optional): number of <tt>int</tt>s, number of {@link Integer}s.</p>
+ */
+public class HeapSortTimingClient {
+
+    private static final int REPETITIONS = 3;
+
+    public static void main(String[] args){
+        int intCount = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+        int integerCount = args.length > 1 ? Integer.parseInt(args[1]) : 2000000;
+        Random r = new Random(47);
+        int[] ints = new int[intCount];
+        for(int i = 0; i < intCount; i++)
+            ints[i] = r.nextInt();
+        Integer[] integers = new Integer[integerCount];
+        for(int i = 0; i < integerCount; i++)
+            integers[i] = r.nextInt();
+        System.out.println(Runtime.getRuntime().availableProcessors() + " processor(s) available.");
+
+        double heapSort = 0, arraysSort = 0, heapify = 0, parallelHeapify = 0;
+        for(int rep = 0; rep < REPETITIONS; rep++){
+            int[] a = ints.clone();
+            long start = System.nanoTime();
+            HeapSort.sort(a);
+            heapSort = (System.nanoTime() - start) / 1e6;
+            a = ints.clone();
+            start = System.nanoTime();
+            Arrays.sort(a);
+            arraysSort = (System.nanoTime() - start) / 1e6;
+            a = ints.clone();
+            start = System.nanoTime();
+            HeapSort.heapify(a);
+            heapify = (System.nanoTime() - start) / 1e6;
+            a = ints.clone();
+            start = System.nanoTime();
+            HeapSort.parallelHeapify(a);
+            parallelHeapify = (System.nanoTime() - start) / 1e6;
+        }
+        System.out.printf("%d ints:\t\tHeapSort.sort() %.0f ms, Arrays.sort() %.0f ms, heapify() %.0f ms, parallelHeapify() %.0f ms%n",
+                intCount, heapSort, arraysSort, heapify, parallelHeapify);
+
+        for(int rep = 0; rep < REPETITIONS; rep++){
+            Integer[] a = integers.clone();
+            long start = System.nanoTime();
+            HeapSort.sort(a);
+            heapSort = (System.nanoTime() - start) / 1e6;
+            a = integers.clone();
+            start = System.nanoTime();
+            Arrays.sort(a);
+            arraysSort = (System.nanoTime() - start) / 1e6;
+            a = integers.clone();
+            start = System.nanoTime();
+            HeapSort.heapify(a);
+            heapify = (System.nanoTime() - start) / 1e6;
+            a = integers.clone();
+            start = System.nanoTime();
+            HeapSort.parallelHeapify(a);
+            parallelHeapify = (System.nanoTime() - start) / 1e6;
+        }
+        System.out.printf("%d Integers:\tHeapSort.sort() %.0f ms, Arrays.sort() %.0f ms, heapify() %.0f ms, parallelHeapify() %.0f ms%n",
+                integerCount, heapSort, arraysSort, heapify, parallelHeapify);
+    }
+}
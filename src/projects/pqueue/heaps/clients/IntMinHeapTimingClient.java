@@ -0,0 +1,80 @@
+package projects.pqueue.heaps.clients;
+
+import projects.pqueue.InvalidCapacityException;
+import projects.pqueue.heaps.ArrayMinHeap;
+import projects.pqueue.heaps.EmptyHeapException;
+import projects.pqueue.heaps.IntMinHeap;
+
+import java.util.Random;
+
+/** <b>IntMinHeapTimingClient</b> compares an {@link IntMinHeap} of <tt>(int priority, payload)</tt> pairs with an
+ * {@link ArrayMinHeap} of {@link Comparable} entries wrapping the same pairs, which is how such pairs had to be stored
+ * before. Both heaps have the same arity. Every experiment fills the heap and then runs a number of <b>hold</b>
+ * operations, removing the minimum and inserting a new pair with a larger priority, so that the
+ * {@link ArrayMinHeap} allocates one entry per operation just like its callers would. The last of a few repetitions is
+ * reported, so that the JIT has warmed up.
+ *
+ * <p>Arguments (all optional): heap size, number of hold operations, arity.</p>
+ */
+public class IntMinHeapTimingClient {
+
+    private static final int REPETITIONS = 4;
+
+    private static final class Entry implements Comparable<Entry> {
+        final int priority;
+        final Object payload;
+
+        Entry(int priority, Object payload){
+            this.priority = priority;
+            this.payload = payload;
+        }
+
+        @Override
+        public int compareTo(Entry o){
+            return Integer.compare(priority, o.priority);
+        }
+    }
+
+    public static void main(String[] args) throws InvalidCapacityException, EmptyHeapException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int holds = args.length > 1 ? Integer.parseInt(args[1]) : 10000000;
+        int arity = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        Random r = new Random(47);
+        int[] priorities = new int[size], delays = new int[holds];
+        for(int i = 0; i < size; i++)
+            priorities[i] = r.nextInt(Integer.MAX_VALUE / 2);
+        for(int i = 0; i < holds; i++)
+            delays[i] = r.nextInt(size);
+        Object payload = new Object();
+
+        long wrapped = 0, primitive = 0, checksum = 0;
+        for(int rep = 0; rep < REPETITIONS; rep++){
+            ArrayMinHeap<Entry> entries = new ArrayMinHeap<Entry>(arity, size);
+            for(int p : priorities)
+                entries.insert(new Entry(p, payload));
+            long start = System.nanoTime();
+            for(int delay : delays){
+                Entry min = entries.deleteMin();
+                entries.insert(new Entry(min.priority + delay, min.payload));
+            }
+            wrapped = System.nanoTime() - start;
+            checksum += entries.getMin().priority;
+
+            IntMinHeap<Object> ints = new IntMinHeap<Object>(arity, size);
+            for(int p : priorities)
+                ints.insert(p, payload);
+            start = System.nanoTime();
+            for(int delay : delays){
+                int priority = ints.getMinPriority();
+                ints.insert(priority + delay, ints.deleteMin());
+            }
+            primitive = System.nanoTime() - start;
+            checksum -= ints.getMinPriority();
+        }
+        if(checksum != 0)
+            throw new IllegalStateException("The two heaps disagree on their minimum.");
+        System.out.println(holds + " hold operations on " + size + " pairs, arity " + arity + ":");
+        System.out.println("ArrayMinHeap<Entry>:\t" + wrapped / 1000000 + " ms.");
+        System.out.println("IntMinHeap<Object>:\t" + primitive / 1000000 + " ms.");
+    }
+}
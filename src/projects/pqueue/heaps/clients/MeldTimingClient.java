@@ -0,0 +1,75 @@
+package projects.pqueue.heaps.clients;
+
+import projects.pqueue.heaps.ArrayMinHeap;
+import projects.pqueue.heaps.EmptyHeapException;
+import projects.pqueue.heaps.PairingHeap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/** <b>MeldTimingClient</b> measures the cost of combining per-worker heaps into one at a barrier. Every worker fills
+ * its own heap; at the barrier, the heaps are combined and a number of minima are removed from the result. The
+ * combination is done twice:
+ * <ul>
+ *     <li>by rebuilding an {@link ArrayMinHeap} out of the elements of all the workers' heaps, in linear time,</li>
+ *     <li>by melding the workers' {@link PairingHeap}s, in constant time per heap.</li>
+ * </ul>
+ * Melding is immediate, but the heaps of the workers were only ever inserted into, so each of their roots has all of
+ * their other elements as children, and the first removal after the barrier has to pair all of them up. The time
+ * of the melds alone and the time including the removals are therefore reported separately. The last of a few
+ * repetitions is reported, so that the JIT has warmed up.
+ *
+ * <p>Arguments (all optional): number of workers, elements per worker, minima removed after the barrier.</p>
+ */
+public class MeldTimingClient {
+
+    private static final int REPETITIONS = 4;
+
+    public static void main(String[] args) throws EmptyHeapException {
+        int workers = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int perWorker = args.length > 1 ? Integer.parseInt(args[1]) : 250000;
+        int removals = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        Random r = new Random(47);
+        Integer[][] elements = new Integer[workers][perWorker];
+        for(Integer[] worker : elements)
+            for(int i = 0; i < perWorker; i++)
+                worker[i] = r.nextInt();
+
+        long rebuild = 0, meld = 0, meldAndRemove = 0, checksum = 0;
+        for(int rep = 0; rep < REPETITIONS; rep++){
+            List<PairingHeap<Integer>> pairingHeaps = new ArrayList<PairingHeap<Integer>>();
+            for(Integer[] worker : elements){
+                PairingHeap<Integer> p = new PairingHeap<Integer>();
+                for(Integer x : worker)
+                    p.insert(x);
+                pairingHeaps.add(p);
+            }
+
+            // The rebuild gets the workers' elements as plain arrays, which is the best case for it.
+            long start = System.nanoTime();
+            List<Integer> all = new ArrayList<Integer>(workers * perWorker);
+            for(Integer[] worker : elements)
+                Collections.addAll(all, worker);
+            ArrayMinHeap<Integer> combined = new ArrayMinHeap<Integer>(all);
+            for(int i = 0; i < removals; i++)
+                checksum += combined.deleteMin();
+            rebuild = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            PairingHeap<Integer> melded = pairingHeaps.get(0);
+            for(int w = 1; w < workers; w++)
+                melded.meld(pairingHeaps.get(w));
+            meld = System.nanoTime() - start;
+            for(int i = 0; i < removals; i++)
+                checksum -= melded.deleteMin();
+            meldAndRemove = System.nanoTime() - start;
+        }
+        if(checksum != 0)
+            throw new IllegalStateException("The two combined heaps disagree on their minima.");
+        System.out.println(workers + " workers with " + perWorker + " elements each, " + removals + " removals:");
+        System.out.println("ArrayMinHeap rebuild:\t" + rebuild / 1000000 + " ms.");
+        System.out.println("PairingHeap meld:\t" + meld / 1000 + " us, " + meldAndRemove / 1000000 + " ms with the removals.");
+    }
+}
@@ -0,0 +1,65 @@
+package projects.pqueue.heaps.clients;
+
+import projects.pqueue.heaps.ArrayMinHeap;
+import projects.pqueue.heaps.EmptyHeapException;
+import projects.pqueue.heaps.MinHeap;
+import projects.pqueue.heaps.PagedArrayMinHeap;
+
+import java.util.Random;
+
+/** <b>PagedHeapTimingClient</b> compares the standard implicit layout of {@link ArrayMinHeap} with the B-heap layout
+ * of {@link PagedArrayMinHeap}, for pages of a cache line (16 slots) and of a 4 KB memory page (1024 slots), on heaps
+ * of growing size. Every experiment fills the heap and then runs as many <b>hold</b> operations, removing the minimum
+ * and inserting a new element, as the heap has elements; the time per hold operation is reported.
+ *
+ * <p>The elements of the heap are {@link Integer}s, and comparing two of them already reads two objects outside the
+ * heap's array. To tell the layouts apart from the cost of reaching the elements themselves, the experiment is run
+ * twice: once with the elements allocated in random order, and once with a small, cache-resident pool of distinct
+ * {@link Integer}s which every element of the heap is drawn from.</p>
+ *
+ * <p>Arguments (all optional): largest heap size.</p>
+ */
+public class PagedHeapTimingClient {
+
+    private static final int REPETITIONS = 3;
+
+    private static double holdTime(MinHeap<Integer> heap, Integer[] elements, Integer[] replacements)
+            throws EmptyHeapException {
+        for(Integer e : elements)
+            heap.insert(e);
+        long start = System.nanoTime();
+        for(Integer e : replacements){
+            heap.deleteMin();
+            heap.insert(e);
+        }
+        return (double)(System.nanoTime() - start) / replacements.length;
+    }
+
+    public static void main(String[] args) throws EmptyHeapException {
+        int maxSize = args.length > 0 ? Integer.parseInt(args[0]) : 16000000;
+        Random r = new Random(47);
+        Integer[] pool = new Integer[4096];
+        for(int i = 0; i < pool.length; i++)
+            pool[i] = i * 1000; // Values far apart, so that a pooled heap still orders elements meaningfully.
+        for(String elements : new String[]{"scattered", "pooled"}){
+            System.out.println("================ " + elements + " elements ================");
+            System.out.println("Size\t\tStandard (ns/op)\tPaged, 16 (ns/op)\tPaged, 1024 (ns/op)");
+            for(int size = 250000; size <= maxSize; size *= 4){
+                Integer[] initial = new Integer[size], replacements = new Integer[size];
+                for(int i = 0; i < size; i++){
+                    // Replacements are larger than the initial elements, so every hold operation sinks to a leaf.
+                    initial[i] = elements.equals("pooled") ? pool[r.nextInt(pool.length / 2)] : r.nextInt(Integer.MAX_VALUE / 2);
+                    replacements[i] = elements.equals("pooled") ? pool[pool.length / 2 + r.nextInt(pool.length / 2)]
+                            : Integer.MAX_VALUE / 2 + r.nextInt(Integer.MAX_VALUE / 2);
+                }
+                double standard = 0, small = 0, large = 0;
+                for(int rep = 0; rep < REPETITIONS; rep++){
+                    standard = holdTime(new ArrayMinHeap<Integer>(), initial, replacements);
+                    small = holdTime(new PagedArrayMinHeap<Integer>(4), initial, replacements);
+                    large = holdTime(new PagedArrayMinHeap<Integer>(10), initial, replacements);
+                }
+                System.out.println(String.format("%-10d\t%.1f\t\t\t%.1f\t\t\t%.1f", size, standard, small, large));
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package projects.pqueue.heaps.clients;
+
+import projects.pqueue.heaps.ArrayMinHeap;
+import projects.pqueue.heaps.LinkedMinHeap;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/** <b>SortedIteratorTimingClient</b> times how long it takes to look at the <i>k</i> smallest elements of a large heap,
+ * through the {@link ArrayMinHeap#iterator() iterator()} of {@link ArrayMinHeap} and {@link LinkedMinHeap}, which sorts a
+ * copy of the whole heap before returning its first element, and through their <tt>sortedIterator()</tt>, which
+ * only ever looks at the elements that may come next.
+ *
+ * <p>Arguments (all optional): size of the heaps.</p>
+ */
+public class SortedIteratorTimingClient {
+
+    private static final int REPETITIONS = 3;
+
+    /* Times the creation of the iterator too, since that is where iterator() sorts the heap. */
+    private static double time(Supplier<Iterator<Integer>> iterator, int k){
+        long start = System.nanoTime();
+        Iterator<Integer> it = iterator.get();
+        for(int i = 0; i < k; i++)
+            it.next();
+        return (System.nanoTime() - start) / 1e6;
+    }
+
+    public static void main(String[] args){
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        Random r = new Random(47);
+        Integer[] elements = new Integer[size];
+        for(int i = 0; i < size; i++)
+            elements[i] = r.nextInt();
+        ArrayMinHeap<Integer> array = new ArrayMinHeap<Integer>(elements);
+        LinkedMinHeap<Integer> linked = new LinkedMinHeap<Integer>(elements);
+        System.out.println("Heaps of " + size + " elements.");
+        System.out.println("k\t\tArray: iterator()\tsortedIterator()\tLinked: iterator()\tsortedIterator() (ms)");
+        for(int k : new int[]{10, 1000, 100000, size}){
+            double a = 0, as = 0, l = 0, ls = 0;
+            for(int rep = 0; rep < REPETITIONS; rep++){
+                a = time(array::iterator, k);
+                as = time(array::sortedIterator, k);
+                l = time(linked::iterator, k);
+                ls = time(linked::sortedIterator, k);
+            }
+            System.out.printf("%d\t\t%.3f\t\t%.3f\t\t\t%.3f\t\t%.3f%n", k, a, as, l, ls);
+        }
+    }
+}
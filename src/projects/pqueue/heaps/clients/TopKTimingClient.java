@@ -0,0 +1,100 @@
+package projects.pqueue.heaps.clients;
+
+import projects.pqueue.heaps.ArrayMinHeap;
+import projects.pqueue.heaps.EmptyHeapException;
+import projects.pqueue.heaps.TopKSelector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/** <b>TopKTimingClient</b> selects the <i>K</i> largest scores out of a long stream in three ways:
+ * <ul>
+ *     <li><b>insert and trim</b>: every score goes into an {@link ArrayMinHeap}, which is trimmed back to <i>K</i>
+ *     elements whenever it reaches twice that size.</li>
+ *     <li><b>selector</b>: a single {@link TopKSelector}.</li>
+ *     <li><b>parallel</b>: one {@link TopKSelector} per thread over a slice of the stream, merged at the end.</li>
+ * </ul>
+ * All three must agree on the result. The last of a few repetitions is reported, so that the JIT has warmed up.
+ *
+ * <p>Arguments (all optional): length of the stream, <i>K</i>, number of threads.</p>
+ */
+public class TopKTimingClient {
+
+    private static final int REPETITIONS = 4;
+
+    private static List<Double> insertAndTrim(Double[] scores, int k) throws EmptyHeapException {
+        ArrayMinHeap<Double> heap = new ArrayMinHeap<Double>();
+        for(Double score : scores){
+            heap.insert(score);
+            if(heap.size() == 2 * k)
+                while(heap.size() > k)
+                    heap.deleteMin();
+        }
+        while(heap.size() > k)
+            heap.deleteMin();
+        List<Double> top = new ArrayList<Double>();
+        while(!heap.isEmpty())
+            top.add(0, heap.deleteMin());
+        return top;
+    }
+
+    private static List<Double> parallel(final Double[] scores, int k, int threads) throws InterruptedException {
+        final List<TopKSelector<Double>> selectors = new ArrayList<TopKSelector<Double>>();
+        List<Thread> workers = new ArrayList<Thread>();
+        for(int t = 0; t < threads; t++){
+            final TopKSelector<Double> selector = new TopKSelector<Double>(k);
+            final int from = (int)((long)scores.length * t / threads), to = (int)((long)scores.length * (t + 1) / threads);
+            selectors.add(selector);
+            workers.add(new Thread(){
+                @Override
+                public void run(){
+                    for(int i = from; i < to; i++)
+                        selector.offer(scores[i]);
+                }
+            });
+        }
+        for(Thread w : workers)
+            w.start();
+        for(Thread w : workers)
+            w.join();
+        TopKSelector<Double> merged = selectors.get(0);
+        for(int t = 1; t < threads; t++)
+            merged.merge(selectors.get(t));
+        return merged.getTopK();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+        int k = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        Random r = new Random(47);
+        Double[] scores = new Double[length];
+        for(int i = 0; i < length; i++)
+            scores[i] = r.nextDouble();
+
+        long trim = 0, single = 0, multi = 0;
+        for(int rep = 0; rep < REPETITIONS; rep++){
+            long start = System.nanoTime();
+            List<Double> expected = insertAndTrim(scores, k);
+            trim = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            TopKSelector<Double> selector = new TopKSelector<Double>(k);
+            for(Double score : scores)
+                selector.offer(score);
+            List<Double> top = selector.getTopK();
+            single = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            List<Double> parallelTop = parallel(scores, k, threads);
+            multi = System.nanoTime() - start;
+            if(!expected.equals(top) || !expected.equals(parallelTop))
+                throw new IllegalStateException("The three selections disagree.");
+        }
+        System.out.println("Top " + k + " out of " + length + " scores:");
+        System.out.println("Insert and trim:\t" + trim / 1000000 + " ms.");
+        System.out.println("TopKSelector:\t\t" + single / 1000000 + " ms.");
+        System.out.println(threads + " merged TopKSelectors:\t" + multi / 1000000 + " ms.");
+    }
+}
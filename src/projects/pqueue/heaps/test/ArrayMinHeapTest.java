@@ -0,0 +1,265 @@
+package projects.pqueue.heaps.test;
+
+import org.junit.Test;
+import projects.pqueue.InvalidCapacityException;
+import projects.pqueue.heaps.ArrayMinHeap;
+import projects.pqueue.heaps.EmptyHeapException;
+import projects.pqueue.heaps.MinHeap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>A testing framework for {@link ArrayMinHeap}.</p>
+ *
+ * @see MinHeap
+ */
+public class ArrayMinHeapTest {
+
+	private static final int[] ARITIES = {2, 3, 4, 8, 16};
+
+	private static Integer[] randomInts(int n, long seed){
+		Random r = new Random(seed);
+		Integer[] ints = new Integer[n];
+		for(int i = 0; i < n; i++)
+			ints[i] = r.nextInt(n / 2 + 1); // Plenty of duplicates.
+		return ints;
+	}
+
+	@Test
+	public void testEmpty(){
+		MinHeap<Integer> heap = new ArrayMinHeap<Integer>();
+		assertTrue(heap.isEmpty());
+		assertEquals(0, heap.size());
+		try {
+			heap.getMin();
+			fail("getMin() on an empty heap should throw an EmptyHeapException.");
+		} catch(EmptyHeapException ignored){}
+		try {
+			heap.deleteMin();
+			fail("deleteMin() on an empty heap should throw an EmptyHeapException.");
+		} catch(EmptyHeapException ignored){}
+	}
+
+	@Test
+	public void testInsertAndDeleteMinForEveryArity() throws InvalidCapacityException, EmptyHeapException {
+		Integer[] ints = randomInts(5000, 47);
+		Integer[] sorted = ints.clone();
+		Arrays.sort(sorted);
+		for(int arity : ARITIES){
+			ArrayMinHeap<Integer> heap = new ArrayMinHeap<Integer>(arity, 0); // Starts without room for anything.
+			assertEquals(arity, heap.getArity());
+			for(Integer i : ints)
+				heap.insert(i);
+			assertEquals(ints.length, heap.size());
+			for(Integer expected : sorted){
+				assertEquals("Arity " + arity, expected, heap.getMin());
+				assertEquals("Arity " + arity, expected, heap.deleteMin());
+			}
+			assertTrue(heap.isEmpty());
+		}
+	}
+
+	@Test
+	public void testInterleavedOperations() throws InvalidCapacityException, EmptyHeapException {
+		Random r = new Random(420);
+		for(int arity : ARITIES){
+			ArrayMinHeap<Integer> heap = new ArrayMinHeap<Integer>(arity, 16);
+			java.util.PriorityQueue<Integer> reference = new java.util.PriorityQueue<Integer>();
+			for(int op = 0; op < 20000; op++){
+				if(reference.isEmpty() || r.nextInt(3) > 0){
+					int x = r.nextInt(1000);
+					heap.insert(x);
+					reference.add(x);
+				} else {
+					assertEquals(reference.poll(), heap.deleteMin());
+				}
+				assertEquals(reference.size(), heap.size());
+			}
+		}
+	}
+
+	private static void assertDrainsInOrder(MinHeap<Integer> heap, Integer[] elements) throws EmptyHeapException {
+		Integer[] sorted = elements.clone();
+		Arrays.sort(sorted);
+		assertEquals(sorted.length, heap.size());
+		for(Integer expected : sorted)
+			assertEquals(expected, heap.deleteMin());
+		assertTrue(heap.isEmpty());
+	}
+
+	@Test
+	public void testHeapifyConstructors() throws EmptyHeapException {
+		for(int n : new int[]{0, 1, 2, 7, 1000}){
+			final Integer[] ints = randomInts(n, n);
+			Integer[] original = ints.clone();
+			assertDrainsInOrder(new ArrayMinHeap<Integer>(ints), ints);
+			assertArrayEquals("The array should not have been modified.", original, ints);
+
+			List<Integer> list = new ArrayList<Integer>(Arrays.asList(ints));
+			assertDrainsInOrder(new ArrayMinHeap<Integer>(list), ints);
+			assertEquals(n, list.size());
+			for(int arity : ARITIES)
+				assertDrainsInOrder(new ArrayMinHeap<Integer>(arity, list), ints);
+
+			Iterable<Integer> iterable = new Iterable<Integer>(){ // Not a Collection: its size is unknown up front.
+				@Override
+				public Iterator<Integer> iterator(){
+					return Arrays.asList(ints).iterator();
+				}
+			};
+			assertDrainsInOrder(new ArrayMinHeap<Integer>(4, iterable), ints);
+		}
+	}
+
+	@Test
+	public void testHeapifiedHeapKeepsWorking() throws EmptyHeapException {
+		ArrayMinHeap<Integer> heap = new ArrayMinHeap<Integer>(new Integer[]{5, 3});
+		for(int i = 10; i > 0; i--)
+			heap.insert(i);
+		Integer[] expected = {1, 2, 3, 3, 4, 5, 5, 6, 7, 8, 9, 10};
+		assertDrainsInOrder(heap, expected);
+	}
+
+	@Test
+	public void testReplaceMin() throws InvalidCapacityException, EmptyHeapException {
+		ArrayMinHeap<Integer> heap = new ArrayMinHeap<Integer>(3, 4);
+		try {
+			heap.replaceMin(1);
+			fail("replaceMin() on an empty heap should throw an EmptyHeapException.");
+		} catch(EmptyHeapException ignored){}
+		for(int i : new int[]{5, 1, 4, 2, 3})
+			heap.insert(i);
+		assertEquals(Integer.valueOf(1), heap.replaceMin(6));
+		assertEquals(Integer.valueOf(2), heap.replaceMin(0));
+		assertDrainsInOrder(heap, new Integer[]{0, 3, 4, 5, 6});
+	}
+
+	@Test
+	public void testBatchOperationsForEveryArity() throws InvalidCapacityException, EmptyHeapException {
+		Random r = new Random(4200);
+		for(int arity = 2; arity <= 5; arity++){
+			ArrayMinHeap<Integer> heap = new ArrayMinHeap<Integer>(arity, 1);
+			java.util.PriorityQueue<Integer> reference = new java.util.PriorityQueue<Integer>();
+			Integer[] out = new Integer[1500];
+			for(int op = 0; op < 2000; op++){
+				if(r.nextBoolean()){
+					List<Integer> batch = new ArrayList<Integer>();
+					for(int i = r.nextInt(op % 7 == 0 ? 2000 : 100); i > 0; i--)
+						batch.add(r.nextInt(5000));
+					heap.insertAll(batch);
+					reference.addAll(batch);
+				} else {
+					int k = r.nextInt(op % 5 == 0 ? out.length : 80), n = heap.deleteMin(k, out);
+					assertEquals(Math.min(k, reference.size()), n);
+					for(int i = 0; i < n; i++)
+						assertEquals(reference.poll(), out[i]);
+				}
+				assertEquals(reference.size(), heap.size());
+				if(!reference.isEmpty())
+					assertEquals(reference.peek(), heap.getMin());
+			}
+			Integer[] expected = new Integer[reference.size()];
+			for(int i = 0; i < expected.length; i++)
+				expected[i] = reference.poll();
+			assertDrainsInOrder(heap, expected);
+		}
+		try {
+			new ArrayMinHeap<Integer>().deleteMin(2, new Integer[1]);
+			fail("deleteMin() should not accept more elements than fit in the array.");
+		} catch(IllegalArgumentException ignored){}
+	}
+
+	@Test
+	public void testInvalidArityAndCapacity() throws InvalidCapacityException {
+		try {
+			new ArrayMinHeap<Integer>(1, 10);
+			fail("An arity of 1 should be rejected.");
+		} catch(IllegalArgumentException ignored){}
+		try {
+			new ArrayMinHeap<Integer>(4, -1);
+			fail("A negative capacity should be rejected.");
+		} catch(InvalidCapacityException ignored){}
+	}
+
+	@Test
+	public void testIteratorIsAscendingAndFailFast() throws InvalidCapacityException {
+		Integer[] ints = randomInts(300, 1);
+		Integer[] sorted = ints.clone();
+		Arrays.sort(sorted);
+		ArrayMinHeap<Integer> heap = new ArrayMinHeap<Integer>(4, 10);
+		for(Integer i : ints)
+			heap.insert(i);
+		int index = 0;
+		for(Integer i : heap)
+			assertEquals(sorted[index++], i);
+		assertEquals(sorted.length, index);
+
+		Iterator<Integer> it = heap.iterator();
+		it.next();
+		heap.insert(5);
+		try {
+			it.next();
+			fail("The iterator should have detected the insertion.");
+		} catch(ConcurrentModificationException ignored){}
+	}
+
+	@Test
+	public void testSortedIterator() throws InvalidCapacityException, EmptyHeapException {
+		assertFalse(new ArrayMinHeap<Integer>().sortedIterator().hasNext());
+		Integer[] ints = randomInts(500, 3);
+		Integer[] sorted = ints.clone();
+		Arrays.sort(sorted);
+		for(int arity = 2; arity <= 5; arity++){
+			ArrayMinHeap<Integer> heap = new ArrayMinHeap<Integer>(arity, 1);
+			for(Integer i : ints)
+				heap.insert(i);
+			Iterator<Integer> it = heap.sortedIterator();
+			for(Integer i : sorted)
+				assertEquals(i, it.next());
+			assertFalse(it.hasNext());
+			try {
+				it.next();
+				fail("An exhausted iterator should throw a NoSuchElementException.");
+			} catch(NoSuchElementException ignored){}
+			assertEquals("The heap should be left untouched.", ints.length, heap.size());
+			assertEquals(sorted[0], heap.getMin());
+
+			it = heap.sortedIterator();
+			it.next();
+			heap.deleteMin();
+			try {
+				it.next();
+				fail("The iterator should have detected the call to deleteMin().");
+			} catch(ConcurrentModificationException ignored){}
+		}
+	}
+
+	@Test
+	public void testCopyConstructorAndEquals() throws InvalidCapacityException, EmptyHeapException {
+		ArrayMinHeap<Integer> heap = new ArrayMinHeap<Integer>(8, 10);
+		for(Integer i : randomInts(100, 3))
+			heap.insert(i);
+		ArrayMinHeap<Integer> copy = new ArrayMinHeap<Integer>(heap);
+		assertEquals(8, copy.getArity());
+		assertEquals(heap, copy);
+
+		ArrayMinHeap<Integer> binary = new ArrayMinHeap<Integer>();
+		for(Integer i : heap)
+			binary.insert(i);
+		assertEquals("Heaps of different arities with the same elements should be equal.", heap, binary);
+		assertEquals("Equal heaps should have equal hash codes.", heap.hashCode(), binary.hashCode());
+
+		copy.deleteMin();
+		assertNotEquals(heap, copy);
+		assertEquals(100, heap.size());
+		assertNotEquals(heap, null);
+	}
+}
@@ -0,0 +1,196 @@
+package projects.pqueue.heaps.test;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import projects.pqueue.InvalidCapacityException;
+import projects.pqueue.heaps.ElementCodec;
+import projects.pqueue.heaps.EmptyHeapException;
+import projects.pqueue.heaps.ExternalMinHeap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>A testing framework for {@link ExternalMinHeap}. Every heap keeps only a handful of elements in memory,
+ * so that the tests go through many spills and merges of runs.</p>
+ *
+ * @see ArrayMinHeapTest
+ */
+public class ExternalMinHeapTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/* Strings of up to 32 ASCII characters, encoded with a length prefix. */
+	private static final ElementCodec<String> STRINGS = new ElementCodec<String>() {
+		@Override
+		public int maxEncodedSize(){
+			return 1 + 32;
+		}
+
+		@Override
+		public void encode(String element, ByteBuffer buffer){
+			byte[] bytes = element.getBytes(StandardCharsets.US_ASCII);
+			buffer.put((byte)bytes.length);
+			buffer.put(bytes);
+		}
+
+		@Override
+		public String decode(ByteBuffer buffer){
+			byte[] bytes = new byte[buffer.get()];
+			buffer.get(bytes);
+			return new String(bytes, StandardCharsets.US_ASCII);
+		}
+	};
+
+	private int runFiles(){
+		String[] files = folder.getRoot().list();
+		return files == null ? 0 : files.length;
+	}
+
+	@Test
+	public void testInterleavedOperations() throws InvalidCapacityException, EmptyHeapException {
+		Random r = new Random(420);
+		ExternalMinHeap<Integer> heap = new ExternalMinHeap<Integer>(ElementCodec.INTEGERS, 16, folder.getRoot().toPath());
+		java.util.PriorityQueue<Integer> reference = new java.util.PriorityQueue<Integer>();
+		boolean spilled = false;
+		for(int op = 0; op < 60000; op++){
+			if(reference.isEmpty() || r.nextInt(3) > 0){
+				int x = r.nextInt(100000);
+				heap.insert(x);
+				reference.add(x);
+			} else {
+				assertEquals(reference.peek(), heap.getMin());
+				assertEquals(reference.poll(), heap.deleteMin());
+			}
+			assertEquals(reference.size(), heap.size());
+			assertTrue("There should never be more than 64 runs.", heap.getRunCount() <= 64);
+			spilled |= heap.getRunCount() > 0;
+		}
+		assertTrue("A heap of 16 elements in memory should have spilled.", spilled);
+		while(!reference.isEmpty())
+			assertEquals(reference.poll(), heap.deleteMin());
+		assertTrue(heap.isEmpty());
+		assertEquals("Every run has been read, so every run file should be gone.", 0, runFiles());
+		try {
+			heap.deleteMin();
+			fail("deleteMin() on an empty heap should throw an EmptyHeapException.");
+		} catch(EmptyHeapException ignored){}
+	}
+
+	@Test
+	public void testVariableLengthElementsAndIterator() throws InvalidCapacityException, EmptyHeapException {
+		Random r = new Random(47);
+		List<String> strings = new ArrayList<String>();
+		try(ExternalMinHeap<String> heap = new ExternalMinHeap<String>(STRINGS, 100, folder.getRoot().toPath())){
+			for(int i = 0; i < 20000; i++){
+				char[] chars = new char[r.nextInt(33)];
+				for(int j = 0; j < chars.length; j++)
+					chars[j] = (char)('a' + r.nextInt(26));
+				strings.add(new String(chars));
+				heap.insert(strings.get(i));
+			}
+			assertTrue(heap.getRunCount() > 0);
+			assertTrue(heap.getBytesWritten() > 0);
+			Collections.sort(strings);
+
+			// Twice, to make sure the iterator leaves the heap as it was.
+			for(int pass = 0; pass < 2; pass++){
+				Iterator<String> it = heap.iterator();
+				for(String s : strings)
+					assertEquals(s, it.next());
+				assertFalse(it.hasNext());
+			}
+			Iterator<String> it = heap.iterator();
+			it.next();
+			heap.deleteMin();
+			try {
+				it.next();
+				fail("The iterator should have been invalidated by deleteMin().");
+			} catch(ConcurrentModificationException ignored){}
+
+			for(int i = 1; i < strings.size() / 2; i++)
+				assertEquals(strings.get(i), heap.deleteMin());
+			it = heap.iterator();
+			for(int i = strings.size() / 2; i < strings.size(); i++)
+				assertEquals(strings.get(i), it.next());
+			assertFalse(it.hasNext());
+		}
+		assertEquals("close() should delete every run file.", 0, runFiles());
+	}
+
+	@Test
+	public void testFailedMergeKeepsRuns() throws InvalidCapacityException, EmptyHeapException {
+		// Integers, which fail to encode once left[0] more of them have been encoded, unless left[0] is negative.
+		final int[] left = {-1};
+		ElementCodec<Integer> failing = new ElementCodec<Integer>() {
+			@Override
+			public int maxEncodedSize(){
+				return Integer.BYTES;
+			}
+
+			@Override
+			public void encode(Integer element, ByteBuffer buffer){
+				if(left[0] == 0)
+					throw new IllegalStateException("encode(): failing on purpose.");
+				if(left[0] > 0)
+					left[0]--;
+				buffer.putInt(element);
+			}
+
+			@Override
+			public Integer decode(ByteBuffer buffer){
+				return buffer.getInt();
+			}
+		};
+		ExternalMinHeap<Integer> heap = new ExternalMinHeap<Integer>(failing, 1, folder.getRoot().toPath());
+		for(int i = 64; i > 0; i--)
+			heap.insert(i);
+		assertEquals(63, heap.getRunCount());
+
+		// The next insertion spills a 64th run, then merges the smaller half of them, and that merge fails.
+		left[0] = 1;
+		try {
+			heap.insert(0);
+			fail("A merge whose codec fails should not complete.");
+		} catch(IllegalStateException ignored){}
+		assertEquals("Nothing should be lost by the failed merge.", 64, heap.size());
+		assertEquals(64, heap.getRunCount());
+
+		left[0] = -1;
+		heap.insert(0);
+		heap.insert(65); // Spills a 65th run, and merges the smaller half of them this time.
+		assertEquals(65 - 32 + 1, heap.getRunCount());
+		for(int i = 0; i <= 65; i++)
+			assertEquals(Integer.valueOf(i), heap.deleteMin());
+		assertTrue(heap.isEmpty());
+		assertEquals(0, runFiles());
+	}
+
+	@Test
+	public void testClear() throws InvalidCapacityException, EmptyHeapException {
+		ExternalMinHeap<Long> heap = new ExternalMinHeap<Long>(ElementCodec.LONGS, 10, folder.getRoot().toPath());
+		for(long i = 1000; i > 0; i--)
+			heap.insert(i);
+		assertTrue(heap.getRunCount() > 0);
+		heap.clear();
+		assertTrue(heap.isEmpty());
+		assertEquals(0, heap.getRunCount());
+		assertEquals(0, runFiles());
+		heap.insert(3L);
+		assertEquals(Long.valueOf(3), heap.getMin());
+		try {
+			new ExternalMinHeap<Long>(ElementCodec.LONGS, 0, folder.getRoot().toPath());
+			fail("A heap with no room in memory should not be created.");
+		} catch(InvalidCapacityException ignored){}
+	}
+}
@@ -0,0 +1,102 @@
+package projects.pqueue.heaps.test;
+
+import org.junit.Test;
+import projects.pqueue.heaps.HeapSort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>A testing framework for {@link HeapSort}.</p>
+ *
+ * @see ArrayMinHeapTest
+ */
+public class HeapSortTest {
+
+	private static final int[] SIZES = {0, 1, 2, 3, 7, 8, 100, 1023, 1024, 5000};
+
+	/* Random values, or values in ascending or descending order, with or without many duplicates. */
+	private static int[] ints(int n, int kind, Random r){
+		int[] a = new int[n];
+		for(int i = 0; i < n; i++)
+			a[i] = kind == 0 ? r.nextInt() : kind == 1 ? r.nextInt(5) : kind == 2 ? i : n - i;
+		return a;
+	}
+
+	@Test
+	public void testSortInts(){
+		Random r = new Random(45);
+		for(int n : SIZES)
+			for(int kind = 0; kind < 4; kind++){
+				int[] a = ints(n, kind, r), expected = a.clone();
+				Arrays.sort(expected);
+				HeapSort.sort(a);
+				assertArrayEquals(expected, a);
+			}
+	}
+
+	@Test
+	public void testSortLongs(){
+		Random r = new Random(46);
+		for(int n : SIZES){
+			long[] a = new long[n];
+			for(int i = 0; i < n; i++)
+				a[i] = r.nextLong();
+			long[] expected = a.clone();
+			Arrays.sort(expected);
+			HeapSort.sort(a);
+			assertArrayEquals(expected, a);
+		}
+	}
+
+	@Test
+	public void testSortObjects(){
+		Random r = new Random(47);
+		for(int n : SIZES)
+			for(int kind = 0; kind < 4; kind++){
+				int[] ints = ints(n, kind, r);
+				Integer[] a = new Integer[n];
+				for(int i = 0; i < n; i++)
+					a[i] = ints[i];
+				Integer[] expected = a.clone(), reversed = a.clone();
+				Arrays.sort(expected);
+				HeapSort.sort(a);
+				assertArrayEquals(expected, a);
+				HeapSort.sort(reversed, Comparator.reverseOrder());
+				for(int i = 0; i < n; i++)
+					assertEquals(expected[n - 1 - i], reversed[i]);
+			}
+	}
+
+	@Test
+	public void testHeapify(){
+		Random r = new Random(48);
+		for(int n : new int[]{0, 1, 2, 5, 1000, 100000, 300001}){
+			int[] a = ints(n, 0, r), b = a.clone();
+			long[] l = new long[n];
+			Integer[] o = new Integer[n];
+			for(int i = 0; i < n; i++){
+				l[i] = a[i];
+				o[i] = a[i];
+			}
+			HeapSort.heapify(a);
+			HeapSort.parallelHeapify(b);
+			HeapSort.parallelHeapify(l);
+			HeapSort.parallelHeapify(o);
+			for(int i = 1; i < n; i++){
+				int parent = (i - 1) / 2;
+				assertTrue("Element " + i + " is smaller than its parent.", a[parent] <= a[i]);
+				assertTrue("Element " + i + " is smaller than its parent.", b[parent] <= b[i]);
+				assertTrue("Element " + i + " is smaller than its parent.", l[parent] <= l[i]);
+				assertTrue("Element " + i + " is smaller than its parent.", o[parent] <= o[i]);
+			}
+			int[] sortedA = a.clone(), sortedB = b.clone();
+			Arrays.sort(sortedA);
+			Arrays.sort(sortedB);
+			assertArrayEquals("Heapifying should only move elements around.", sortedA, sortedB);
+		}
+	}
+}
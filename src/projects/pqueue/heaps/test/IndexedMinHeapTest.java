@@ -0,0 +1,138 @@
+package projects.pqueue.heaps.test;
+
+import org.junit.Test;
+import projects.pqueue.InvalidCapacityException;
+import projects.pqueue.heaps.EmptyHeapException;
+import projects.pqueue.heaps.IndexedMinHeap;
+import projects.pqueue.heaps.IndexedMinHeap.Handle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>A testing framework for {@link IndexedMinHeap}.</p>
+ *
+ * @see ArrayMinHeapTest
+ */
+public class IndexedMinHeapTest {
+
+	@Test
+	public void testDecreaseAndIncreaseKey() throws EmptyHeapException {
+		IndexedMinHeap<Integer> heap = new IndexedMinHeap<Integer>();
+		Handle<Integer> ten = heap.insertWithHandle(10), twenty = heap.insertWithHandle(20);
+		heap.insert(15);
+		heap.decreaseKey(twenty, 5);
+		assertEquals(Integer.valueOf(5), heap.getMin());
+		assertEquals(Integer.valueOf(5), twenty.getElement());
+		heap.increaseKey(twenty, 30);
+		heap.increaseKey(ten, 12);
+		assertEquals(Integer.valueOf(12), heap.deleteMin());
+		assertFalse(ten.isValid());
+		assertTrue(twenty.isValid());
+		assertEquals(Integer.valueOf(15), heap.deleteMin());
+		assertEquals(Integer.valueOf(30), heap.deleteMin());
+		assertFalse(twenty.isValid());
+	}
+
+	@Test
+	public void testReplaceMinInvalidatesTheOldMinimum() throws EmptyHeapException {
+		IndexedMinHeap<Integer> heap = new IndexedMinHeap<Integer>();
+		Handle<Integer> one = heap.insertWithHandle(1), two = heap.insertWithHandle(2);
+		assertEquals(Integer.valueOf(1), heap.replaceMin(3));
+		assertFalse(one.isValid());
+		heap.increaseKey(two, 4);
+		assertEquals(Integer.valueOf(3), heap.deleteMin());
+		assertEquals(Integer.valueOf(4), heap.deleteMin());
+	}
+
+	@Test
+	public void testBatchOperationsKeepHandles() throws EmptyHeapException {
+		IndexedMinHeap<Integer> heap = new IndexedMinHeap<Integer>();
+		Handle<Integer> five = heap.insertWithHandle(5), one = heap.insertWithHandle(1);
+		heap.insertAll(Arrays.asList(4, 2, 3));
+		heap.decreaseKey(five, 0);
+		Integer[] out = new Integer[3];
+		assertEquals(3, heap.deleteMin(3, out));
+		assertArrayEquals(new Integer[]{0, 1, 2}, out);
+		assertFalse(five.isValid());
+		assertFalse(one.isValid());
+		assertEquals(2, heap.deleteMin(3, out));
+		assertEquals(Integer.valueOf(4), out[1]);
+		assertTrue(heap.isEmpty());
+	}
+
+	@Test
+	public void testInvalidUpdates(){
+		IndexedMinHeap<Integer> heap = new IndexedMinHeap<Integer>(), other = new IndexedMinHeap<Integer>();
+		Handle<Integer> h = heap.insertWithHandle(10), foreign = other.insertWithHandle(10);
+		try {
+			heap.decreaseKey(h, 11);
+			fail("decreaseKey() should not accept a larger element.");
+		} catch(IllegalArgumentException ignored){}
+		try {
+			heap.increaseKey(h, 9);
+			fail("increaseKey() should not accept a smaller element.");
+		} catch(IllegalArgumentException ignored){}
+		try {
+			heap.remove(foreign);
+			fail("A handle of another heap should be rejected.");
+		} catch(IllegalArgumentException ignored){}
+		assertEquals(Integer.valueOf(10), heap.remove(h));
+		try {
+			heap.remove(h);
+			fail("A removed handle should be rejected.");
+		} catch(IllegalArgumentException ignored){}
+		Handle<Integer> cleared = heap.insertWithHandle(3);
+		heap.clear();
+		assertFalse(cleared.isValid());
+		assertTrue(heap.isEmpty());
+	}
+
+	@Test
+	public void testRandomUpdatesAgainstSortedList() throws InvalidCapacityException, EmptyHeapException {
+		Random r = new Random(47);
+		for(int arity : new int[]{2, 4, 8}){
+			IndexedMinHeap<Integer> heap = new IndexedMinHeap<Integer>(arity, 1);
+			List<Handle<Integer>> live = new ArrayList<Handle<Integer>>();
+			for(int op = 0; op < 20000; op++){
+				int choice = r.nextInt(5);
+				if(live.isEmpty() || choice == 0){
+					live.add(heap.insertWithHandle(r.nextInt(10000)));
+				} else if(choice == 1){
+					Handle<Integer> h = live.get(r.nextInt(live.size()));
+					heap.decreaseKey(h, h.getElement() - r.nextInt(100));
+				} else if(choice == 2){
+					Handle<Integer> h = live.get(r.nextInt(live.size()));
+					heap.increaseKey(h, h.getElement() + r.nextInt(100));
+				} else if(choice == 3){
+					Handle<Integer> h = live.remove(r.nextInt(live.size()));
+					assertEquals(h.getElement(), heap.remove(h));
+				} else {
+					Integer min = heap.deleteMin();
+					Handle<Integer> removed = null;
+					for(Handle<Integer> h : live)
+						if(!h.isValid())
+							removed = h;
+					assertNotNull("deleteMin() should have invalidated one handle.", removed);
+					assertEquals(removed.getElement(), min);
+					live.remove(removed);
+					for(Handle<Integer> h : live)
+						assertTrue(h.getElement() >= min);
+				}
+				assertEquals(live.size(), heap.size());
+			}
+			List<Integer> expected = new ArrayList<Integer>();
+			for(Handle<Integer> h : live)
+				expected.add(h.getElement());
+			Collections.sort(expected);
+			for(Integer e : expected)
+				assertEquals(e, heap.deleteMin());
+			assertTrue(heap.isEmpty());
+		}
+	}
+}
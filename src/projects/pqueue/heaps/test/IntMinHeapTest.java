@@ -0,0 +1,68 @@
+package projects.pqueue.heaps.test;
+
+import org.junit.Test;
+import projects.pqueue.InvalidCapacityException;
+import projects.pqueue.heaps.EmptyHeapException;
+import projects.pqueue.heaps.IntMinHeap;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>A testing framework for {@link IntMinHeap}.</p>
+ *
+ * @see ArrayMinHeapTest
+ */
+public class IntMinHeapTest {
+
+	@Test
+	public void testEmpty(){
+		IntMinHeap<String> heap = new IntMinHeap<String>();
+		assertTrue(heap.isEmpty());
+		try {
+			heap.getMinPriority();
+			fail("getMinPriority() on an empty heap should throw an EmptyHeapException.");
+		} catch(EmptyHeapException ignored){}
+		try {
+			heap.deleteMin();
+			fail("deleteMin() on an empty heap should throw an EmptyHeapException.");
+		} catch(EmptyHeapException ignored){}
+	}
+
+	@Test
+	public void testValuesFollowTheirPriorities() throws InvalidCapacityException, EmptyHeapException {
+		Random r = new Random(47);
+		for(int arity : new int[]{2, 4, 8}){
+			IntMinHeap<String> heap = new IntMinHeap<String>(arity, 0);
+			java.util.PriorityQueue<Integer> reference = new java.util.PriorityQueue<Integer>();
+			for(int op = 0; op < 20000; op++){
+				if(reference.isEmpty() || r.nextInt(3) > 0){
+					int priority = r.nextInt(2000) - 1000; // Negative priorities are fine.
+					heap.insert(priority, "v" + priority);
+					reference.add(priority);
+				} else {
+					int expected = reference.poll();
+					assertEquals(expected, heap.getMinPriority());
+					assertEquals("v" + expected, heap.getMin());
+					assertEquals("v" + expected, heap.deleteMin());
+				}
+				assertEquals(reference.size(), heap.size());
+			}
+			heap.clear();
+			assertTrue(heap.isEmpty());
+		}
+	}
+
+	@Test
+	public void testInvalidArityAndCapacity() throws InvalidCapacityException {
+		try {
+			new IntMinHeap<Object>(0, 10);
+			fail("An arity of 0 should be rejected.");
+		} catch(IllegalArgumentException ignored){}
+		try {
+			new IntMinHeap<Object>(2, -5);
+			fail("A negative capacity should be rejected.");
+		} catch(InvalidCapacityException ignored){}
+	}
+}
@@ -0,0 +1,126 @@
+package projects.pqueue.heaps.test;
+
+import org.junit.Test;
+import projects.pqueue.heaps.ArrayMinHeap;
+import projects.pqueue.heaps.EmptyHeapException;
+import projects.pqueue.heaps.LinkedMinHeap;
+import projects.pqueue.heaps.MinHeap;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>A testing framework for {@link LinkedMinHeap}.</p>
+ *
+ * @see ArrayMinHeapTest
+ */
+public class LinkedMinHeapTest {
+
+	private static Integer[] randomInts(int n, long seed){
+		Random r = new Random(seed);
+		Integer[] ints = new Integer[n];
+		for(int i = 0; i < n; i++)
+			ints[i] = r.nextInt(n / 2 + 1);
+		return ints;
+	}
+
+	@Test
+	public void testEmpty(){
+		MinHeap<String> heap = new LinkedMinHeap<String>();
+		assertTrue(heap.isEmpty());
+		try {
+			heap.deleteMin();
+			fail("deleteMin() on an empty heap should throw an EmptyHeapException.");
+		} catch(EmptyHeapException ignored){}
+	}
+
+	@Test
+	public void testInterleavedOperations() throws EmptyHeapException {
+		Random r = new Random(420);
+		MinHeap<Integer> heap = new LinkedMinHeap<Integer>(500);
+		java.util.PriorityQueue<Integer> reference = new java.util.PriorityQueue<Integer>();
+		reference.add(500);
+		for(int op = 0; op < 20000; op++){
+			if(reference.isEmpty() || r.nextInt(3) > 0){
+				int x = r.nextInt(1000);
+				heap.insert(x);
+				reference.add(x);
+			} else {
+				assertEquals(reference.peek(), heap.getMin());
+				assertEquals(reference.poll(), heap.deleteMin());
+			}
+			assertEquals(reference.size(), heap.size());
+		}
+	}
+
+	@Test
+	public void testHeapifyConstructors() throws EmptyHeapException {
+		for(int n : new int[]{0, 1, 2, 3, 8, 1000}){
+			Integer[] ints = randomInts(n, n), sorted = ints.clone();
+			Arrays.sort(sorted);
+			MinHeap<Integer> fromArray = new LinkedMinHeap<Integer>(ints),
+					fromList = new LinkedMinHeap<Integer>(Arrays.asList(ints));
+			assertEquals(fromArray, fromList);
+			fromArray.insert(-1);
+			assertEquals(Integer.valueOf(-1), fromArray.deleteMin());
+			for(Integer expected : sorted){
+				assertEquals(expected, fromArray.deleteMin());
+				assertEquals(expected, fromList.deleteMin());
+			}
+			assertTrue(fromArray.isEmpty());
+			assertTrue(fromList.isEmpty());
+		}
+	}
+
+	@Test
+	public void testCopyConstructorAndIterator() throws EmptyHeapException {
+		Integer[] ints = randomInts(200, 7), sorted = ints.clone();
+		Arrays.sort(sorted);
+		MinHeap<Integer> array = new ArrayMinHeap<Integer>(ints);
+		LinkedMinHeap<Integer> linked = new LinkedMinHeap<Integer>(array), copy = new LinkedMinHeap<Integer>(linked);
+		assertEquals(linked, copy);
+		assertEquals(linked.hashCode(), new LinkedMinHeap<Integer>(new ArrayMinHeap<Integer>(sorted)).hashCode());
+		int index = 0;
+		for(Integer i : linked)
+			assertEquals(sorted[index++], i);
+		assertEquals(sorted.length, index);
+
+		copy.deleteMin();
+		assertNotEquals(linked, copy);
+		Iterator<Integer> it = linked.iterator();
+		linked.clear();
+		try {
+			it.next();
+			fail("The iterator should have detected the call to clear().");
+		} catch(ConcurrentModificationException ignored){}
+	}
+
+	@Test
+	public void testSortedIterator() throws EmptyHeapException {
+		assertFalse(new LinkedMinHeap<Integer>().sortedIterator().hasNext());
+		Integer[] ints = randomInts(500, 11), sorted = ints.clone();
+		Arrays.sort(sorted);
+		LinkedMinHeap<Integer> heap = new LinkedMinHeap<Integer>();
+		for(Integer i : ints)
+			heap.insert(i);
+		Iterator<Integer> it = heap.sortedIterator();
+		for(Integer i : sorted)
+			assertEquals(i, it.next());
+		assertFalse(it.hasNext());
+		assertEquals("The heap should be left untouched.", ints.length, heap.size());
+
+		it = heap.sortedIterator();
+		for(int i = 0; i < 3; i++)
+			assertEquals(sorted[i], it.next());
+		heap.insert(-1);
+		try {
+			it.next();
+			fail("The iterator should have detected the insertion.");
+		} catch(ConcurrentModificationException ignored){}
+		assertEquals(Integer.valueOf(-1), heap.sortedIterator().next());
+	}
+}
@@ -0,0 +1,87 @@
+package projects.pqueue.heaps.test;
+
+import org.junit.Test;
+import projects.pqueue.heaps.ArrayMinHeap;
+import projects.pqueue.heaps.EmptyHeapException;
+import projects.pqueue.heaps.MinHeap;
+import projects.pqueue.heaps.PagedArrayMinHeap;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>A testing framework for {@link PagedArrayMinHeap}.</p>
+ *
+ * @see ArrayMinHeapTest
+ */
+public class PagedArrayMinHeapTest {
+
+	@Test
+	public void testInterleavedOperationsForEveryPageHeight() throws EmptyHeapException {
+		Random r = new Random(420);
+		for(int pageHeight : new int[]{2, 3, 4, 6, 10}){
+			PagedArrayMinHeap<Integer> heap = new PagedArrayMinHeap<Integer>(pageHeight);
+			assertEquals(pageHeight, heap.getPageHeight());
+			java.util.PriorityQueue<Integer> reference = new java.util.PriorityQueue<Integer>();
+			for(int op = 0; op < 60000; op++){
+				if(reference.isEmpty() || r.nextInt(5) < 3){ // Grows over time, so that many pages get filled.
+					int x = r.nextInt(100000);
+					heap.insert(x);
+					reference.add(x);
+				} else {
+					assertEquals("Page height " + pageHeight, reference.peek(), heap.getMin());
+					assertEquals("Page height " + pageHeight, reference.poll(), heap.deleteMin());
+				}
+				assertEquals(reference.size(), heap.size());
+			}
+			while(!reference.isEmpty())
+				assertEquals(reference.poll(), heap.deleteMin());
+			assertTrue(heap.isEmpty());
+		}
+	}
+
+	@Test
+	public void testCopyConstructorEqualsAndIterator() throws EmptyHeapException {
+		MinHeap<Integer> standard = new ArrayMinHeap<Integer>();
+		PagedArrayMinHeap<Integer> paged = new PagedArrayMinHeap<Integer>(3);
+		Random r = new Random(1);
+		for(int i = 0; i < 500; i++){
+			int x = r.nextInt(50);
+			standard.insert(x);
+			paged.insert(x);
+		}
+		PagedArrayMinHeap<Integer> copy = new PagedArrayMinHeap<Integer>(paged);
+		assertEquals(3, copy.getPageHeight());
+		assertEquals(paged, copy);
+		assertEquals(paged.hashCode(), copy.hashCode());
+		assertEquals(paged, new PagedArrayMinHeap<Integer>(standard));
+		Iterator<Integer> expected = standard.iterator();
+		for(Integer x : paged)
+			assertEquals(expected.next(), x);
+
+		copy.deleteMin();
+		assertNotEquals(paged, copy);
+		Iterator<Integer> it = paged.iterator();
+		paged.clear();
+		assertTrue(paged.isEmpty());
+		try {
+			it.next();
+			fail("The iterator should have detected the call to clear().");
+		} catch(ConcurrentModificationException ignored){}
+	}
+
+	@Test
+	public void testInvalidPageHeight(){
+		try {
+			new PagedArrayMinHeap<Integer>(1);
+			fail("A page height of 1 should be rejected.");
+		} catch(IllegalArgumentException ignored){}
+		try {
+			new PagedArrayMinHeap<Integer>(21);
+			fail("A page height of 21 should be rejected.");
+		} catch(IllegalArgumentException ignored){}
+	}
+}
@@ -0,0 +1,146 @@
+package projects.pqueue.heaps.test;
+
+import org.junit.Test;
+import projects.pqueue.heaps.ArrayMinHeap;
+import projects.pqueue.heaps.EmptyHeapException;
+import projects.pqueue.heaps.MinHeap;
+import projects.pqueue.heaps.PairingHeap;
+import projects.pqueue.heaps.PairingHeap.Handle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>A testing framework for {@link PairingHeap}.</p>
+ *
+ * @see ArrayMinHeapTest
+ * @see IndexedMinHeapTest
+ */
+public class PairingHeapTest {
+
+	@Test
+	public void testInterleavedOperations() throws EmptyHeapException {
+		Random r = new Random(420);
+		MinHeap<Integer> heap = new PairingHeap<Integer>();
+		java.util.PriorityQueue<Integer> reference = new java.util.PriorityQueue<Integer>();
+		for(int op = 0; op < 20000; op++){
+			if(reference.isEmpty() || r.nextInt(3) > 0){
+				int x = r.nextInt(1000);
+				heap.insert(x);
+				reference.add(x);
+			} else {
+				assertEquals(reference.peek(), heap.getMin());
+				assertEquals(reference.poll(), heap.deleteMin());
+			}
+			assertEquals(reference.size(), heap.size());
+		}
+		try {
+			new PairingHeap<Integer>().deleteMin();
+			fail("deleteMin() on an empty heap should throw an EmptyHeapException.");
+		} catch(EmptyHeapException ignored){}
+	}
+
+	@Test
+	public void testMeld() throws EmptyHeapException {
+		PairingHeap<Integer> a = new PairingHeap<Integer>(), b = new PairingHeap<Integer>(), c = new PairingHeap<Integer>();
+		List<Integer> all = new ArrayList<Integer>();
+		Random r = new Random(1);
+		for(int i = 0; i < 300; i++){
+			int x = r.nextInt(100);
+			(i % 3 == 0 ? a : i % 3 == 1 ? b : c).insert(x);
+			all.add(x);
+		}
+		Handle<Integer> inB = b.insertWithHandle(500), inC = c.insertWithHandle(600);
+		all.add(500);
+		all.add(600);
+		b.meld(c);
+		a.meld(b);
+		assertTrue(b.isEmpty());
+		assertTrue(c.isEmpty());
+		assertEquals(all.size(), a.size());
+
+		// Handles follow their elements from heap to heap.
+		a.decreaseKey(inC, -1);
+		assertEquals(Integer.valueOf(-1), a.getMin());
+		assertEquals(Integer.valueOf(500), a.remove(inB));
+		all.remove(Integer.valueOf(500));
+		all.remove(Integer.valueOf(600));
+		all.add(-1);
+		try {
+			c.remove(inC);
+			fail("The handle now belongs to the heap it was melded into.");
+		} catch(IllegalArgumentException ignored){}
+
+		Collections.sort(all);
+		int index = 0;
+		for(Integer x : a)
+			assertEquals(all.get(index++), x);
+		for(Integer x : all)
+			assertEquals(x, a.deleteMin());
+
+		b.insert(7); // Emptied heaps are still usable.
+		assertEquals(Integer.valueOf(7), b.getMin());
+		try {
+			a.meld(a);
+			fail("A heap should not be melded with itself.");
+		} catch(IllegalArgumentException ignored){}
+	}
+
+	@Test
+	public void testRandomUpdatesAgainstSortedList() throws EmptyHeapException {
+		Random r = new Random(47);
+		PairingHeap<Integer> heap = new PairingHeap<Integer>();
+		List<Handle<Integer>> live = new ArrayList<Handle<Integer>>();
+		for(int op = 0; op < 20000; op++){
+			int choice = r.nextInt(4);
+			if(live.isEmpty() || choice == 0){
+				live.add(heap.insertWithHandle(r.nextInt(10000)));
+			} else if(choice == 1){
+				Handle<Integer> h = live.get(r.nextInt(live.size()));
+				heap.decreaseKey(h, h.getElement() - r.nextInt(100));
+			} else if(choice == 2){
+				Handle<Integer> h = live.remove(r.nextInt(live.size()));
+				assertEquals(h.getElement(), heap.remove(h));
+				assertFalse(h.isValid());
+			} else {
+				Integer min = heap.deleteMin();
+				for(Iterator<Handle<Integer>> it = live.iterator(); it.hasNext(); ){
+					Handle<Integer> h = it.next();
+					if(!h.isValid()){
+						assertEquals(h.getElement(), min);
+						it.remove();
+					} else {
+						assertTrue(h.getElement() >= min);
+					}
+				}
+			}
+			assertEquals(live.size(), heap.size());
+		}
+		heap.clear();
+		for(Handle<Integer> h : live)
+			assertFalse("clear() should invalidate every handle.", h.isValid());
+	}
+
+	@Test
+	public void testCopyConstructorEqualsAndIterator() throws EmptyHeapException {
+		MinHeap<Integer> array = new ArrayMinHeap<Integer>(new Integer[]{4, 1, 3, 1, 5, 9, 2, 6});
+		PairingHeap<Integer> heap = new PairingHeap<Integer>(array), copy = new PairingHeap<Integer>(heap);
+		assertEquals(heap, copy);
+		assertEquals(heap.hashCode(), copy.hashCode());
+		assertNotEquals(heap, array);
+		copy.deleteMin();
+		assertNotEquals(heap, copy);
+		Iterator<Integer> it = heap.iterator();
+		heap.insert(0);
+		try {
+			it.next();
+			fail("The iterator should have detected the insertion.");
+		} catch(ConcurrentModificationException ignored){}
+	}
+}
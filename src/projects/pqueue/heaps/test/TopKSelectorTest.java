@@ -0,0 +1,102 @@
+package projects.pqueue.heaps.test;
+
+import org.junit.Test;
+import projects.pqueue.heaps.EmptyHeapException;
+import projects.pqueue.heaps.TopKSelector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>A testing framework for {@link TopKSelector}.</p>
+ *
+ * @see ArrayMinHeapTest
+ */
+public class TopKSelectorTest {
+
+	private static List<Integer> expectedTop(List<Integer> stream, int k){
+		List<Integer> sorted = new ArrayList<Integer>(stream);
+		Collections.sort(sorted, Collections.<Integer>reverseOrder());
+		return new ArrayList<Integer>(sorted.subList(0, Math.min(k, sorted.size())));
+	}
+
+	@Test
+	public void testKeepsTheKLargest() throws EmptyHeapException {
+		Random r = new Random(47);
+		List<Integer> stream = new ArrayList<Integer>();
+		TopKSelector<Integer> selector = new TopKSelector<Integer>(10);
+		for(int i = 0; i < 5; i++){
+			int x = r.nextInt(1000);
+			stream.add(x);
+			assertTrue(selector.offer(x));
+		}
+		assertFalse(selector.isFull());
+		assertEquals(expectedTop(stream, 10), selector.getTopK());
+		for(int i = 0; i < 100000; i++){
+			int x = r.nextInt(1000000);
+			stream.add(x);
+			selector.offer(x);
+		}
+		assertTrue(selector.isFull());
+		List<Integer> expected = expectedTop(stream, 10);
+		assertEquals(expected, selector.getTopK());
+		assertEquals(expected.get(9), selector.getThreshold());
+		assertFalse("An element equal to the threshold should be rejected.", selector.offer(selector.getThreshold()));
+		assertEquals(10, selector.size());
+	}
+
+	@Test
+	public void testMergeOfPerThreadSelectors() throws InterruptedException {
+		final int threads = 4, k = 25;
+		final List<List<Integer>> streams = new ArrayList<List<Integer>>();
+		final List<TopKSelector<Integer>> selectors = new ArrayList<TopKSelector<Integer>>();
+		List<Integer> all = new ArrayList<Integer>();
+		Random r = new Random(1);
+		for(int t = 0; t < threads; t++){
+			List<Integer> stream = new ArrayList<Integer>();
+			for(int i = 0; i < 20000; i++)
+				stream.add(r.nextInt());
+			streams.add(stream);
+			all.addAll(stream);
+			selectors.add(new TopKSelector<Integer>(k));
+		}
+		List<Thread> workers = new ArrayList<Thread>();
+		for(int t = 0; t < threads; t++){
+			final int id = t;
+			workers.add(new Thread(){
+				@Override
+				public void run(){
+					for(Integer x : streams.get(id))
+						selectors.get(id).offer(x);
+				}
+			});
+		}
+		for(Thread w : workers)
+			w.start();
+		for(Thread w : workers)
+			w.join();
+		TopKSelector<Integer> merged = new TopKSelector<Integer>(k);
+		for(TopKSelector<Integer> s : selectors)
+			merged.merge(s);
+		assertEquals(expectedTop(all, k), merged.getTopK());
+		merged.merge(merged);
+		assertEquals(expectedTop(all, k), merged.getTopK());
+	}
+
+	@Test
+	public void testInvalidK(){
+		try {
+			new TopKSelector<String>(0);
+			fail("k = 0 should be rejected.");
+		} catch(IllegalArgumentException ignored){}
+		TopKSelector<String> selector = new TopKSelector<String>(1);
+		try {
+			selector.getThreshold();
+			fail("An empty selector has no threshold.");
+		} catch(EmptyHeapException ignored){}
+	}
+}
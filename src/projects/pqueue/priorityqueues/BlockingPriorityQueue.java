@@ -0,0 +1,214 @@
+package projects.pqueue.priorityqueues;
+
+import projects.pqueue.InvalidPriorityException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p><tt>BlockingPriorityQueue</tt> makes any {@link PriorityQueue} safe to share between threads, and adds the
+ * blocking operations of a producer/consumer pipeline: {@link #take()} waits for an element, {@link #poll(long,
+ * TimeUnit)} waits for one up to a timeout, and {@link #drainTo(Collection, int)} removes many elements at once.
+ * Every operation runs under a single {@link ReentrantLock}, and consumers wait on a {@link Condition} of that lock
+ * rather than on an object monitor, so that a waiting virtual thread can unmount from its carrier thread instead of
+ * pinning it. The queue is unbounded, so producers never wait.</p>
+ *
+ * <p>Elements come out in the order of the wrapped queue, which for every queue of this package but {@link MultiQueue}
+ * means by priority and in FIFO order among equal priorities. The wrapped queue should not be used directly once it
+ * has been wrapped. {@link #iterator()} works on a snapshot of the queue, and is not affected by later changes to
+ * it.</p>
+ *
+ * @param <T> The type held by the container.
+ *
+ * @see MinHeapPriorityQueue
+ * @see MultiQueue
+ */
+public class BlockingPriorityQueue<T> implements PriorityQueue<T> {
+
+	private final PriorityQueue<T> queue;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notEmpty = lock.newCondition();
+
+	/* Only called with the lock held and the queue not empty. */
+	private T removeFirst(){
+		try {
+			return queue.dequeue();
+		} catch(EmptyPriorityQueueException exc){ // Cannot happen while we hold the lock.
+			throw new IllegalStateException(exc);
+		}
+	}
+
+	/**
+	 * Creates a <tt>BlockingPriorityQueue</tt> backed by a {@link MinHeapPriorityQueue}.
+	 */
+	public BlockingPriorityQueue(){
+		this(new MinHeapPriorityQueue<T>());
+	}
+
+	/**
+	 * Creates a <tt>BlockingPriorityQueue</tt> backed by the provided queue, along with any elements it holds.
+	 *
+	 * @param queue The queue which holds the elements.
+	 * @throws IllegalArgumentException If <tt>queue</tt> is <tt>null</tt>.
+	 */
+	public BlockingPriorityQueue(PriorityQueue<T> queue){
+		if(queue == null)
+			throw new IllegalArgumentException("BlockingPriorityQueue needs a queue to wrap.");
+		this.queue = queue;
+	}
+
+	/**
+	 * {@inheritDoc} Wakes up a thread waiting in {@link #take()} or {@link #poll(long, TimeUnit)}, if there is one.
+	 */
+	@Override
+	public void enqueue(T element, int priority) throws InvalidPriorityException {
+		lock.lock();
+		try {
+			queue.enqueue(element, priority);
+			notEmpty.signal();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc} Does not wait for an element: see {@link #take()} for that.
+	 */
+	@Override
+	public T dequeue() throws EmptyPriorityQueueException {
+		lock.lock();
+		try {
+			if(queue.isEmpty())
+				throw new EmptyPriorityQueueException("dequeue(): priority queue is empty.");
+			return removeFirst();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns <b>and deletes</b> the top element of the queue, waiting for an element to be enqueued if the queue
+	 * is empty.
+	 *
+	 * @return The element at the top of the queue.
+	 * @throws InterruptedException If the thread is interrupted while waiting.
+	 */
+	public T take() throws InterruptedException {
+		lock.lockInterruptibly();
+		try {
+			while(queue.isEmpty())
+				notEmpty.await();
+			return removeFirst();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns <b>and deletes</b> the top element of the queue, waiting up to the provided time for an element to be
+	 * enqueued if the queue is empty.
+	 *
+	 * @param timeout How long to wait for an element, in units of <tt>unit</tt>.
+	 * @param unit The {@link TimeUnit} of <tt>timeout</tt>.
+	 * @return The element at the top of the queue, or <tt>null</tt> if the queue was still empty after the timeout.
+	 * @throws InterruptedException If the thread is interrupted while waiting.
+	 */
+	public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try {
+			while(queue.isEmpty()){
+				if(nanos <= 0)
+					return null;
+				nanos = notEmpty.awaitNanos(nanos);
+			}
+			return removeFirst();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes up to <tt>max</tt> elements from the top of the queue and adds them to <tt>sink</tt>, in the order
+	 * they would be dequeued, all under a single acquisition of the lock. Does not wait for elements.
+	 *
+	 * @param sink The {@link Collection} which the elements are added to.
+	 * @param max The largest number of elements to remove.
+	 * @return The number of elements removed, which is 0 if the queue is empty.
+	 * @throws IllegalArgumentException If <tt>max</tt> is negative.
+	 */
+	public int drainTo(Collection<? super T> sink, int max){
+		if(max < 0)
+			throw new IllegalArgumentException("drainTo(): max should not be negative, was " + max + ".");
+		lock.lock();
+		try {
+			int n = Math.min(max, queue.size());
+			for(int i = 0; i < n; i++)
+				sink.add(removeFirst());
+			return n;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public T getFirst() throws EmptyPriorityQueueException {
+		lock.lock();
+		try {
+			return queue.getFirst();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns an {@link Iterator} over a snapshot of the queue, in the order of the wrapped queue's own iterator.
+	 * The snapshot is taken under the lock, and the iterator is not affected by later changes to the queue.
+	 *
+	 * @return An {@link Iterator} over a snapshot of the queue.
+	 */
+	@Override
+	public Iterator<T> iterator(){
+		List<T> snapshot;
+		lock.lock();
+		try {
+			snapshot = new ArrayList<T>(queue.size());
+			for(T element : queue)
+				snapshot.add(element);
+		} finally {
+			lock.unlock();
+		}
+		return Collections.unmodifiableList(snapshot).iterator();
+	}
+
+	@Override
+	public int size(){
+		lock.lock();
+		try {
+			return queue.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean isEmpty(){
+		return size() == 0;
+	}
+
+	@Override
+	public void clear(){
+		lock.lock();
+		try {
+			queue.clear();
+		} finally {
+			lock.unlock();
+		}
+	}
+}
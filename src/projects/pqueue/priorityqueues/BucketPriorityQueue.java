@@ -0,0 +1,213 @@
+package projects.pqueue.priorityqueues;
+
+import projects.pqueue.InvalidPriorityException;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>A <tt>BucketPriorityQueue</tt> is a {@link PriorityQueue} for priorities within a small, fixed range, from 1 up
+ * to a maximum given at construction. Every priority level has a circular array of its own, which is created the
+ * first time an element of that priority is enqueued and keeps elements of equal priority in FIFO order. A bitmap with a bit per level tells which levels are not empty: the first element of the queue is in the
+ * level of the lowest bit set, which {@link Long#numberOfTrailingZeros(long)} finds with a single instruction per
+ * 64 levels.</p>
+ *
+ * <p>{@link #enqueue(Object, int)} therefore takes <i>O(1)</i> time, and {@link #dequeue()} and {@link #getFirst()}
+ * take <i>O(P / 64)</i> time for a maximum priority of <i>P</i>, which is a constant handful of word scans for
+ * the default range of 256 priorities, however many elements the queue holds.</p>
+ *
+ * @param <T> The type held by the container.
+ *
+ * @see MinHeapPriorityQueue
+ * @see RadixHeap
+ */
+@SuppressWarnings("unchecked")
+public class BucketPriorityQueue<T> implements PriorityQueue<T> {
+
+	private static final int DEFAULT_MAX_PRIORITY = 256, INITIAL_LEVEL_CAPACITY = 8;
+
+	/* A growable circular array of the elements of one priority, in FIFO order. The capacity is a power of 2, and the
+	 * slot of every dequeued element is cleared, so that the level does not keep it reachable. */
+	private static final class Level {
+		Object[] elements = new Object[INITIAL_LEVEL_CAPACITY];
+		int head, count;
+
+		void add(Object element){
+			if(count == elements.length){
+				Object[] newElements = new Object[2 * count];
+				System.arraycopy(elements, head, newElements, 0, count - head);
+				System.arraycopy(elements, 0, newElements, count - head, head);
+				elements = newElements;
+				head = 0;
+			}
+			elements[(head + count++) & (elements.length - 1)] = element;
+		}
+
+		Object first(){
+			return elements[head];
+		}
+
+		Object remove(){
+			Object first = elements[head];
+			elements[head] = null;
+			head = (head + 1) & (elements.length - 1);
+			count--;
+			return first;
+		}
+
+		/* Copies the elements to dest, from index at onwards, in FIFO order. */
+		void copyTo(Object[] dest, int at){
+			int tail = Math.min(count, elements.length - head);
+			System.arraycopy(elements, head, dest, at, tail);
+			System.arraycopy(elements, 0, dest, at + tail, count - tail);
+		}
+
+		void reset(){
+			Arrays.fill(elements, null);
+			head = count = 0;
+		}
+	}
+
+	private final Level[] levels; // levels[p - 1] holds the elements of priority p.
+	private final long[] nonEmpty; // Bit p - 1 is set if and only if levels[p - 1] holds elements.
+	private int size;
+	private int modificationCount; // Makes our iterators fail-fast.
+
+	/* Returns the index of the lowest non-empty level. The queue must not be empty. */
+	private int firstLevel(){
+		int word = 0;
+		while(nonEmpty[word] == 0)
+			word++;
+		return (word << 6) + Long.numberOfTrailingZeros(nonEmpty[word]);
+	}
+
+	/**
+	 * Creates a <tt>BucketPriorityQueue</tt> for priorities 1 through 256.
+	 */
+	public BucketPriorityQueue(){
+		this(DEFAULT_MAX_PRIORITY);
+	}
+
+	/**
+	 * Creates a <tt>BucketPriorityQueue</tt> for priorities 1 through <tt>maxPriority</tt>.
+	 *
+	 * @param maxPriority The largest priority which elements may be enqueued with.
+	 * @throws IllegalArgumentException If <tt>maxPriority</tt> is smaller than 1.
+	 */
+	public BucketPriorityQueue(int maxPriority){
+		if(maxPriority < 1)
+			throw new IllegalArgumentException("The maximum priority should be at least 1, was " + maxPriority + ".");
+		levels = new Level[maxPriority];
+		nonEmpty = new long[(maxPriority + 63) >>> 6];
+	}
+
+	/**
+	 * Returns the largest priority which elements may be enqueued with.
+	 * @return The maximum priority of this queue.
+	 */
+	public int getMaxPriority(){
+		return levels.length;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws InvalidPriorityException If <tt>priority</tt> is smaller than 1 or larger than {@link #getMaxPriority()}.
+	 */
+	@Override
+	public void enqueue(T element, int priority) throws InvalidPriorityException {
+		if(priority < 1 || priority > levels.length)
+			throw new InvalidPriorityException("enqueue(): priority should be between 1 and " + levels.length + ", was " + priority + ".");
+		int level = priority - 1;
+		if(levels[level] == null)
+			levels[level] = new Level();
+		levels[level].add(element);
+		nonEmpty[level >>> 6] |= 1L << level; // Shifts of a long only use the low 6 bits of the distance.
+		size++;
+		modificationCount++;
+	}
+
+	@Override
+	public T dequeue() throws EmptyPriorityQueueException {
+		if(isEmpty())
+			throw new EmptyPriorityQueueException("dequeue(): priority queue is empty.");
+		int level = firstLevel();
+		T element = (T)levels[level].remove();
+		if(levels[level].count == 0)
+			nonEmpty[level >>> 6] &= ~(1L << level);
+		size--;
+		modificationCount++;
+		return element;
+	}
+
+	@Override
+	public T getFirst() throws EmptyPriorityQueueException {
+		if(isEmpty())
+			throw new EmptyPriorityQueueException("getFirst(): priority queue is empty.");
+		return (T)levels[firstLevel()].first();
+	}
+
+	/**
+	 * Returns a fail-fast {@link Iterator} over the elements of the queue in the order they would be dequeued. The
+	 * iterator works on a snapshot of the queue, taken level by level when the iterator is created.
+	 *
+	 * @return A fail-fast {@link Iterator} over the elements of the queue, in dequeuing order.
+	 */
+	@Override
+	public Iterator<T> iterator(){
+		return new BucketIterator();
+	}
+
+	private final class BucketIterator implements Iterator<T> {
+
+		private final Object[] snapshot = new Object[size];
+		private final int expectedModificationCount = modificationCount;
+		private int current;
+
+		BucketIterator(){
+			int n = 0;
+			for(int word = 0; word < nonEmpty.length; word++)
+				for(long bits = nonEmpty[word]; bits != 0; bits &= bits - 1){
+					Level level = levels[(word << 6) + Long.numberOfTrailingZeros(bits)];
+					level.copyTo(snapshot, n);
+					n += level.count;
+				}
+		}
+
+		@Override
+		public boolean hasNext(){
+			return current < snapshot.length;
+		}
+
+		@Override
+		public T next() throws ConcurrentModificationException, NoSuchElementException {
+			if(modificationCount != expectedModificationCount)
+				throw new ConcurrentModificationException("next(): Queue was modified while traversing it through iterator.");
+			if(!hasNext())
+				throw new NoSuchElementException("next(): Iterator exhausted elements.");
+			return (T)snapshot[current++];
+		}
+	}
+
+	@Override
+	public int size(){
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	@Override
+	public void clear(){
+		for(int word = 0; word < nonEmpty.length; word++){
+			for(long bits = nonEmpty[word]; bits != 0; bits &= bits - 1)
+				levels[(word << 6) + Long.numberOfTrailingZeros(bits)].reset();
+			nonEmpty[word] = 0;
+		}
+		size = 0;
+		modificationCount++;
+	}
+}
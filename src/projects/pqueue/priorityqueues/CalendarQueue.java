@@ -0,0 +1,307 @@
+package projects.pqueue.priorityqueues;
+
+import projects.pqueue.InvalidPriorityException;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>A <tt>CalendarQueue</tt> is a {@link PriorityQueue} after R. Brown's <em>calendar queue</em>, meant for
+ * discrete-event simulations, where priorities are event times which are spread out but mostly increase. The queue is
+ * a circular array of buckets, the <em>days</em> of a <em>year</em>, each of which covers a range of priorities of
+ * the same <em>width</em>. An element of priority <i>p</i> goes into the bucket <i>(p / width) mod days</i>, in a
+ * linked list sorted by priority, after every element of equal priority. {@link #dequeue()} goes through the days in
+ * order, starting from the day of the last dequeued element, and takes the head of the first bucket whose head
+ * falls within the current year. Only when a whole year goes by without an element does it fall back to a direct
+ * search of the heads of all buckets.</p>
+ *
+ * <p>The number of days doubles whenever the queue holds more than two elements per day, and halves whenever it holds
+ * less than one element every two days. On every such resize, the width of a day is set anew, to three times the
+ * average gap between the priorities of the first few elements to be dequeued, after the largest gaps have been left
+ * out. Every day then holds a few elements and most of them are dequeued within a year, so that
+ * {@link #enqueue(Object, int)} and {@link #dequeue()} take <i>O(1)</i> expected time for the priority distributions
+ * found in simulations.</p>
+ *
+ * <p>Unlike a {@link RadixHeap}, the queue also accepts an element whose priority is higher (a smaller number) than
+ * that of the last dequeued element: the search for the next element simply starts from that element's day.</p>
+ *
+ * @param <T> The type held by the container.
+ *
+ * @see MinHeapPriorityQueue
+ * @see RadixHeap
+ */
+@SuppressWarnings("unchecked")
+public class CalendarQueue<T> implements PriorityQueue<T> {
+
+	private static final int MIN_DAYS = 2, WIDTH_SAMPLE = 25;
+
+	private static final class Node {
+		Object element;
+		int priority;
+		Node next;
+
+		Node(Object element, int priority){
+			this.element = element;
+			this.priority = priority;
+		}
+	}
+
+	private Node[] heads, tails; // The sorted list of every day.
+	private int mask; // The number of days minus one. The number of days is a power of 2.
+	private long width; // The range of priorities covered by a day.
+	private int day; // The day where the search for the first element starts.
+	private long top; // The end of the range of priorities of that day. No element has a priority below top - width.
+	private Node spare; // The node of the last dequeued element, reused by the next enqueue.
+	private int size;
+	private int modificationCount; // Makes our iterators fail-fast.
+
+	private int dayOf(long priority){
+		return (int)((priority / width) & mask);
+	}
+
+	/* Moves the search to the day of the given priority. */
+	private void startFrom(long priority){
+		day = dayOf(priority);
+		top = (priority / width + 1) * width;
+	}
+
+	private void reset(int days, long width){
+		heads = new Node[days];
+		tails = new Node[days];
+		mask = days - 1;
+		this.width = width;
+	}
+
+	/* Links the node after every node of its day with a priority not greater than its own. */
+	private void link(Node node){
+		int d = dayOf(node.priority);
+		node.next = null;
+		Node tail = tails[d];
+		if(tail == null)
+			heads[d] = tails[d] = node;
+		else if(tail.priority <= node.priority){
+			tail.next = node;
+			tails[d] = node;
+		} else if(heads[d].priority > node.priority){
+			node.next = heads[d];
+			heads[d] = node;
+		} else {
+			Node previous = heads[d];
+			while(previous.next.priority <= node.priority)
+				previous = previous.next;
+			node.next = previous.next;
+			previous.next = node;
+		}
+	}
+
+	/* Moves the search to the day holding the first element and returns that day. The queue must not be empty. */
+	private int firstDay(){
+		for(int i = 0; i <= mask; i++){
+			Node head = heads[day];
+			if(head != null && head.priority < top)
+				return day;
+			day = (day + 1) & mask;
+			top += width;
+		}
+		// A whole year without an element: look at the head of every day instead.
+		int min = Integer.MAX_VALUE;
+		for(Node head : heads)
+			if(head != null && head.priority < min)
+				min = head.priority;
+		startFrom(min);
+		return day;
+	}
+
+	/* Rebuilds the calendar with the given number of days and a new width, keeping every list sorted and stable. */
+	private void resize(int days){
+		long start = top - width, newWidth = estimateWidth();
+		Node[] oldHeads = heads;
+		reset(days, newWidth);
+		// Elements of equal priority share a day, so relinking each old day in order keeps them in FIFO order.
+		for(Node node : oldHeads)
+			while(node != null){
+				Node next = node.next;
+				link(node);
+				node = next;
+			}
+		startFrom(start);
+	}
+
+	/* Three times the average gap between the first few elements in dequeuing order, leaving out gaps larger than
+	 * twice the average. */
+	private long estimateWidth(){
+		int samples = Math.min(size, WIDTH_SAMPLE);
+		if(samples < 2)
+			return 1;
+		Cursor cursor = new Cursor();
+		long[] gaps = new long[samples - 1];
+		long previous = cursor.next().priority, total = 0;
+		for(int i = 0; i < gaps.length; i++){
+			long current = cursor.next().priority;
+			gaps[i] = current - previous;
+			total += gaps[i];
+			previous = current;
+		}
+		long kept = 0, count = 0;
+		for(long gap : gaps)
+			if(gap * gaps.length <= 2 * total){
+				kept += gap;
+				count++;
+			}
+		return count == 0 ? 1 : Math.max(1, 3 * kept / count);
+	}
+
+	/**
+	 * Simple default constructor.
+	 */
+	public CalendarQueue(){
+		reset(MIN_DAYS, 1);
+		startFrom(0);
+	}
+
+	/**
+	 * Returns the number of days, or buckets, of the calendar.
+	 * @return The number of buckets of the calendar.
+	 */
+	public int getBucketCount(){
+		return heads.length;
+	}
+
+	/**
+	 * Returns the width of a day, the range of priorities covered by a bucket.
+	 * @return The range of priorities covered by a bucket.
+	 */
+	public long getBucketWidth(){
+		return width;
+	}
+
+	@Override
+	public void enqueue(T element, int priority) throws InvalidPriorityException {
+		if(priority < 1)
+			throw new InvalidPriorityException("enqueue(): priority should be at least 1, was " + priority + ".");
+		if(priority < top - width)
+			startFrom(priority);
+		Node node = spare;
+		if(node == null)
+			node = new Node(element, priority);
+		else {
+			spare = null;
+			node.element = element;
+			node.priority = priority;
+		}
+		link(node);
+		size++;
+		modificationCount++;
+		if(size > 2 * heads.length)
+			resize(2 * heads.length);
+	}
+
+	@Override
+	public T dequeue() throws EmptyPriorityQueueException {
+		if(isEmpty())
+			throw new EmptyPriorityQueueException("dequeue(): priority queue is empty.");
+		int d = firstDay();
+		Node first = heads[d];
+		heads[d] = first.next;
+		if(first.next == null)
+			tails[d] = null;
+		T element = (T)first.element;
+		first.element = null;
+		first.next = null;
+		spare = first;
+		size--;
+		modificationCount++;
+		if(heads.length > MIN_DAYS && 2 * size < heads.length)
+			resize(heads.length / 2);
+		return element;
+	}
+
+	@Override
+	public T getFirst() throws EmptyPriorityQueueException {
+		if(isEmpty())
+			throw new EmptyPriorityQueueException("getFirst(): priority queue is empty.");
+		return (T)heads[firstDay()].element;
+	}
+
+	/**
+	 * Returns a fail-fast {@link Iterator} over the elements of the queue in the order they would be dequeued. The
+	 * iterator goes through the calendar lazily, the same way {@link #dequeue()} does, but without unlinking
+	 * anything.
+	 *
+	 * @return A fail-fast {@link Iterator} over the elements of the queue, in dequeuing order.
+	 */
+	@Override
+	public Iterator<T> iterator(){
+		return new Iterator<T>() {
+
+			private final Cursor cursor = new Cursor();
+			private final int expectedModificationCount = modificationCount;
+			private int remaining = size;
+
+			@Override
+			public boolean hasNext(){
+				return remaining > 0;
+			}
+
+			@Override
+			public T next() throws ConcurrentModificationException, NoSuchElementException {
+				if(modificationCount != expectedModificationCount)
+					throw new ConcurrentModificationException("next(): Queue was modified while traversing it through iterator.");
+				if(!hasNext())
+					throw new NoSuchElementException("next(): Iterator exhausted elements.");
+				remaining--;
+				return (T)cursor.next().element;
+			}
+		};
+	}
+
+	/* Walks the calendar in dequeuing order, keeping the next unvisited node of every day. */
+	private final class Cursor {
+
+		private final Node[] next = heads.clone();
+		private int cursorDay = day;
+		private long cursorTop = top;
+
+		/* Returns the next node. There must be one left. */
+		Node next(){
+			for(int i = 0; i <= mask; i++){
+				Node node = next[cursorDay];
+				if(node != null && node.priority < cursorTop){
+					next[cursorDay] = node.next;
+					return node;
+				}
+				cursorDay = (cursorDay + 1) & mask;
+				cursorTop += width;
+			}
+			int min = 0;
+			for(int d = 0; d < next.length; d++)
+				if(next[d] != null && (next[min] == null || next[d].priority < next[min].priority))
+					min = d;
+			Node node = next[min];
+			next[min] = node.next;
+			cursorDay = min;
+			cursorTop = (node.priority / width + 1) * width;
+			return node;
+		}
+	}
+
+	@Override
+	public int size(){
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	@Override
+	public void clear(){
+		reset(MIN_DAYS, 1);
+		startFrom(0);
+		spare = null;
+		size = 0;
+		modificationCount++;
+	}
+}
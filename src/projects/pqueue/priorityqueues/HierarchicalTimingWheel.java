@@ -0,0 +1,307 @@
+package projects.pqueue.priorityqueues;
+
+import java.util.function.Consumer;
+
+/**
+ * <p>A <tt>HierarchicalTimingWheel</tt> schedules timeouts, after G. Varghese and T. Lauck's <em>hierarchical timing
+ * wheels</em>. Time is counted in whole <em>ticks</em>, and only moves forward through {@link #advance(long)}, which
+ * hands the element of every timeout that comes due to an action given at construction. The wheel is made for
+ * timeouts which are scheduled in great numbers and mostly cancelled before they fire, such as those of network
+ * requests: {@link #schedule(Object, long)} and {@link #cancel(Timeout)} both take <i>O(1)</i> time, and a cancelled
+ * timeout leaves nothing behind, unlike one which is only marked as cancelled in a {@link MinHeapPriorityQueue}.</p>
+ *
+ * <p>The wheel has eight levels of 256 slots each, one level per byte of a tick count. A timeout goes into the level
+ * of the highest byte in which its deadline differs from the current tick, in the slot given by that byte of its
+ * deadline, so that level 0 holds the timeouts of the next 256 ticks at most, one tick per slot. Every slot is an
+ * intrusive, doubly-linked list of {@link Timeout}s. Whenever the current tick reaches a multiple of 256<sup>l</sup>,
+ * the slot of level <i>l</i> which the tick has just entered is emptied into the levels below it. A timeout is thus
+ * moved at most seven times, and far fewer in practice, since most timeouts are cancelled long before their slot
+ * comes up. A bitmap of non-empty slots lets {@link #advance(long)} skip over every tick which would only enter
+ * empty slots, so that a batch of ticks costs time in proportion to the slots it actually visits.</p>
+ *
+ * <p>The action runs on the thread which calls {@link #advance(long)}, and may schedule and cancel timeouts, but not
+ * advance the wheel itself. Like the queues of this package, the wheel is not safe to share between threads.</p>
+ *
+ * @param <T> The type held by the container.
+ *
+ * @see CalendarQueue
+ * @see MinHeapPriorityQueue
+ */
+public class HierarchicalTimingWheel<T> {
+
+	private static final int LEVELS = 8, SLOT_BITS = 8, SLOTS = 1 << SLOT_BITS, SLOT_MASK = SLOTS - 1;
+
+	/**
+	 * A timeout scheduled on a {@link HierarchicalTimingWheel}, which can be used to cancel it.
+	 *
+	 * @param <T> The type held by the wheel.
+	 */
+	public static final class Timeout<T> {
+
+		private final HierarchicalTimingWheel<T> owner;
+		private final T element;
+		private final long deadline;
+		private int slot = -1; // The index in heads of the slot holding this timeout, or -1 once it fired or was cancelled.
+		private Timeout<T> previous, next;
+
+		private Timeout(HierarchicalTimingWheel<T> owner, T element, long deadline){
+			this.owner = owner;
+			this.element = element;
+			this.deadline = deadline;
+		}
+
+		/**
+		 * Returns the element of this timeout.
+		 * @return The element which is handed to the action of the wheel when this timeout fires.
+		 */
+		public T getElement(){
+			return element;
+		}
+
+		/**
+		 * Returns the tick at which this timeout fires.
+		 * @return The deadline of this timeout, in ticks.
+		 */
+		public long getDeadline(){
+			return deadline;
+		}
+
+		/**
+		 * Queries the timeout for whether it is still waiting to fire.
+		 * @return <tt>true</tt> if this timeout has neither fired nor been cancelled, <tt>false</tt> otherwise.
+		 */
+		public boolean isPending(){
+			return slot >= 0;
+		}
+	}
+
+	private final Consumer<? super T> action;
+	private final Timeout<T>[] heads, tails; // heads[level * SLOTS + s] is the first timeout of slot s of the level.
+	private final long[] occupied; // Bit i is set if and only if heads[i] is not null.
+	private long now;
+	private int size;
+	private boolean advancing;
+
+	/* The index in heads of the slot where a timeout with the given deadline belongs. The deadline must not be earlier
+	 * than the current tick; a deadline equal to it goes into the slot of level 0 which is about to fire. */
+	private int slotOf(long deadline){
+		int level = (63 - Long.numberOfLeadingZeros(deadline ^ now)) / SLOT_BITS;
+		return level * SLOTS + (int)((deadline >>> (level * SLOT_BITS)) & SLOT_MASK);
+	}
+
+	/* Appends the timeout to the slot, so that timeouts of equal deadline fire in the order they were scheduled. */
+	private void link(Timeout<T> timeout, int slot){
+		Timeout<T> tail = tails[slot];
+		timeout.slot = slot;
+		timeout.previous = tail;
+		timeout.next = null;
+		if(tail != null)
+			tail.next = timeout;
+		else {
+			heads[slot] = timeout;
+			occupied[slot >>> 6] |= 1L << slot;
+		}
+		tails[slot] = timeout;
+	}
+
+	private void unlink(Timeout<T> timeout){
+		int slot = timeout.slot;
+		if(timeout.previous != null)
+			timeout.previous.next = timeout.next;
+		else if((heads[slot] = timeout.next) == null)
+			occupied[slot >>> 6] &= ~(1L << slot);
+		if(timeout.next != null)
+			timeout.next.previous = timeout.previous;
+		else
+			tails[slot] = timeout.previous;
+		timeout.previous = timeout.next = null;
+		timeout.slot = -1;
+	}
+
+	/* Takes every timeout out of the slot and returns them as a list linked through next. */
+	private Timeout<T> detach(int slot){
+		Timeout<T> head = heads[slot];
+		heads[slot] = tails[slot] = null;
+		occupied[slot >>> 6] &= ~(1L << slot);
+		return head;
+	}
+
+	/* The first occupied slot of the level from the given slot on, or SLOTS if there is none. */
+	private int nextOccupied(int level, int from){
+		for(int word = from >>> 6; word < SLOTS / 64; word++){
+			long bits = occupied[level * (SLOTS / 64) + word];
+			if(word == from >>> 6)
+				bits &= -1L << from;
+			if(bits != 0)
+				return (word << 6) + Long.numberOfTrailingZeros(bits);
+		}
+		return SLOTS;
+	}
+
+	/* The next tick at which the current tick enters an occupied slot, of any level, or target if that comes first.
+	 * Every occupied slot of a level lies ahead of the current tick's slot in that level, and an occupied slot of a
+	 * lower level is always entered before one of a higher level. */
+	private long nextStop(long target){
+		for(int level = 0; level < LEVELS; level++){
+			int shift = level * SLOT_BITS, current = (int)((now >>> shift) & SLOT_MASK);
+			int next = current == SLOT_MASK ? SLOTS : nextOccupied(level, current + 1);
+			if(next < SLOTS)
+				return Math.min(target, ((now >>> shift) - current + next) << shift);
+		}
+		return target;
+	}
+
+	/* Called once the current tick has moved to a multiple of 256: empties the slots of the higher levels which the
+	 * tick has just entered into the lower levels, from the highest level down. */
+	private void cascade(){
+		int top = 1;
+		while(top < LEVELS - 1 && (now & ((1L << ((top + 1) * SLOT_BITS)) - 1)) == 0)
+			top++;
+		for(int level = top; level >= 1; level--){
+			Timeout<T> timeout = detach(level * SLOTS + (int)((now >>> (level * SLOT_BITS)) & SLOT_MASK));
+			while(timeout != null){
+				Timeout<T> next = timeout.next;
+				link(timeout, slotOf(timeout.deadline));
+				timeout = next;
+			}
+		}
+	}
+
+	/* Fires every timeout of the level 0 slot of the current tick and returns how many fired. */
+	private int fire(){
+		int slot = (int)(now & SLOT_MASK), fired = 0;
+		// The action can only schedule timeouts for later ticks, which never go into this slot.
+		while(heads[slot] != null){
+			Timeout<T> timeout = heads[slot];
+			unlink(timeout);
+			size--;
+			fired++;
+			action.accept(timeout.element);
+		}
+		return fired;
+	}
+
+	/**
+	 * Creates a <tt>HierarchicalTimingWheel</tt> at tick 0.
+	 *
+	 * @param action The action which receives the element of every timeout that fires.
+	 * @throws IllegalArgumentException If <tt>action</tt> is <tt>null</tt>.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public HierarchicalTimingWheel(Consumer<? super T> action){
+		if(action == null)
+			throw new IllegalArgumentException("HierarchicalTimingWheel needs an action for the timeouts that fire.");
+		this.action = action;
+		heads = new Timeout[LEVELS * SLOTS];
+		tails = new Timeout[LEVELS * SLOTS];
+		occupied = new long[LEVELS * SLOTS / 64];
+	}
+
+	/**
+	 * Returns the current tick, the number of ticks the wheel has been advanced by.
+	 * @return The current tick of the wheel.
+	 */
+	public long getCurrentTick(){
+		return now;
+	}
+
+	/**
+	 * Schedules a timeout which fires <tt>delay</tt> ticks from now, in <i>O(1)</i> time.
+	 *
+	 * @param element The element to hand to the action of the wheel when the timeout fires.
+	 * @param delay The number of ticks from the current tick until the timeout fires.
+	 * @return A {@link Timeout} which can be passed to {@link #cancel(Timeout)}.
+	 * @throws IllegalArgumentException If <tt>delay</tt> is smaller than 1, or so large that the deadline would not fit
+	 * in a <tt>long</tt>.
+	 */
+	public Timeout<T> schedule(T element, long delay){
+		if(delay < 1 || delay > Long.MAX_VALUE - now)
+			throw new IllegalArgumentException("schedule(): delay should be between 1 and " + (Long.MAX_VALUE - now)
+					+ " ticks, was " + delay + ".");
+		Timeout<T> timeout = new Timeout<T>(this, element, now + delay);
+		link(timeout, slotOf(timeout.deadline));
+		size++;
+		return timeout;
+	}
+
+	/**
+	 * Cancels a timeout, in <i>O(1)</i> time. Its element is never handed to the action of the wheel.
+	 *
+	 * @param timeout A {@link Timeout} of this wheel.
+	 * @return <tt>true</tt> if the timeout was cancelled, <tt>false</tt> if it had already fired or been cancelled.
+	 * @throws IllegalArgumentException If the timeout was scheduled on another wheel.
+	 */
+	public boolean cancel(Timeout<T> timeout){
+		if(timeout.owner != this)
+			throw new IllegalArgumentException("cancel(): Timeout was not scheduled on this wheel.");
+		if(!timeout.isPending())
+			return false;
+		unlink(timeout);
+		size--;
+		return true;
+	}
+
+	/**
+	 * Moves the wheel forward by the given number of ticks, firing every timeout whose deadline is passed on the way,
+	 * in order of deadline, and in the order they were scheduled among equal deadlines. Ticks which enter no occupied
+	 * slot are skipped rather than visited one at a time, so that an empty wheel moves forward in a single step.
+	 *
+	 * @param ticks The number of ticks to move forward by.
+	 * @return The number of timeouts which fired.
+	 * @throws IllegalArgumentException If <tt>ticks</tt> is negative, or would move the wheel past
+	 * <tt>Long.MAX_VALUE</tt>.
+	 * @throws IllegalStateException If called from the action of the wheel.
+	 */
+	public int advance(long ticks){
+		if(ticks < 0 || ticks > Long.MAX_VALUE - now)
+			throw new IllegalArgumentException("advance(): ticks should be between 0 and " + (Long.MAX_VALUE - now)
+					+ ", was " + ticks + ".");
+		if(advancing)
+			throw new IllegalStateException("advance(): The wheel cannot be advanced from its own action.");
+		advancing = true;
+		int fired = 0;
+		try {
+			long target = now + ticks;
+			while(now < target){
+				// Ticks which enter no occupied slot neither cascade nor fire anything, so they are skipped.
+				now = nextStop(target);
+				if((now & SLOT_MASK) == 0)
+					cascade();
+				fired += fire();
+			}
+		} finally {
+			advancing = false;
+		}
+		return fired;
+	}
+
+	/**
+	 * Returns the number of timeouts which have neither fired nor been cancelled.
+	 * @return The number of pending timeouts.
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * Queries the wheel for pending timeouts.
+	 * @return <tt>true</tt> if no timeout is pending, <tt>false</tt> otherwise.
+	 */
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	/**
+	 * Cancels every pending timeout. The current tick stays where it is.
+	 */
+	public void clear(){
+		for(int slot = 0; slot < heads.length; slot++)
+			for(Timeout<T> timeout = detach(slot); timeout != null; ){
+				Timeout<T> next = timeout.next;
+				timeout.previous = timeout.next = null;
+				timeout.slot = -1;
+				timeout = next;
+			}
+		size = 0;
+	}
+}
@@ -10,6 +10,8 @@ package projects.pqueue.priorityqueues; // ******* <---  DO NOT ERASE THIS LINE!
  ** ********************************************************************************** */
 
 import projects.pqueue.InvalidPriorityException;
+import projects.pqueue.heaps.ArrayMinHeap;
+import projects.pqueue.heaps.EmptyHeapException;
 import projects.pqueue.heaps.MinHeap;
 
 import java.util.Iterator;
@@ -17,6 +19,10 @@ import java.util.Iterator;
 /**
  * <p><tt>MinHeapPriorityQueue</tt> is a {@link PriorityQueue} implemented using a {@link MinHeap}.</p>
  *
+ * <p>Every element is stored in an {@link ArrayMinHeap} together with its priority and a sequence number which grows
+ * with every insertion. Entries are ordered by priority first and by sequence number second, so that elements of
+ * equal priority come out in the order they were enqueued.</p>
+ *
  * <p>You  <b>must</b> implement the methods in this file! To receive <b>any credit</b> for the unit tests related to this class, your implementation <b>must</b>
  * use <b>whichever</b> {@link MinHeap} implementation among the two that you should have implemented you choose!</p>
  *
@@ -25,19 +31,19 @@ import java.util.Iterator;
  * @param <T> The Type held by the container.
  *
  * @see LinearPriorityQueue
+ * @see PackedMinHeapPriorityQueue
  * @see MinHeap
  */
 public class MinHeapPriorityQueue<T> implements PriorityQueue<T>{ // *** <-- DO NOT CHANGE THIS LINE!!! ***
 
-	private static final RuntimeException UNIMPL_METHOD = new RuntimeException("Implement this method!");
-
 	/* *********************************************
 	 * PLACE YOUR PRIVATE AND PROTECTED FIELDS HERE!
 	 * YOU MIGHT ALSO WANT TO PUT PRIVATE METHODS AND/OR CLASSES HERE!
 	 * THE DESIGN CHOICE IS YOURS ENTIRELY.
 	 * ******************************************** */
 
-
+	private final MinHeap<PriorityQueueEntry<T>> heap;
+	private long sequence; // The sequence number of the next element to be enqueued.
 
 	/* ***********************************************************************************
 	 * YOU SHOULD IMPLEMENT THE FOLLOWING METHODS. BESIDES THE INTERFACE METHODS,
@@ -54,43 +60,65 @@ public class MinHeapPriorityQueue<T> implements PriorityQueue<T>{ // *** <-- DO
 	 * Simple default constructor.
 	 */
 	public MinHeapPriorityQueue(){
-		/* FILL THIS IN WITH YOUR IMPLEMENTATION OF A DEFAULT CONSTRUCTOR, IF ANY. */
+		heap = new ArrayMinHeap<PriorityQueueEntry<T>>();
+		sequence = 0;
 	}
 
 	@Override
 	public void enqueue(T element, int priority) throws InvalidPriorityException{
-			throw UNIMPL_METHOD; /* ERASE THIS LINE AFTER IMPLEMENTING THE METHOD. */
+		if(priority < 1)
+			throw new InvalidPriorityException("enqueue(): priority should be at least 1, was " + priority + ".");
+		heap.insert(new PriorityQueueEntry<T>(element, priority, sequence++));
 	}
 
 
 	@Override
 	public T dequeue() throws EmptyPriorityQueueException {
-		throw UNIMPL_METHOD; /* ERASE THIS LINE AFTER IMPLEMENTING THE METHOD. */
+		try {
+			return heap.deleteMin().element;
+		} catch(EmptyHeapException exc){
+			throw new EmptyPriorityQueueException("dequeue(): priority queue is empty.");
+		}
 	}
 
 	@Override
 	public T getFirst() throws EmptyPriorityQueueException {
-		throw UNIMPL_METHOD; /* ERASE THIS LINE AFTER IMPLEMENTING THE METHOD. */
+		try {
+			return heap.getMin().element;
+		} catch(EmptyHeapException exc){
+			throw new EmptyPriorityQueueException("getFirst(): priority queue is empty.");
+		}
 	}
 
 	@Override
 	public Iterator<T> iterator() {
-		throw UNIMPL_METHOD; /* ERASE THIS LINE AFTER IMPLEMENTING THE METHOD. */
+		final Iterator<PriorityQueueEntry<T>> entries = heap.iterator(); // Ascending and fail-fast.
+		return new Iterator<T>(){
+			@Override
+			public boolean hasNext(){
+				return entries.hasNext();
+			}
+
+			@Override
+			public T next(){
+				return entries.next().element;
+			}
+		};
 	}
 
 	@Override
 	public int size() {
-		throw UNIMPL_METHOD; /* ERASE THIS LINE AFTER IMPLEMENTING THE METHOD. */
+		return heap.size();
 	}
 
 	@Override
 	public boolean isEmpty() {
-		throw UNIMPL_METHOD; /* ERASE THIS LINE AFTER IMPLEMENTING THE METHOD. */
+		return heap.isEmpty();
 	}
 
 	@Override
 	public void clear() {
-		throw UNIMPL_METHOD; /* ERASE THIS LINE AFTER IMPLEMENTING THE METHOD. */
+		heap.clear();
 	}
 	
 
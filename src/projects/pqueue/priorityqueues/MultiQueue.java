@@ -0,0 +1,238 @@
+package projects.pqueue.priorityqueues;
+
+import projects.pqueue.InvalidPriorityException;
+import projects.pqueue.heaps.ArrayMinHeap;
+import projects.pqueue.heaps.EmptyHeapException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p><tt>MultiQueue</tt> is a <em>relaxed</em> {@link PriorityQueue} which many threads can use at the same time.
+ * Instead of a single heap behind a single lock, which every thread has to wait for, it keeps <i>c&middot;P</i>
+ * sequential {@link ArrayMinHeap}s for <i>P</i> threads, each with its own lock:</p>
+ * <ul>
+ *     <li>{@link #enqueue(Object, int)} inserts into a random heap.</li>
+ *     <li>{@link #dequeue()} looks at the minima of two random heaps and removes the better one.</li>
+ * </ul>
+ * <p>Locks are only ever <em>tried</em>: a thread that finds a heap locked simply picks other heaps, so threads
+ * never wait for each other. The price is that {@link #dequeue()} does not always return the very first element of
+ * the queue, but one which, on average, only has a few times <i>c&middot;P</i> elements ahead of it. Likewise,
+ * elements of equal priority are <b>not</b> guaranteed to come out in FIFO order. This is a good deal for a
+ * scheduler, which needs high-priority work to be done soon rather than strictly first.</p>
+ *
+ * <p>The queue has no shared counter that every operation writes to: each heap numbers its own entries, to keep
+ * elements of equal priority in FIFO order within the heap, and counts its own elements under its own lock. A thread
+ * that enqueues or dequeues thus only ever writes to the one heap it has locked.</p>
+ *
+ * <p>{@link #size()}, {@link #getFirst()} and {@link #iterator()} look at every heap, and are meant for monitoring
+ * rather than for the fast path. The iterator works on a snapshot of the queue, in priority order, and is not affected by later
+ * changes to the queue.</p>
+ *
+ * @param <T> The type held by the container.
+ *
+ * @see MinHeapPriorityQueue
+ */
+public class MultiQueue<T> implements PriorityQueue<T> {
+
+	private static final int DEFAULT_HEAPS_PER_THREAD = 2;
+
+	/* A heap along with its lock. The minimum and the size are cached in volatile fields, so that dequeue() can pick
+	 * the better of two heaps, and size() add up the heaps, without locking any of them. */
+	private static final class LockedHeap<T> {
+		final ReentrantLock lock = new ReentrantLock();
+		final ArrayMinHeap<PriorityQueueEntry<T>> heap = new ArrayMinHeap<PriorityQueueEntry<T>>();
+		volatile PriorityQueueEntry<T> min;
+		volatile int size; // Only written with the lock held.
+		long sequence; // Breaks ties within this heap. Only used with the lock held.
+
+		/* Only called with the lock held. */
+		void updateMin(){
+			try {
+				min = heap.isEmpty() ? null : heap.getMin();
+			} catch(EmptyHeapException exc){ // Cannot happen while we hold the lock.
+				throw new IllegalStateException(exc);
+			}
+		}
+	}
+
+	private final LockedHeap<T>[] heaps;
+
+	/**
+	 * Creates a <tt>MultiQueue</tt> for the provided number of threads, with two heaps per thread.
+	 *
+	 * @param threads The number of threads expected to use the queue at the same time.
+	 * @throws IllegalArgumentException If <tt>threads</tt> is smaller than 1.
+	 */
+	public MultiQueue(int threads){
+		this(threads, DEFAULT_HEAPS_PER_THREAD);
+	}
+
+	/**
+	 * Creates a <tt>MultiQueue</tt> with <tt>heapsPerThread &middot; threads</tt> heaps. More heaps per thread mean
+	 * less contention, but a larger distance from the true minimum.
+	 *
+	 * @param threads The number of threads expected to use the queue at the same time.
+	 * @param heapsPerThread The number of heaps per thread, known as <i>c</i>.
+	 * @throws IllegalArgumentException If either argument is smaller than 1.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public MultiQueue(int threads, int heapsPerThread){
+		if(threads < 1 || heapsPerThread < 1)
+			throw new IllegalArgumentException("MultiQueue needs at least one thread and one heap per thread.");
+		heaps = new LockedHeap[threads * heapsPerThread];
+		for(int i = 0; i < heaps.length; i++)
+			heaps[i] = new LockedHeap<T>();
+	}
+
+	/**
+	 * Returns the number of sequential heaps that make up this queue.
+	 * @return The number of heaps of the queue.
+	 */
+	public int getNumberOfHeaps(){
+		return heaps.length;
+	}
+
+	@Override
+	public void enqueue(T element, int priority) throws InvalidPriorityException{
+		if(priority < 1)
+			throw new InvalidPriorityException("enqueue(): priority should be at least 1, was " + priority + ".");
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		while(true){
+			LockedHeap<T> h = heaps[random.nextInt(heaps.length)];
+			if(h.lock.tryLock()){
+				try {
+					PriorityQueueEntry<T> entry = new PriorityQueueEntry<T>(element, priority, h.sequence++);
+					h.heap.insert(entry);
+					if(h.min == null || entry.compareTo(h.min) < 0)
+						h.min = entry;
+					h.size++;
+				} finally {
+					h.lock.unlock();
+				}
+				return;
+			}
+		}
+	}
+
+	/* Tries to remove the minimum of the given heap, returning null if it is locked or empty. */
+	private T tryDeleteMin(LockedHeap<T> h){
+		if(!h.lock.tryLock())
+			return null;
+		try {
+			if(h.heap.isEmpty())
+				return null;
+			T element = h.heap.deleteMin().element;
+			h.updateMin();
+			h.size--;
+			return element;
+		} catch(EmptyHeapException exc){ // Cannot happen while we hold the lock.
+			throw new IllegalStateException(exc);
+		} finally {
+			h.lock.unlock();
+		}
+	}
+
+	@Override
+	public T dequeue() throws EmptyPriorityQueueException {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		while(true){
+			LockedHeap<T> a = heaps[random.nextInt(heaps.length)], b = heaps[random.nextInt(heaps.length)];
+			PriorityQueueEntry<T> minA = a.min, minB = b.min;
+			if(minA == null && minB == null){
+				// Both empty: the queue may be nearly empty, so fall back to scanning for any element at all.
+				if(size() == 0)
+					throw new EmptyPriorityQueueException("dequeue(): priority queue is empty.");
+				for(LockedHeap<T> h : heaps)
+					if(h.min != null){
+						T element = tryDeleteMin(h);
+						if(element != null)
+							return element;
+					}
+				continue;
+			}
+			LockedHeap<T> best = (minB == null || (minA != null && minA.compareTo(minB) <= 0)) ? a : b;
+			T element = tryDeleteMin(best);
+			if(element != null)
+				return element;
+		}
+	}
+
+	@Override
+	public T getFirst() throws EmptyPriorityQueueException {
+		PriorityQueueEntry<T> first = null;
+		for(LockedHeap<T> h : heaps){
+			PriorityQueueEntry<T> min = h.min;
+			if(min != null && (first == null || min.compareTo(first) < 0))
+				first = min;
+		}
+		if(first == null)
+			throw new EmptyPriorityQueueException("getFirst(): priority queue is empty.");
+		return first.element;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		ArrayList<PriorityQueueEntry<T>> entries = new ArrayList<PriorityQueueEntry<T>>(size());
+		lockAll();
+		try {
+			for(LockedHeap<T> h : heaps)
+				for(PriorityQueueEntry<T> entry : h.heap)
+					entries.add(entry);
+		} finally {
+			unlockAll();
+		}
+		Collections.sort(entries);
+		ArrayList<T> elements = new ArrayList<T>(entries.size());
+		for(PriorityQueueEntry<T> entry : entries)
+			elements.add(entry.element);
+		return Collections.unmodifiableList(elements).iterator();
+	}
+
+	/* Heaps are always locked in the same order, so that two threads locking all of them cannot deadlock. */
+	private void lockAll(){
+		for(LockedHeap<T> h : heaps)
+			h.lock.lock();
+	}
+
+	private void unlockAll(){
+		for(LockedHeap<T> h : heaps)
+			h.lock.unlock();
+	}
+
+	/**
+	 * Returns the number of elements in the queue, the sum of the sizes of the heaps. Under concurrent use, this is
+	 * only an estimate, since the heaps are not all read at the same moment.
+	 *
+	 * @return The number of elements in the queue.
+	 */
+	@Override
+	public int size() {
+		int total = 0;
+		for(LockedHeap<T> h : heaps)
+			total += h.size;
+		return total;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public void clear() {
+		lockAll();
+		try {
+			for(LockedHeap<T> h : heaps){
+				h.heap.clear();
+				h.min = null;
+				h.size = 0;
+			}
+		} finally {
+			unlockAll();
+		}
+	}
+}
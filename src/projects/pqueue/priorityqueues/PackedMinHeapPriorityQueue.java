@@ -0,0 +1,251 @@
+package projects.pqueue.priorityqueues;
+
+import projects.pqueue.InvalidPriorityException;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>A <tt>PackedMinHeapPriorityQueue</tt> is a {@link PriorityQueue} which orders its elements exactly like
+ * {@link MinHeapPriorityQueue}, by priority first and in FIFO order among equal priorities, but without wrapping
+ * them in entry objects. The priority of every element and a sequence number which grows with every insertion are
+ * packed into a single <tt>long</tt> key, the priority in the upper 32 bits and the sequence number in the lower 32.
+ * Comparing two keys is then a single primitive comparison, which already breaks ties in FIFO order.</p>
+ *
+ * <p>The keys are kept in a 4-ary min-heap in a <tt>long[]</tt>, and the elements in a parallel <tt>Object[]</tt>.
+ * An enqueued element costs no allocation besides the occasional growth of the arrays, and 12 bytes of memory with
+ * compressed references, against 36 for an entry object and its reference in the array of a heap.</p>
+ *
+ * <p>Sequence numbers run out after 2<sup>32</sup> insertions. At that point, the queue renumbers the elements it
+ * holds, from 0 up, in the order they would be dequeued, which keeps their relative order and frees up every other
+ * sequence number.</p>
+ *
+ * @param <T> The type held by the container.
+ *
+ * @see MinHeapPriorityQueue
+ */
+@SuppressWarnings("unchecked")
+public class PackedMinHeapPriorityQueue<T> implements PriorityQueue<T> {
+
+	private static final int ARITY = 4, DEFAULT_CAPACITY = 16;
+	private static final long SEQUENCE_LIMIT = 1L << 32;
+
+	private long[] keys;
+	private Object[] elements;
+	private int size;
+	private long sequence; // The sequence number of the next element to be enqueued.
+	private int modificationCount; // Makes our iterators fail-fast.
+
+	private static long key(int priority, long sequence){
+		return ((long)priority << 32) | sequence;
+	}
+
+	private void siftUp(int i, long key, Object element){
+		while(i > 0){
+			int parent = (i - 1) / ARITY;
+			if(keys[parent] <= key)
+				break;
+			keys[i] = keys[parent];
+			elements[i] = elements[parent];
+			i = parent;
+		}
+		keys[i] = key;
+		elements[i] = element;
+	}
+
+	private void siftDown(int i, long key, Object element){
+		while(true){
+			int first = ARITY * i + 1;
+			if(first >= size)
+				break;
+			int last = Math.min(first + ARITY, size), min = first;
+			long minKey = keys[first];
+			for(int c = first + 1; c < last; c++)
+				if(keys[c] < minKey){
+					min = c;
+					minKey = keys[c];
+				}
+			if(minKey >= key)
+				break;
+			keys[i] = minKey;
+			elements[i] = elements[min];
+			i = min;
+		}
+		keys[i] = key;
+		elements[i] = element;
+	}
+
+	/* Renumbers the elements from 0 up in dequeuing order. The new arrays are filled in ascending order of keys,
+	 * which is a valid heap. */
+	private void renumber(){
+		long[] newKeys = new long[keys.length];
+		Object[] newElements = new Object[elements.length];
+		int n = size;
+		for(int i = 0; i < n; i++){
+			newKeys[i] = key((int)(keys[0] >>> 32), i);
+			newElements[i] = elements[0];
+			removeFirst();
+		}
+		keys = newKeys;
+		elements = newElements;
+		size = n;
+		sequence = n;
+	}
+
+	private Object removeFirst(){
+		Object first = elements[0];
+		long lastKey = keys[--size];
+		Object last = elements[size];
+		elements[size] = null;
+		if(size > 0)
+			siftDown(0, lastKey, last);
+		return first;
+	}
+
+	/**
+	 * Simple default constructor.
+	 */
+	public PackedMinHeapPriorityQueue(){
+		keys = new long[DEFAULT_CAPACITY];
+		elements = new Object[DEFAULT_CAPACITY];
+		size = 0;
+		sequence = 0;
+	}
+
+	/**
+	 * Creates an empty queue whose first element gets the sequence number <tt>firstSequence</tt> rather than 0, so
+	 * that subclasses and tests can reach the renumbering of the elements without 2<sup>32</sup> insertions.
+	 *
+	 * @param firstSequence The sequence number of the first element enqueued.
+	 * @throws IllegalArgumentException If <tt>firstSequence</tt> is negative or larger than 2<sup>32</sup>.
+	 */
+	protected PackedMinHeapPriorityQueue(long firstSequence){
+		this();
+		if(firstSequence < 0 || firstSequence > SEQUENCE_LIMIT)
+			throw new IllegalArgumentException("Invalid first sequence number provided: " + firstSequence + ".");
+		sequence = firstSequence;
+	}
+
+	@Override
+	public void enqueue(T element, int priority) throws InvalidPriorityException {
+		if(priority < 1)
+			throw new InvalidPriorityException("enqueue(): priority should be at least 1, was " + priority + ".");
+		if(sequence == SEQUENCE_LIMIT)
+			renumber();
+		if(size == keys.length){
+			keys = Arrays.copyOf(keys, 2 * size);
+			elements = Arrays.copyOf(elements, 2 * size);
+		}
+		siftUp(size++, key(priority, sequence++), element);
+		modificationCount++;
+	}
+
+	@Override
+	public T dequeue() throws EmptyPriorityQueueException {
+		if(isEmpty())
+			throw new EmptyPriorityQueueException("dequeue(): priority queue is empty.");
+		modificationCount++;
+		return (T)removeFirst();
+	}
+
+	@Override
+	public T getFirst() throws EmptyPriorityQueueException {
+		if(isEmpty())
+			throw new EmptyPriorityQueueException("getFirst(): priority queue is empty.");
+		return (T)elements[0];
+	}
+
+	/**
+	 * Returns a fail-fast {@link Iterator} over the elements of the queue in the order they would be dequeued. The
+	 * iterator walks the heap lazily, keeping the indices which may come next in a small binary heap of its own.
+	 *
+	 * @return A fail-fast {@link Iterator} over the elements of the queue, in dequeuing order.
+	 */
+	@Override
+	public Iterator<T> iterator(){
+		return new PackedIterator();
+	}
+
+	/* Best-first search from the root: the children of every index returned become candidates. */
+	private final class PackedIterator implements Iterator<T> {
+
+		private int[] frontier = new int[DEFAULT_CAPACITY];
+		private int count;
+		private final int expectedModificationCount = modificationCount;
+
+		PackedIterator(){
+			if(size > 0)
+				push(0);
+		}
+
+		private void push(int index){
+			if(count == frontier.length)
+				frontier = Arrays.copyOf(frontier, 2 * count);
+			long key = keys[index];
+			int i = count++;
+			while(i > 0){
+				int parent = (i - 1) >>> 1;
+				if(keys[frontier[parent]] <= key)
+					break;
+				frontier[i] = frontier[parent];
+				i = parent;
+			}
+			frontier[i] = index;
+		}
+
+		private int pop(){
+			int top = frontier[0], moved = frontier[--count], i = 0;
+			long key = keys[moved];
+			while(true){
+				int child = 2 * i + 1;
+				if(child >= count)
+					break;
+				if(child + 1 < count && keys[frontier[child + 1]] < keys[frontier[child]])
+					child++;
+				if(keys[frontier[child]] >= key)
+					break;
+				frontier[i] = frontier[child];
+				i = child;
+			}
+			frontier[i] = moved;
+			return top;
+		}
+
+		@Override
+		public boolean hasNext(){
+			return count > 0;
+		}
+
+		@Override
+		public T next() throws ConcurrentModificationException, NoSuchElementException {
+			if(modificationCount != expectedModificationCount)
+				throw new ConcurrentModificationException("next(): Queue was modified while traversing it through iterator.");
+			if(!hasNext())
+				throw new NoSuchElementException("next(): Iterator exhausted elements.");
+			int index = pop();
+			for(int c = ARITY * index + 1, last = Math.min(c + ARITY, size); c < last; c++)
+				push(c);
+			return (T)elements[index];
+		}
+	}
+
+	@Override
+	public int size(){
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	@Override
+	public void clear(){
+		Arrays.fill(elements, 0, size, null);
+		size = 0;
+		sequence = 0;
+		modificationCount++;
+	}
+}
@@ -0,0 +1,31 @@
+package projects.pqueue.priorityqueues;
+
+/**
+ * <p>An element of a heap-based {@link PriorityQueue}, along with its priority and a sequence number. Entries are
+ * ordered by priority first and by sequence number second, so that a {@link projects.pqueue.heaps.MinHeap} of
+ * entries whose sequence numbers grow with every insertion hands out elements of equal priority in FIFO order.</p>
+ *
+ * @param <T> The type of the element.
+ *
+ * @see MinHeapPriorityQueue
+ * @see MultiQueue
+ */
+final class PriorityQueueEntry<T> implements Comparable<PriorityQueueEntry<T>> {
+
+	final T element;
+	final int priority;
+	final long sequence;
+
+	PriorityQueueEntry(T element, int priority, long sequence){
+		this.element = element;
+		this.priority = priority;
+		this.sequence = sequence;
+	}
+
+	@Override
+	public int compareTo(PriorityQueueEntry<T> other){
+		if(priority != other.priority)
+			return Integer.compare(priority, other.priority);
+		return Long.compare(sequence, other.sequence);
+	}
+}
@@ -0,0 +1,225 @@
+package projects.pqueue.priorityqueues;
+
+import projects.pqueue.InvalidPriorityException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p><tt>RadixHeap</tt> is a {@link PriorityQueue} for <em>monotone</em> workloads, where no element is ever enqueued
+ * with a higher priority (a smaller number) than the last element dequeued. Event loops ordered by simulation time
+ * and Dijkstra's algorithm are typical examples. Priorities are never compared against each other: instead, every
+ * element goes into one of 33 buckets, according to the highest bit in which its priority differs from that of the
+ * last dequeued element. Bucket 0 holds the elements with exactly that priority, and bucket <i>i</i> the elements
+ * whose priorities differ from it in bit <i>i-1</i> and no higher bit.</p>
+ *
+ * <p>When bucket 0 runs out, the first non-empty bucket is emptied into the buckets below it, relative to its
+ * smallest priority. Every element can only move to lower buckets, so it is moved at most 32 times over its lifetime:
+ * {@link #enqueue(Object, int)} takes constant time and {@link #dequeue()} <i>O(log C)</i> amortized time, where
+ * <i>C</i> is the range of priorities. Moving elements keeps them in their order within a bucket, so elements of equal
+ * priority still come out in FIFO order.</p>
+ *
+ * @param <T> The type held by the container.
+ *
+ * @see MinHeapPriorityQueue
+ */
+public class RadixHeap<T> implements PriorityQueue<T> {
+
+	private static final int BUCKETS = 33, INITIAL_BUCKET_CAPACITY = 8;
+
+	/* A growable pair of parallel arrays. Only bucket 0 is ever dequeued from, at its head. */
+	private static final class Bucket {
+		int[] priorities = new int[INITIAL_BUCKET_CAPACITY];
+		Object[] elements = new Object[INITIAL_BUCKET_CAPACITY];
+		int head, size;
+
+		void add(int priority, Object element){
+			if(size == priorities.length){
+				int[] newPriorities = new int[2 * size];
+				Object[] newElements = new Object[2 * size];
+				System.arraycopy(priorities, head, newPriorities, 0, size - head);
+				System.arraycopy(elements, head, newElements, 0, size - head);
+				priorities = newPriorities;
+				elements = newElements;
+				size -= head;
+				head = 0;
+			}
+			priorities[size] = priority;
+			elements[size++] = element;
+		}
+
+		boolean isEmpty(){
+			return head == size;
+		}
+
+		void reset(){
+			Arrays.fill(elements, head, size, null);
+			head = size = 0;
+		}
+	}
+
+	private final Bucket[] buckets = new Bucket[BUCKETS];
+	private int last; // The priority of the last dequeued element.
+	private int size;
+	private int modificationCount; // Makes our iterators fail-fast.
+
+	private int bucketOf(int priority){
+		return (priority == last) ? 0 : 32 - Integer.numberOfLeadingZeros(priority ^ last);
+	}
+
+	private void add(int priority, Object element){
+		int b = bucketOf(priority);
+		if(buckets[b] == null)
+			buckets[b] = new Bucket();
+		buckets[b].add(priority, element);
+	}
+
+	/* The index of the first non-empty bucket above bucket 0. Only called on a non-empty heap. */
+	private int firstNonEmptyBucket(){
+		int b = 1;
+		while(buckets[b] == null || buckets[b].isEmpty())
+			b++;
+		return b;
+	}
+
+	/* The position of the first element with the smallest priority in the given bucket. */
+	private static int positionOfMin(Bucket bucket){
+		int min = bucket.head;
+		for(int i = bucket.head + 1; i < bucket.size; i++)
+			if(bucket.priorities[i] < bucket.priorities[min])
+				min = i;
+		return min;
+	}
+
+	/**
+	 * Default constructor.
+	 */
+	public RadixHeap(){
+		last = 0;
+		size = 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws InvalidPriorityException If the priority is less than 1, or smaller than the priority of the last
+	 * dequeued element.
+	 */
+	@Override
+	public void enqueue(T element, int priority) throws InvalidPriorityException{
+		if(priority < 1)
+			throw new InvalidPriorityException("enqueue(): priority should be at least 1, was " + priority + ".");
+		if(priority < last)
+			throw new InvalidPriorityException("enqueue(): priority " + priority +
+					" is smaller than that of the last dequeued element, " + last + ".");
+		add(priority, element);
+		size++;
+		modificationCount++;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T dequeue() throws EmptyPriorityQueueException {
+		if(isEmpty())
+			throw new EmptyPriorityQueueException("dequeue(): priority queue is empty.");
+		Bucket zero = buckets[0];
+		if(zero == null || zero.isEmpty()){
+			Bucket full = buckets[firstNonEmptyBucket()];
+			last = full.priorities[positionOfMin(full)];
+			for(int i = full.head; i < full.size; i++)
+				add(full.priorities[i], full.elements[i]); // Every element lands in a lower bucket.
+			full.reset();
+			zero = buckets[0];
+		}
+		T element = (T)zero.elements[zero.head];
+		zero.elements[zero.head++] = null;
+		if(zero.isEmpty())
+			zero.reset();
+		size--;
+		modificationCount++;
+		return element;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T getFirst() throws EmptyPriorityQueueException {
+		if(isEmpty())
+			throw new EmptyPriorityQueueException("getFirst(): priority queue is empty.");
+		Bucket zero = buckets[0];
+		if(zero != null && !zero.isEmpty())
+			return (T)zero.elements[zero.head];
+		Bucket full = buckets[firstNonEmptyBucket()]; // Not redistributed: later enqueues may still go below its minimum.
+		return (T)full.elements[positionOfMin(full)];
+	}
+
+	/**
+	 * Returns the priority of the last dequeued element. No element with a smaller priority can be enqueued.
+	 * @return The priority of the last dequeued element, or 0 if no element has been dequeued since the heap was
+	 * created or cleared.
+	 */
+	public int getLastPriority(){
+		return last;
+	}
+
+	/**
+	 * Returns a fail-fast {@link Iterator} over the elements of the heap, in the order in which they would be
+	 * dequeued. Creating it takes <i>O(n log n)</i> time.
+	 * @return An {@link Iterator} over the elements of the heap.
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		final ArrayList<PriorityQueueEntry<T>> entries = new ArrayList<PriorityQueueEntry<T>>(size);
+		for(Bucket bucket : buckets) // Elements of equal priority share a bucket, in FIFO order.
+			if(bucket != null)
+				for(int i = bucket.head; i < bucket.size; i++){
+					@SuppressWarnings("unchecked") T element = (T)bucket.elements[i];
+					entries.add(new PriorityQueueEntry<T>(element, bucket.priorities[i], entries.size()));
+				}
+		Collections.sort(entries);
+		final int expectedModificationCount = modificationCount;
+		return new Iterator<T>(){
+			private int current = 0;
+
+			@Override
+			public boolean hasNext(){
+				return current < entries.size();
+			}
+
+			@Override
+			public T next(){
+				if(modificationCount != expectedModificationCount)
+					throw new ConcurrentModificationException("next(): Heap was modified while traversing it through iterator.");
+				if(!hasNext())
+					throw new NoSuchElementException("next(): Iterator exhausted elements.");
+				return entries.get(current++).element;
+			}
+		};
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Clears the heap of all its elements. Since nothing is left to compare with, any priority of at least 1 can be
+	 * enqueued afterwards.
+	 */
+	@Override
+	public void clear() {
+		for(Bucket bucket : buckets)
+			if(bucket != null)
+				bucket.reset();
+		last = 0;
+		size = 0;
+		modificationCount++;
+	}
+}
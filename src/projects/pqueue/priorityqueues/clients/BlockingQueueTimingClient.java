@@ -0,0 +1,177 @@
+package projects.pqueue.priorityqueues.clients;
+
+import projects.pqueue.InvalidPriorityException;
+import projects.pqueue.priorityqueues.BlockingPriorityQueue;
+import projects.pqueue.priorityqueues.EmptyPriorityQueueException;
+import projects.pqueue.priorityqueues.MinHeapPriorityQueue;
+import projects.pqueue.priorityqueues.PriorityQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** <b>BlockingQueueTimingClient</b> measures the throughput of a producer/consumer pipeline with thousands of
+ * producer and consumer tasks sharing a single queue. Every producer enqueues a number of elements of random priority,
+ * and every consumer removes as many. Three consumers are compared:
+ * <ul>
+ *     <li><b>monitor</b>: a {@link MinHeapPriorityQueue} behind <tt>synchronized</tt> methods, with consumers waiting
+ *     in {@link Object#wait()}, which is what we used to write by hand.</li>
+ *     <li><b>take</b>: a {@link BlockingPriorityQueue}, with consumers calling {@link BlockingPriorityQueue#take()}
+ *     for every element.</li>
+ *     <li><b>drain</b>: a {@link BlockingPriorityQueue}, with consumers calling
+ *     {@link BlockingPriorityQueue#drainTo(java.util.Collection, int)} for up to 64 elements at a time, and
+ *     {@link BlockingPriorityQueue#take()} only when the queue is empty.</li>
+ * </ul>
+ * Tasks run on virtual threads when the JDK has them (Java 21 and later), found through reflection so that the client
+ * still compiles for Java 8, and on one platform thread per task otherwise. The kind of thread is printed first. The
+ * last of a few repetitions is reported, so that the JIT has warmed up.
+ *
+ * <p>Arguments (all optional): number of producers (and of consumers), elements per producer.</p>
+ */
+public class BlockingQueueTimingClient {
+
+    private static final int REPETITIONS = 3, BATCH = 64;
+
+    /* The baseline: a queue guarded by its own monitor. */
+    private static final class MonitorPriorityQueue<T> {
+        private final PriorityQueue<T> queue = new MinHeapPriorityQueue<T>();
+
+        synchronized void enqueue(T element, int priority) throws InvalidPriorityException {
+            queue.enqueue(element, priority);
+            notify();
+        }
+
+        synchronized T take() throws InterruptedException, EmptyPriorityQueueException {
+            while(queue.isEmpty())
+                wait();
+            return queue.dequeue();
+        }
+    }
+
+    private interface Task {
+        void run() throws Exception;
+    }
+
+    /* Returns an executor running every task on a virtual thread of its own if there are any, or null. */
+    private static ExecutorService virtualThreadExecutor(){
+        try {
+            return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch(ReflectiveOperationException exc){
+            return null;
+        }
+    }
+
+    private static ExecutorService newExecutor(){
+        ExecutorService executor = virtualThreadExecutor();
+        return executor != null ? executor : Executors.newCachedThreadPool();
+    }
+
+    /* Runs the tasks at the same time and returns the time it took for all of them to finish. */
+    private static long runAll(List<Task> tasks) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1), done = new CountDownLatch(tasks.size());
+        final List<Exception> failures = new ArrayList<Exception>();
+        ExecutorService executor = newExecutor();
+        for(final Task task : tasks)
+            executor.execute(new Runnable(){
+                @Override
+                public void run(){
+                    try {
+                        start.await();
+                        task.run();
+                    } catch(Exception exc){
+                        synchronized(failures){
+                            failures.add(exc);
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            });
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long end = System.nanoTime();
+        executor.shutdown();
+        if(!failures.isEmpty())
+            throw failures.get(0);
+        return end - begin;
+    }
+
+    private static long monitor(int threads, final int perThread) throws Exception {
+        final MonitorPriorityQueue<Integer> queue = new MonitorPriorityQueue<Integer>();
+        List<Task> tasks = new ArrayList<Task>();
+        for(int t = 0; t < threads; t++){
+            tasks.add(new Task(){
+                @Override
+                public void run() throws Exception {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for(int i = 0; i < perThread; i++)
+                        queue.enqueue(i, 1 + random.nextInt(1 << 20));
+                }
+            });
+            tasks.add(new Task(){
+                @Override
+                public void run() throws Exception {
+                    for(int i = 0; i < perThread; i++)
+                        queue.take();
+                }
+            });
+        }
+        return runAll(tasks);
+    }
+
+    private static long blocking(int threads, final int perThread, final boolean drain) throws Exception {
+        final BlockingPriorityQueue<Integer> queue = new BlockingPriorityQueue<Integer>();
+        List<Task> tasks = new ArrayList<Task>();
+        for(int t = 0; t < threads; t++){
+            tasks.add(new Task(){
+                @Override
+                public void run() throws Exception {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for(int i = 0; i < perThread; i++)
+                        queue.enqueue(i, 1 + random.nextInt(1 << 20));
+                }
+            });
+            tasks.add(new Task(){
+                @Override
+                public void run() throws Exception {
+                    List<Integer> batch = new ArrayList<Integer>(BATCH);
+                    for(int remaining = perThread; remaining > 0; ){
+                        batch.clear();
+                        if(drain)
+                            queue.drainTo(batch, Math.min(remaining, BATCH));
+                        if(batch.isEmpty())
+                            batch.add(queue.take());
+                        remaining -= batch.size();
+                    }
+                }
+            });
+        }
+        return runAll(tasks);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        ExecutorService probe = virtualThreadExecutor();
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors() + ", running on "
+                + (probe != null ? "virtual" : "platform") + " threads.");
+        if(probe != null)
+            probe.shutdown();
+        long monitor = 0, take = 0, drain = 0;
+        for(int rep = 0; rep < REPETITIONS; rep++){
+            monitor = monitor(threads, perThread);
+            take = blocking(threads, perThread, false);
+            drain = blocking(threads, perThread, true);
+        }
+        long total = 2L * threads * perThread; // One enqueue and one removal per element.
+        System.out.println(threads + " producers and " + threads + " consumers, " + perThread + " elements each.");
+        System.out.println("Consumers\tThroughput (ops/ms)");
+        System.out.println("monitor\t\t" + total * 1000000 / monitor);
+        System.out.println("take\t\t" + total * 1000000 / take);
+        System.out.println("drain\t\t" + total * 1000000 / drain);
+    }
+}
@@ -0,0 +1,61 @@
+package projects.pqueue.priorityqueues.clients;
+
+import projects.pqueue.priorityqueues.BucketPriorityQueue;
+import projects.pqueue.priorityqueues.MinHeapPriorityQueue;
+import projects.pqueue.priorityqueues.PackedMinHeapPriorityQueue;
+import projects.pqueue.priorityqueues.PriorityQueue;
+
+import java.util.Random;
+
+/** <b>BucketQueueTimingClient</b> compares a {@link BucketPriorityQueue} with the heap-based
+ * {@link MinHeapPriorityQueue} and {@link PackedMinHeapPriorityQueue}, for priorities between 1 and 256. Each queue is
+ * filled with the same elements and then put through as many <b>hold</b> operations (a dequeue followed by an
+ * enqueue) before it is drained. The last of a few repetitions is reported, so that the JIT has warmed up.
+ *
+ * <p>Arguments (all optional): number of elements, number of distinct priorities (at most 256).</p>
+ */
+public class BucketQueueTimingClient {
+
+    private static final int REPETITIONS = 3;
+
+    /* Returns the time per enqueue, per hold operation and per dequeue. */
+    private static double[] run(PriorityQueue<Integer> queue, Integer[] elements, int[] priorities) throws Exception {
+        long start = System.nanoTime();
+        for(int i = 0; i < elements.length; i++)
+            queue.enqueue(elements[i], priorities[i]);
+        long filled = System.nanoTime();
+        for(int i = 0; i < elements.length; i++){
+            Integer element = queue.dequeue();
+            queue.enqueue(element, priorities[elements.length - 1 - i]);
+        }
+        long held = System.nanoTime();
+        while(!queue.isEmpty())
+            queue.dequeue();
+        long drained = System.nanoTime();
+        return new double[]{(double)(filled - start) / elements.length, (double)(held - filled) / elements.length,
+                (double)(drained - held) / elements.length};
+    }
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int distinct = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        Random r = new Random(48);
+        Integer[] elements = new Integer[n];
+        int[] priorities = new int[n];
+        for(int i = 0; i < n; i++){
+            elements[i] = i;
+            priorities[i] = 1 + r.nextInt(distinct);
+        }
+        double[] boxed = null, packed = null, bucket = null;
+        for(int rep = 0; rep < REPETITIONS; rep++){
+            boxed = run(new MinHeapPriorityQueue<Integer>(), elements, priorities);
+            packed = run(new PackedMinHeapPriorityQueue<Integer>(), elements, priorities);
+            bucket = run(new BucketPriorityQueue<Integer>(), elements, priorities);
+        }
+        System.out.println(n + " elements, " + distinct + " distinct priorities.");
+        System.out.println("Queue\t\t\t\tEnqueue (ns/op)\tHold (ns/op)\tDequeue (ns/op)");
+        System.out.printf("MinHeapPriorityQueue\t\t%.0f\t\t%.0f\t\t%.0f%n", boxed[0], boxed[1], boxed[2]);
+        System.out.printf("PackedMinHeapPriorityQueue\t%.0f\t\t%.0f\t\t%.0f%n", packed[0], packed[1], packed[2]);
+        System.out.printf("BucketPriorityQueue\t\t%.0f\t\t%.0f\t\t%.0f%n", bucket[0], bucket[1], bucket[2]);
+    }
+}
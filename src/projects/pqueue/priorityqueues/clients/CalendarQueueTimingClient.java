@@ -0,0 +1,60 @@
+package projects.pqueue.priorityqueues.clients;
+
+import projects.pqueue.priorityqueues.CalendarQueue;
+import projects.pqueue.priorityqueues.MinHeapPriorityQueue;
+import projects.pqueue.priorityqueues.PackedMinHeapPriorityQueue;
+import projects.pqueue.priorityqueues.PriorityQueue;
+
+import java.util.Random;
+
+/** <b>CalendarQueueTimingClient</b> runs the classic <b>hold</b> model of discrete-event simulation on a
+ * {@link CalendarQueue}, a {@link MinHeapPriorityQueue} and a {@link PackedMinHeapPriorityQueue}. Each queue is filled
+ * with events at random times, and every hold operation then dequeues the earliest event and schedules a new one at
+ * its time plus a random, exponentially distributed increment. The last of a few repetitions is reported, so that
+ * the JIT has warmed up.
+ *
+ * <p>Arguments (all optional): number of pending events, number of hold operations, mean increment.</p>
+ */
+public class CalendarQueueTimingClient {
+
+    private static final int REPETITIONS = 3;
+
+    /* Returns the time per hold operation. */
+    private static double run(PriorityQueue<Integer> queue, int events, int[] increments) throws Exception {
+        int[] times = new int[events]; // The time of every event, since the queue does not give it back.
+        for(int i = 0; i < events; i++){
+            times[i] = 1 + increments[i];
+            queue.enqueue(i, times[i]);
+        }
+        long start = System.nanoTime();
+        for(int i = 0; i < increments.length; i++){
+            Integer event = queue.dequeue();
+            times[event] += increments[i];
+            queue.enqueue(event, times[event]);
+        }
+        long end = System.nanoTime();
+        queue.clear();
+        return (double)(end - start) / increments.length;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int holds = args.length > 1 ? Integer.parseInt(args[1]) : 5000000;
+        int mean = args.length > 2 ? Integer.parseInt(args[2]) : 100000;
+        Random r = new Random(49);
+        int[] increments = new int[holds];
+        for(int i = 0; i < holds; i++)
+            increments[i] = (int)(-mean * Math.log(1 - r.nextDouble()));
+        double heap = 0, packed = 0, calendar = 0;
+        for(int rep = 0; rep < REPETITIONS; rep++){
+            heap = run(new MinHeapPriorityQueue<Integer>(), events, increments);
+            packed = run(new PackedMinHeapPriorityQueue<Integer>(), events, increments);
+            calendar = run(new CalendarQueue<Integer>(), events, increments);
+        }
+        System.out.println(events + " pending events, " + holds + " hold operations, mean increment " + mean + ".");
+        System.out.println("Queue\t\t\t\tHold (ns/op)");
+        System.out.printf("MinHeapPriorityQueue\t\t%.0f%n", heap);
+        System.out.printf("PackedMinHeapPriorityQueue\t%.0f%n", packed);
+        System.out.printf("CalendarQueue\t\t\t%.0f%n", calendar);
+    }
+}
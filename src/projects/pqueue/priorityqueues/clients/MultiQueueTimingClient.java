@@ -0,0 +1,181 @@
+package projects.pqueue.priorityqueues.clients;
+
+import projects.pqueue.InvalidPriorityException;
+import projects.pqueue.priorityqueues.EmptyPriorityQueueException;
+import projects.pqueue.priorityqueues.MinHeapPriorityQueue;
+import projects.pqueue.priorityqueues.MultiQueue;
+import projects.pqueue.priorityqueues.PriorityQueue;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/** <b>MultiQueueTimingClient</b> compares a {@link MultiQueue} with a {@link MinHeapPriorityQueue} behind a single
+ * lock, which is what a thread pool's scheduler would otherwise use. It measures:
+ * <ul>
+ *     <li><b>throughput</b>: for a growing number of threads, the number of operations per millisecond when every
+ *     thread alternates between enqueueing an element of random priority and dequeueing one, on a queue which
+ *     initially holds a large number of elements.</li>
+ *     <li><b>rank error</b>: how many elements were still in the queue with a higher priority than the one that
+ *     {@link MultiQueue#dequeue()} returned, averaged over dequeueing a queue of distinct priorities to the end,
+ *     with as many threads dequeueing at the same time as in the throughput run. Every dequeue is timestamped, and
+ *     ranks are counted afterwards in order of time with a Fenwick tree over the priorities. A thread which is
+ *     preempted between a dequeue and its timestamp puts that dequeue out of order, so the figures are only
+ *     approximate. The locked queue always has a rank error of 0.</li>
+ * </ul>
+ * Throughput only makes sense with as many cores as threads; the number of available processors is printed first.
+ *
+ * <p>Arguments (all optional): maximum number of threads, operations per thread, initial number of elements.</p>
+ */
+public class MultiQueueTimingClient {
+
+    private static final int REPETITIONS = 3;
+
+    /* The baseline: every operation takes the same lock. */
+    private static final class LockedPriorityQueue<T> implements PriorityQueue<T> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final PriorityQueue<T> queue = new MinHeapPriorityQueue<T>();
+
+        public void enqueue(T element, int priority) throws InvalidPriorityException {
+            lock.lock();
+            try { queue.enqueue(element, priority); } finally { lock.unlock(); }
+        }
+        public T dequeue() throws EmptyPriorityQueueException {
+            lock.lock();
+            try { return queue.dequeue(); } finally { lock.unlock(); }
+        }
+        public T getFirst() throws EmptyPriorityQueueException {
+            lock.lock();
+            try { return queue.getFirst(); } finally { lock.unlock(); }
+        }
+        public int size(){
+            lock.lock();
+            try { return queue.size(); } finally { lock.unlock(); }
+        }
+        public boolean isEmpty(){ return size() == 0; }
+        public void clear(){
+            lock.lock();
+            try { queue.clear(); } finally { lock.unlock(); }
+        }
+        public Iterator<T> iterator(){ throw new UnsupportedOperationException(); }
+        public String toString(){ return "Locked MinHeapPriorityQueue"; }
+    }
+
+    private static long run(final PriorityQueue<Integer> queue, int threads, final int operations, int initial)
+            throws Exception {
+        Random r = new Random(47);
+        for(int i = 0; i < initial; i++)
+            queue.enqueue(i, 1 + r.nextInt(1 << 20));
+        final CountDownLatch start = new CountDownLatch(1), done = new CountDownLatch(threads);
+        for(int t = 0; t < threads; t++)
+            new Thread(){
+                @Override
+                public void run(){
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    try {
+                        start.await();
+                        for(int i = 0; i < operations; i += 2){
+                            queue.enqueue(i, 1 + random.nextInt(1 << 20));
+                            queue.dequeue();
+                        }
+                    } catch(Exception exc){
+                        throw new IllegalStateException(exc);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }.start();
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - begin;
+    }
+
+    /* Has the given number of threads dequeue every element of a queue holding the priorities 1...n at the same time,
+     * returning the total and maximum rank error. Every thread logs what it dequeued along with the time it did so,
+     * and the logs are replayed in order of time afterwards, so that the rank of an element is counted among the
+     * elements which no thread had dequeued yet at that moment. */
+    private static long[] rankError(final PriorityQueue<Integer> queue, int n, int threads) throws Exception {
+        int[] priorities = new int[n];
+        for(int i = 0; i < n; i++)
+            priorities[i] = i + 1;
+        Random r = new Random(420);
+        for(int i = n - 1; i > 0; i--){
+            int j = r.nextInt(i + 1), tmp = priorities[i];
+            priorities[i] = priorities[j];
+            priorities[j] = tmp;
+        }
+        long[] fenwick = new long[n + 1]; // Counts the priorities still in the queue.
+        for(int p : priorities){
+            queue.enqueue(p, p);
+            for(int i = p; i <= n; i += i & -i)
+                fenwick[i]++;
+        }
+        // Every dequeue is logged as its time, shifted left past the bits of the priority, plus the priority.
+        final int bits = 32 - Integer.numberOfLeadingZeros(n);
+        final long[] log = new long[n];
+        final AtomicInteger logged = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1), done = new CountDownLatch(threads);
+        final long origin = System.nanoTime();
+        for(int t = 0; t < threads; t++)
+            new Thread(){
+                @Override
+                public void run(){
+                    try {
+                        start.await();
+                        while(true){
+                            int p;
+                            try {
+                                p = queue.dequeue();
+                            } catch(EmptyPriorityQueueException exc){
+                                return;
+                            }
+                            log[logged.getAndIncrement()] = ((System.nanoTime() - origin) << bits) | p;
+                        }
+                    } catch(InterruptedException exc){
+                        throw new IllegalStateException(exc);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }.start();
+        start.countDown();
+        done.await();
+        Arrays.sort(log);
+        long total = 0, max = 0;
+        for(long entry : log){
+            int p = (int)(entry & ((1L << bits) - 1));
+            long smaller = 0;
+            for(int i = p - 1; i > 0; i -= i & -i)
+                smaller += fenwick[i];
+            for(int i = p; i <= n; i += i & -i)
+                fenwick[i]--;
+            total += smaller;
+            max = Math.max(max, smaller);
+        }
+        return new long[]{total, max};
+    }
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Math.max(4, Runtime.getRuntime().availableProcessors());
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+        int initial = args.length > 2 ? Integer.parseInt(args[2]) : 1000000;
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors() + ".");
+        System.out.println("Threads\tLocked (ops/ms)\tMultiQueue (ops/ms)\tMultiQueue mean / max rank error");
+        for(int threads = 1; threads <= maxThreads; threads *= 2){
+            long locked = 0, multi = 0;
+            for(int rep = 0; rep < REPETITIONS; rep++){
+                locked = run(new LockedPriorityQueue<Integer>(), threads, operations, initial);
+                multi = run(new MultiQueue<Integer>(threads), threads, operations, initial);
+            }
+            long total = (long)threads * operations;
+            long[] error = rankError(new MultiQueue<Integer>(threads), initial, threads);
+            System.out.println(threads + "\t" + total * 1000000 / locked + "\t\t" + total * 1000000 / multi + "\t\t\t"
+                    + String.format("%.2f", (double)error[0] / initial) + " / " + error[1]);
+        }
+    }
+}
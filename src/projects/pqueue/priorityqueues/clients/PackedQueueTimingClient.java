@@ -0,0 +1,65 @@
+package projects.pqueue.priorityqueues.clients;
+
+import projects.pqueue.priorityqueues.MinHeapPriorityQueue;
+import projects.pqueue.priorityqueues.PackedMinHeapPriorityQueue;
+import projects.pqueue.priorityqueues.PriorityQueue;
+
+import java.util.Random;
+
+/** <b>PackedQueueTimingClient</b> compares a {@link PackedMinHeapPriorityQueue} with a {@link MinHeapPriorityQueue},
+ * which wraps every element in an entry object. Both queues are filled with the same elements, whose priorities are
+ * drawn from a small range so that many of them tie. The memory retained by the full queue is then measured, after a
+ * garbage collection, followed by the time of as many <b>hold</b> operations (a dequeue followed by an enqueue) and
+ * the time to drain the queue. The last of a few repetitions is reported, so that the JIT has warmed up.
+ *
+ * <p>Arguments (all optional): number of elements, number of distinct priorities.</p>
+ */
+public class PackedQueueTimingClient {
+
+    private static final int REPETITIONS = 3;
+
+    private static long usedMemory(){
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /* Returns the bytes retained by the full queue, the time per hold operation and the time per dequeue. */
+    private static double[] run(PriorityQueue<Integer> queue, Integer[] elements, int[] priorities) throws Exception {
+        long before = usedMemory();
+        for(int i = 0; i < elements.length; i++)
+            queue.enqueue(elements[i], priorities[i]);
+        double bytes = (double)(usedMemory() - before) / elements.length;
+        long start = System.nanoTime();
+        for(int i = 0; i < elements.length; i++){
+            Integer element = queue.dequeue();
+            queue.enqueue(element, priorities[elements.length - 1 - i]);
+        }
+        long held = System.nanoTime();
+        while(!queue.isEmpty())
+            queue.dequeue();
+        long drained = System.nanoTime();
+        return new double[]{bytes, (double)(held - start) / elements.length, (double)(drained - held) / elements.length};
+    }
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+        int distinct = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        Random r = new Random(47);
+        Integer[] elements = new Integer[n];
+        int[] priorities = new int[n];
+        for(int i = 0; i < n; i++){
+            elements[i] = i;
+            priorities[i] = 1 + r.nextInt(distinct);
+        }
+        double[] boxed = null, packed = null;
+        for(int rep = 0; rep < REPETITIONS; rep++){
+            boxed = run(new MinHeapPriorityQueue<Integer>(), elements, priorities);
+            packed = run(new PackedMinHeapPriorityQueue<Integer>(), elements, priorities);
+        }
+        System.out.println(n + " elements, " + distinct + " distinct priorities.");
+        System.out.println("Queue\t\t\t\tBytes per element\tHold (ns/op)\tDequeue (ns/op)");
+        System.out.printf("MinHeapPriorityQueue\t\t%.1f\t\t\t%.0f\t\t%.0f%n", boxed[0], boxed[1], boxed[2]);
+        System.out.printf("PackedMinHeapPriorityQueue\t%.1f\t\t\t%.0f\t\t%.0f%n", packed[0], packed[1], packed[2]);
+    }
+}
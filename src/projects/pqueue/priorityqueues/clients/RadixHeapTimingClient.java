@@ -0,0 +1,51 @@
+package projects.pqueue.priorityqueues.clients;
+
+import projects.pqueue.priorityqueues.MinHeapPriorityQueue;
+import projects.pqueue.priorityqueues.PriorityQueue;
+import projects.pqueue.priorityqueues.RadixHeap;
+
+import java.util.Random;
+
+/** <b>RadixHeapTimingClient</b> compares a {@link RadixHeap} with a {@link MinHeapPriorityQueue} on the workload of a
+ * discrete event simulation. The queue is filled with events, and every step dequeues the next event and schedules a
+ * new one a random delay after it, so that priorities never go below the last dequeued one. The last of a few
+ * repetitions is reported, so that the JIT has warmed up.
+ *
+ * <p>Arguments (all optional): number of pending events, number of steps, maximum delay.</p>
+ */
+public class RadixHeapTimingClient {
+
+    private static final int REPETITIONS = 4;
+
+    private static long simulate(PriorityQueue<Integer> queue, int[] initial, int[] delays) throws Exception {
+        for(int time : initial)
+            queue.enqueue(time, time);
+        long start = System.nanoTime();
+        for(int delay : delays){
+            int now = queue.dequeue(); // Every event is its own timestamp, so that the clock can be followed.
+            queue.enqueue(now + delay, now + delay);
+        }
+        return System.nanoTime() - start;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int steps = args.length > 1 ? Integer.parseInt(args[1]) : 10000000;
+        int maxDelay = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        Random r = new Random(47);
+        int[] initial = new int[events], delays = new int[steps];
+        for(int i = 0; i < events; i++)
+            initial[i] = 1 + r.nextInt(maxDelay);
+        for(int i = 0; i < steps; i++)
+            delays[i] = 1 + r.nextInt(maxDelay);
+
+        long heap = 0, radix = 0;
+        for(int rep = 0; rep < REPETITIONS; rep++){
+            heap = simulate(new MinHeapPriorityQueue<Integer>(), initial, delays);
+            radix = simulate(new RadixHeap<Integer>(), initial, delays);
+        }
+        System.out.println(steps + " steps over " + events + " pending events, delays up to " + maxDelay + ":");
+        System.out.println("MinHeapPriorityQueue:\t" + heap / 1000000 + " ms.");
+        System.out.println("RadixHeap:\t\t" + radix / 1000000 + " ms.");
+    }
+}
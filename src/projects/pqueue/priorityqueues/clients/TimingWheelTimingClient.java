@@ -0,0 +1,132 @@
+package projects.pqueue.priorityqueues.clients;
+
+import projects.pqueue.priorityqueues.HierarchicalTimingWheel;
+import projects.pqueue.priorityqueues.MinHeapPriorityQueue;
+import projects.pqueue.priorityqueues.PriorityQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/** <b>TimingWheelTimingClient</b> compares a {@link HierarchicalTimingWheel} with a {@link MinHeapPriorityQueue} on
+ * the request timeouts of a busy server. Every tick, a number of requests arrive, each with a timeout a fixed number
+ * of ticks later, give or take some jitter, and most requests complete, cancelling their timeout, before it fires.
+ * Since the heap cannot remove an element from the middle, a cancelled timeout is only marked as such, and skipped
+ * when it reaches the top. Both drivers advance time in batches of ticks, and the work of a whole batch of arrivals
+ * and completions is done before the batch is advanced. Reported are the total time per scheduled timeout and the
+ * largest number of timeouts each structure held. The last of a few repetitions is reported, so that the JIT has
+ * warmed up.
+ *
+ * <p>Arguments (all optional): ticks, arrivals per tick, timeout in ticks, percentage of requests which complete in
+ * time, ticks per batch.</p>
+ */
+public class TimingWheelTimingClient {
+
+    private static final int REPETITIONS = 3;
+
+    /* What the heap holds: a timeout that may have been cancelled. */
+    private static final class HeapTimeout {
+        final int deadline;
+        boolean cancelled;
+
+        HeapTimeout(int deadline){
+            this.deadline = deadline;
+        }
+    }
+
+    /* The workload, drawn up front so that both runs see the same one: the delay of every request, and the number of
+     * ticks after which it completes, or -1 if it never does. */
+    private static int[] delays, completions;
+
+    private static long fired;
+
+    /* Returns the time taken and the largest number of timeouts held. */
+    private static long[] runWheel(int ticks, int perTick, int timeout, int batch){
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<Integer>(request -> fired++);
+        List<List<HierarchicalTimingWheel.Timeout<Integer>>> completing = ring(timeout);
+        long peak = 0, start = System.nanoTime();
+        int request = 0;
+        for(int tick = 0; tick < ticks; tick += batch){
+            for(int t = tick; t < tick + batch; t++){
+                for(int i = 0; i < perTick; i++, request++){
+                    HierarchicalTimingWheel.Timeout<Integer> handle = wheel.schedule(request, delays[request]);
+                    if(completions[request] >= 0)
+                        completing.get((t + completions[request]) % completing.size()).add(handle);
+                }
+                List<HierarchicalTimingWheel.Timeout<Integer>> done = completing.get(t % completing.size());
+                for(HierarchicalTimingWheel.Timeout<Integer> handle : done)
+                    wheel.cancel(handle);
+                done.clear();
+            }
+            peak = Math.max(peak, wheel.size());
+            wheel.advance(batch);
+        }
+        return new long[]{System.nanoTime() - start, peak};
+    }
+
+    private static long[] runHeap(int ticks, int perTick, int timeout, int batch) throws Exception {
+        PriorityQueue<HeapTimeout> heap = new MinHeapPriorityQueue<HeapTimeout>();
+        List<List<HeapTimeout>> completing = ring(timeout);
+        long peak = 0, start = System.nanoTime();
+        int request = 0;
+        for(int tick = 0; tick < ticks; tick += batch){
+            for(int t = tick; t < tick + batch; t++){
+                for(int i = 0; i < perTick; i++, request++){
+                    // Relative to the start of the batch, like the wheel, whose tick only moves between batches.
+                    HeapTimeout handle = new HeapTimeout(tick + delays[request]);
+                    heap.enqueue(handle, handle.deadline);
+                    if(completions[request] >= 0)
+                        completing.get((t + completions[request]) % completing.size()).add(handle);
+                }
+                List<HeapTimeout> done = completing.get(t % completing.size());
+                for(HeapTimeout handle : done)
+                    handle.cancelled = true;
+                done.clear();
+            }
+            peak = Math.max(peak, heap.size());
+            int now = tick + batch;
+            while(!heap.isEmpty() && heap.getFirst().deadline <= now)
+                if(!heap.dequeue().cancelled)
+                    fired++;
+        }
+        return new long[]{System.nanoTime() - start, peak};
+    }
+
+    private static <E> List<List<E>> ring(int timeout){
+        List<List<E>> ring = new ArrayList<List<E>>();
+        for(int i = 0; i < 2 * timeout; i++)
+            ring.add(new ArrayList<E>());
+        return ring;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int perTick = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int timeout = args.length > 2 ? Integer.parseInt(args[2]) : 3000;
+        int completed = args.length > 3 ? Integer.parseInt(args[3]) : 90;
+        int batch = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+        Random r = new Random(50);
+        int n = ticks * perTick;
+        delays = new int[n];
+        completions = new int[n];
+        for(int i = 0; i < n; i++){
+            delays[i] = timeout - timeout / 10 + r.nextInt(timeout / 5 + 1);
+            completions[i] = r.nextInt(100) < completed ? r.nextInt(delays[i]) : -1;
+        }
+        long[] wheel = null, heap = null;
+        long wheelFired = 0, heapFired = 0;
+        for(int rep = 0; rep < REPETITIONS; rep++){
+            fired = 0;
+            wheel = runWheel(ticks, perTick, timeout, batch);
+            wheelFired = fired;
+            fired = 0;
+            heap = runHeap(ticks, perTick, timeout, batch);
+            heapFired = fired;
+        }
+        System.out.println(n + " timeouts over " + ticks + " ticks, " + completed + "% cancelled, batches of " + batch
+                + " ticks.");
+        System.out.println("Structure\t\t\tTime (ns per timeout)\tPeak size\tFired");
+        System.out.printf("HierarchicalTimingWheel\t\t%.0f\t\t\t%d\t\t%d%n", (double)wheel[0] / n, wheel[1], wheelFired);
+        System.out.printf("MinHeapPriorityQueue\t\t%.0f\t\t\t%d\t\t%d%n", (double)heap[0] / n, heap[1], heapFired);
+    }
+}
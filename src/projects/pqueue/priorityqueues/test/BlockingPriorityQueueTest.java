@@ -0,0 +1,186 @@
+package projects.pqueue.priorityqueues.test;
+
+import org.junit.Test;
+import projects.pqueue.InvalidPriorityException;
+import projects.pqueue.priorityqueues.BlockingPriorityQueue;
+import projects.pqueue.priorityqueues.CalendarQueue;
+import projects.pqueue.priorityqueues.EmptyPriorityQueueException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>A testing framework for {@link BlockingPriorityQueue}.</p>
+ *
+ * @see MinHeapPriorityQueueTest
+ */
+public class BlockingPriorityQueueTest {
+
+	@Test
+	public void testPriorityAndFIFOOrder() throws InvalidPriorityException, EmptyPriorityQueueException,
+			InterruptedException {
+		BlockingPriorityQueue<String> queue = new BlockingPriorityQueue<String>();
+		String[] names = {"Jason", "Mary", "Charlie", "Lisa", "Mike", "Ben"};
+		int[] priorities = {3, 1, 3, 2, 1, 3};
+		for(int i = 0; i < names.length; i++)
+			queue.enqueue(names[i], priorities[i]);
+		Iterator<String> it = queue.iterator();
+		assertEquals("Mary", queue.take());
+		assertEquals("Mike", queue.dequeue());
+		assertEquals("Mary", it.next()); // The iterator works on a snapshot.
+
+		List<String> sink = new ArrayList<String>();
+		assertEquals(3, queue.drainTo(sink, 3));
+		assertEquals("Lisa", sink.get(0));
+		assertEquals("Jason", sink.get(1));
+		assertEquals("Charlie", sink.get(2));
+		assertEquals("Ben", queue.getFirst());
+		assertEquals(1, queue.drainTo(sink, 10));
+		assertEquals(0, queue.drainTo(sink, 10));
+		assertTrue(queue.isEmpty());
+		try {
+			queue.dequeue();
+			fail("dequeue() on an empty queue should throw an EmptyPriorityQueueException.");
+		} catch(EmptyPriorityQueueException ignored){}
+		try {
+			queue.drainTo(sink, -1);
+			fail("A negative max should be rejected.");
+		} catch(IllegalArgumentException ignored){}
+		try {
+			queue.enqueue("Nobody", 0);
+			fail("A priority of 0 should be rejected.");
+		} catch(InvalidPriorityException ignored){}
+	}
+
+	@Test
+	public void testWrapsAnyQueue() throws InvalidPriorityException, InterruptedException {
+		CalendarQueue<Integer> calendar = new CalendarQueue<Integer>();
+		calendar.enqueue(2, 20);
+		BlockingPriorityQueue<Integer> queue = new BlockingPriorityQueue<Integer>(calendar);
+		queue.enqueue(1, 10);
+		assertEquals(2, queue.size());
+		assertEquals(Integer.valueOf(1), queue.take());
+		assertEquals(Integer.valueOf(2), queue.take());
+	}
+
+	@Test
+	public void testPollTimesOut() throws InterruptedException {
+		BlockingPriorityQueue<Integer> queue = new BlockingPriorityQueue<Integer>();
+		long start = System.nanoTime();
+		assertNull(queue.poll(50, TimeUnit.MILLISECONDS));
+		assertTrue("poll() should have waited for the timeout.",
+				System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+		assertNull(queue.poll(0, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testTakeWaitsForAnElement() throws InterruptedException {
+		final BlockingPriorityQueue<Integer> queue = new BlockingPriorityQueue<Integer>();
+		final AtomicReference<Integer> taken = new AtomicReference<Integer>();
+		Thread consumer = new Thread(){
+			@Override
+			public void run(){
+				try {
+					taken.set(queue.take());
+				} catch(InterruptedException ignored){}
+			}
+		};
+		consumer.start();
+		Thread.sleep(50);
+		assertNull("take() should not return before an element is enqueued.", taken.get());
+		try {
+			queue.enqueue(42, 1);
+		} catch(InvalidPriorityException exc){
+			fail("A priority of 1 should be accepted.");
+		}
+		consumer.join(5000);
+		assertEquals(Integer.valueOf(42), taken.get());
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void testTakeIsInterruptible() throws InterruptedException {
+		final BlockingPriorityQueue<Integer> queue = new BlockingPriorityQueue<Integer>();
+		final AtomicReference<Throwable> thrown = new AtomicReference<Throwable>();
+		Thread consumer = new Thread(){
+			@Override
+			public void run(){
+				try {
+					queue.take();
+				} catch(Throwable exc){
+					thrown.set(exc);
+				}
+			}
+		};
+		consumer.start();
+		Thread.sleep(50);
+		consumer.interrupt();
+		consumer.join(5000);
+		assertTrue(thrown.get() instanceof InterruptedException);
+	}
+
+	@Test
+	public void testConcurrentProducersAndConsumers() throws InterruptedException {
+		final int producers = 4, consumers = 4, perThread = 20000;
+		final BlockingPriorityQueue<Integer> queue = new BlockingPriorityQueue<Integer>();
+		final boolean[] seen = new boolean[producers * perThread];
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		List<Thread> workers = new ArrayList<Thread>();
+		for(int t = 0; t < producers; t++){
+			final int id = t;
+			workers.add(new Thread(){
+				@Override
+				public void run(){
+					try {
+						for(int i = 0; i < perThread; i++){
+							int element = id * perThread + i;
+							queue.enqueue(element, 1 + element % 100);
+						}
+					} catch(Throwable exc){
+						failure.compareAndSet(null, exc);
+					}
+				}
+			});
+		}
+		for(int t = 0; t < consumers; t++){
+			final boolean drain = t % 2 == 0;
+			workers.add(new Thread(){
+				@Override
+				public void run(){
+					try {
+						List<Integer> batch = new ArrayList<Integer>();
+						for(int remaining = producers * perThread / consumers; remaining > 0; ){
+							batch.clear();
+							if(drain)
+								queue.drainTo(batch, Math.min(remaining, 64));
+							if(batch.isEmpty())
+								batch.add(queue.take());
+							remaining -= batch.size();
+							synchronized(seen){
+								for(int x : batch){
+									assertFalse("Element " + x + " dequeued twice.", seen[x]);
+									seen[x] = true;
+								}
+							}
+						}
+					} catch(Throwable exc){
+						failure.compareAndSet(null, exc);
+					}
+				}
+			});
+		}
+		for(Thread w : workers)
+			w.start();
+		for(Thread w : workers)
+			w.join();
+		assertNull(failure.get());
+		assertTrue(queue.isEmpty());
+		for(boolean s : seen)
+			assertTrue(s);
+	}
+}
@@ -0,0 +1,114 @@
+package projects.pqueue.priorityqueues.test;
+
+import org.junit.Test;
+import projects.pqueue.InvalidPriorityException;
+import projects.pqueue.priorityqueues.BucketPriorityQueue;
+import projects.pqueue.priorityqueues.EmptyPriorityQueueException;
+import projects.pqueue.priorityqueues.MinHeapPriorityQueue;
+import projects.pqueue.priorityqueues.PriorityQueue;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>A testing framework for {@link BucketPriorityQueue}.</p>
+ *
+ * @see MinHeapPriorityQueueTest
+ */
+public class BucketPriorityQueueTest {
+
+	@Test
+	public void testPriorityAndFIFOOrder() throws InvalidPriorityException, EmptyPriorityQueueException {
+		PriorityQueue<String> queue = new BucketPriorityQueue<String>();
+		String[] names = {"Jason", "Mary", "Charlie", "Lisa", "Mike", "Ben"};
+		int[] priorities = {3, 1, 3, 2, 1, 3};
+		for(int i = 0; i < names.length; i++)
+			queue.enqueue(names[i], priorities[i]);
+		String[] expected = {"Mary", "Mike", "Lisa", "Jason", "Charlie", "Ben"};
+		int index = 0;
+		for(String name : queue)
+			assertEquals(expected[index++], name);
+		for(String name : expected){
+			assertEquals(name, queue.getFirst());
+			assertEquals(name, queue.dequeue());
+		}
+		try {
+			queue.dequeue();
+			fail("dequeue() on an empty queue should throw an EmptyPriorityQueueException.");
+		} catch(EmptyPriorityQueueException ignored){}
+	}
+
+	@Test
+	public void testPriorityRange() throws InvalidPriorityException, EmptyPriorityQueueException {
+		BucketPriorityQueue<Integer> queue = new BucketPriorityQueue<Integer>(130);
+		assertEquals(130, queue.getMaxPriority());
+		for(int priority : new int[]{0, -1, 131}){
+			try {
+				queue.enqueue(priority, priority);
+				fail("A priority of " + priority + " should be rejected.");
+			} catch(InvalidPriorityException ignored){}
+		}
+		// Priorities on either side of the word boundaries of the bitmap.
+		int[] priorities = {130, 65, 64, 1, 129, 128, 63};
+		for(int priority : priorities)
+			queue.enqueue(priority, priority);
+		for(int priority : new int[]{1, 63, 64, 65, 128, 129, 130})
+			assertEquals(Integer.valueOf(priority), queue.dequeue());
+		assertTrue(queue.isEmpty());
+		try {
+			new BucketPriorityQueue<Integer>(0);
+			fail("A maximum priority of 0 should be rejected.");
+		} catch(IllegalArgumentException ignored){}
+	}
+
+	@Test
+	public void testAgainstMinHeapPriorityQueue() throws InvalidPriorityException, EmptyPriorityQueueException {
+		Random r = new Random(47);
+		PriorityQueue<Integer> bucket = new BucketPriorityQueue<Integer>(),
+				reference = new MinHeapPriorityQueue<Integer>();
+		for(int op = 0; op < 30000; op++){
+			// Many elements of the same priority make the array of a level wrap around and grow.
+			if(reference.isEmpty() || r.nextInt(5) < 3){
+				int priority = 1 + r.nextInt(op % 2 == 0 ? 4 : 256);
+				bucket.enqueue(op, priority);
+				reference.enqueue(op, priority);
+			} else {
+				assertEquals(reference.getFirst(), bucket.getFirst());
+				assertEquals(reference.dequeue(), bucket.dequeue());
+			}
+			assertEquals(reference.size(), bucket.size());
+		}
+		Iterator<Integer> it = bucket.iterator();
+		for(Integer i : reference)
+			assertEquals(i, it.next());
+		assertFalse(it.hasNext());
+		for(Integer i : reference)
+			assertEquals("Iterating should leave the queue as it was.", i, bucket.dequeue());
+		try {
+			it.next();
+			fail("The iterator should have detected the calls to dequeue().");
+		} catch(ConcurrentModificationException ignored){}
+	}
+
+	@Test
+	public void testClear() throws InvalidPriorityException, EmptyPriorityQueueException {
+		PriorityQueue<Integer> queue = new BucketPriorityQueue<Integer>();
+		for(int i = 0; i < 1000; i++)
+			queue.enqueue(i, 1 + i % 200);
+		Iterator<Integer> it = queue.iterator();
+		queue.clear();
+		assertTrue(queue.isEmpty());
+		try {
+			it.next();
+			fail("The iterator should have detected the call to clear().");
+		} catch(ConcurrentModificationException ignored){}
+		queue.enqueue(7, 200);
+		queue.enqueue(8, 100);
+		assertEquals(Integer.valueOf(8), queue.dequeue());
+		assertEquals(Integer.valueOf(7), queue.dequeue());
+		assertTrue(queue.isEmpty());
+	}
+}
@@ -0,0 +1,115 @@
+package projects.pqueue.priorityqueues.test;
+
+import org.junit.Test;
+import projects.pqueue.InvalidPriorityException;
+import projects.pqueue.priorityqueues.CalendarQueue;
+import projects.pqueue.priorityqueues.EmptyPriorityQueueException;
+import projects.pqueue.priorityqueues.MinHeapPriorityQueue;
+import projects.pqueue.priorityqueues.PriorityQueue;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>A testing framework for {@link CalendarQueue}.</p>
+ *
+ * @see MinHeapPriorityQueueTest
+ */
+public class CalendarQueueTest {
+
+	/* Runs the same random operations on a CalendarQueue and a MinHeapPriorityQueue. Every enqueued priority is the
+	 * current time plus a random increment, or, with the given odds out of 100, an arbitrary priority. */
+	private static void compare(int operations, int maxIncrement, int arbitraryOdds, long seed)
+			throws InvalidPriorityException, EmptyPriorityQueueException {
+		Random r = new Random(seed);
+		CalendarQueue<Integer> calendar = new CalendarQueue<Integer>();
+		PriorityQueue<Integer> reference = new MinHeapPriorityQueue<Integer>();
+		int now = 1;
+		for(int op = 0; op < operations; op++){
+			// Grow the queue for the first half of the operations and shrink it for the second.
+			boolean grow = op < operations / 2 ? r.nextInt(4) != 0 : r.nextInt(4) == 0;
+			if(reference.isEmpty() || grow){
+				int priority = r.nextInt(100) < arbitraryOdds ? 1 + r.nextInt(1000000) : now + r.nextInt(maxIncrement);
+				calendar.enqueue(op, priority);
+				reference.enqueue(op, priority);
+			} else {
+				assertEquals(reference.getFirst(), calendar.getFirst());
+				assertEquals(reference.dequeue(), calendar.dequeue());
+				now++;
+			}
+			assertEquals(reference.size(), calendar.size());
+		}
+		Iterator<Integer> it = calendar.iterator();
+		for(Integer i : reference)
+			assertEquals(i, it.next());
+		assertFalse(it.hasNext());
+		while(!reference.isEmpty())
+			assertEquals(reference.dequeue(), calendar.dequeue());
+		assertTrue(calendar.isEmpty());
+	}
+
+	@Test
+	public void testPriorityAndFIFOOrder() throws InvalidPriorityException, EmptyPriorityQueueException {
+		PriorityQueue<String> queue = new CalendarQueue<String>();
+		String[] names = {"Jason", "Mary", "Charlie", "Lisa", "Mike", "Ben"};
+		int[] priorities = {3, 1, 3, 2, 1, 3};
+		for(int i = 0; i < names.length; i++)
+			queue.enqueue(names[i], priorities[i]);
+		String[] expected = {"Mary", "Mike", "Lisa", "Jason", "Charlie", "Ben"};
+		int index = 0;
+		for(String name : queue)
+			assertEquals(expected[index++], name);
+		for(String name : expected){
+			assertEquals(name, queue.getFirst());
+			assertEquals(name, queue.dequeue());
+		}
+		try {
+			queue.dequeue();
+			fail("dequeue() on an empty queue should throw an EmptyPriorityQueueException.");
+		} catch(EmptyPriorityQueueException ignored){}
+		try {
+			queue.enqueue("Nobody", 0);
+			fail("A priority of 0 should be rejected.");
+		} catch(InvalidPriorityException ignored){}
+	}
+
+	@Test
+	public void testSimulationWorkloads() throws InvalidPriorityException, EmptyPriorityQueueException {
+		compare(40000, 10, 0, 48); // Many ties.
+		compare(40000, 100000, 0, 49); // Sparse days.
+		compare(40000, 1000, 5, 50); // Some elements ahead of the last one dequeued.
+	}
+
+	@Test
+	public void testResizing() throws InvalidPriorityException, EmptyPriorityQueueException {
+		CalendarQueue<Integer> queue = new CalendarQueue<Integer>();
+		assertEquals(2, queue.getBucketCount());
+		for(int i = 0; i < 10000; i++)
+			queue.enqueue(i, 1 + 10 * i);
+		assertTrue("The calendar should have grown.", queue.getBucketCount() >= 10000 / 2);
+		assertEquals("Elements 10 apart should give days of 30.", 30, queue.getBucketWidth());
+		for(int i = 0; i < 9990; i++)
+			assertEquals(Integer.valueOf(i), queue.dequeue());
+		assertTrue("The calendar should have shrunk.", queue.getBucketCount() <= 2 * 10);
+		queue.clear();
+		assertTrue(queue.isEmpty());
+		assertEquals(2, queue.getBucketCount());
+	}
+
+	@Test
+	public void testFailFastIterator() throws InvalidPriorityException {
+		PriorityQueue<Integer> queue = new CalendarQueue<Integer>();
+		for(int i = 0; i < 100; i++)
+			queue.enqueue(i, 1 + i);
+		Iterator<Integer> it = queue.iterator();
+		it.next();
+		queue.enqueue(100, 50);
+		try {
+			it.next();
+			fail("The iterator should have detected the call to enqueue().");
+		} catch(ConcurrentModificationException ignored){}
+	}
+}
@@ -0,0 +1,157 @@
+package projects.pqueue.priorityqueues.test;
+
+import org.junit.Test;
+import projects.pqueue.priorityqueues.HierarchicalTimingWheel;
+import projects.pqueue.priorityqueues.HierarchicalTimingWheel.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>A testing framework for {@link HierarchicalTimingWheel}.</p>
+ *
+ * @see CalendarQueueTest
+ */
+public class HierarchicalTimingWheelTest {
+
+	// The wheels under test, in fields so that their actions can refer back to them. JUnit runs every test on a new
+	// instance of this class.
+	private HierarchicalTimingWheel<Long> wheel;
+	private HierarchicalTimingWheel<Integer> integerWheel;
+
+	@Test
+	public void testFiresAtDeadline(){
+		final List<Long> fired = new ArrayList<Long>();
+		wheel = new HierarchicalTimingWheel<Long>(deadline -> {
+			assertEquals("Timeout fired at the wrong tick.", deadline.longValue(), wheel.getCurrentTick());
+			fired.add(deadline);
+		});
+		// Deadlines on either side of the boundaries of the first three levels.
+		long[] delays = {1, 2, 255, 256, 257, 511, 512, 65535, 65536, 65537, 70000, 16777216};
+		for(long delay : delays)
+			wheel.schedule(delay, delay);
+		assertEquals(delays.length, wheel.size());
+		assertEquals(3, wheel.advance(255));
+		assertEquals(255, wheel.getCurrentTick());
+		assertEquals(6, wheel.advance(65536 - 255));
+		assertEquals(3, wheel.advance(16777216 - 65536));
+		assertTrue(wheel.isEmpty());
+		for(int i = 0; i < delays.length; i++)
+			assertEquals(Long.valueOf(delays[i]), fired.get(i));
+
+		assertEquals(0, wheel.advance(1L << 40)); // An empty wheel jumps ahead.
+		long far = wheel.getCurrentTick() + (1L << 50) + 12345;
+		wheel.schedule(far, far - wheel.getCurrentTick());
+		assertEquals(0, wheel.advance(far - wheel.getCurrentTick() - 1));
+		assertEquals(1, wheel.advance(1));
+		assertEquals(Long.valueOf(far), fired.get(fired.size() - 1));
+	}
+
+	@Test
+	public void testCancel(){
+		final List<Integer> fired = new ArrayList<Integer>();
+		HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<Integer>(fired::add);
+		List<Timeout<Integer>> timeouts = new ArrayList<Timeout<Integer>>();
+		for(int i = 0; i < 1000; i++)
+			timeouts.add(wheel.schedule(i, 1 + i * 7));
+		for(int i = 0; i < 1000; i += 2){
+			assertTrue(wheel.cancel(timeouts.get(i)));
+			assertFalse(timeouts.get(i).isPending());
+			assertFalse("A timeout can only be cancelled once.", wheel.cancel(timeouts.get(i)));
+		}
+		assertEquals(500, wheel.size());
+		assertEquals(500, wheel.advance(7000));
+		for(int i = 0; i < 500; i++)
+			assertEquals(Integer.valueOf(2 * i + 1), fired.get(i));
+		assertFalse("A fired timeout cannot be cancelled.", wheel.cancel(timeouts.get(1)));
+		try {
+			new HierarchicalTimingWheel<Integer>(fired::add).cancel(timeouts.get(3));
+			fail("A timeout of another wheel should be rejected.");
+		} catch(IllegalArgumentException ignored){}
+	}
+
+	@Test
+	public void testActionCanScheduleAndCancel(){
+		final List<Integer> fired = new ArrayList<Integer>();
+		final List<Timeout<Integer>> victims = new ArrayList<Timeout<Integer>>();
+		integerWheel = new HierarchicalTimingWheel<Integer>(i -> {
+			fired.add(i);
+			if(i < 5)
+				integerWheel.schedule(i + 1, 300); // Reschedules itself past the next boundary.
+			for(Timeout<Integer> victim : victims)
+				integerWheel.cancel(victim); // Including one in the slot that is firing.
+			victims.clear();
+			try {
+				integerWheel.advance(1);
+				fail("The wheel should not be advanced from its own action.");
+			} catch(IllegalStateException ignored){}
+		});
+		integerWheel.schedule(0, 10);
+		victims.add(integerWheel.schedule(100, 10));
+		victims.add(integerWheel.schedule(200, 400));
+		assertEquals(6, integerWheel.advance(10000));
+		for(int i = 0; i <= 5; i++)
+			assertEquals(Integer.valueOf(i), fired.get(i));
+		assertTrue(integerWheel.isEmpty());
+	}
+
+	@Test
+	public void testAgainstSortedDeadlines(){
+		Random r = new Random(50);
+		final List<Long> fired = new ArrayList<Long>();
+		wheel = new HierarchicalTimingWheel<Long>(deadline -> {
+			assertEquals(deadline.longValue(), wheel.getCurrentTick());
+			fired.add(deadline);
+		});
+		List<Timeout<Long>> pending = new ArrayList<Timeout<Long>>();
+		long expectedFired = 0;
+		for(int round = 0; round < 2000; round++){
+			for(int i = 0; i < 20; i++){
+				long delay = 1 + (r.nextBoolean() ? r.nextInt(300) : r.nextInt(200000));
+				long deadline = wheel.getCurrentTick() + delay;
+				pending.add(wheel.schedule(deadline, delay));
+			}
+			for(int i = 0; i < 10 && !pending.isEmpty(); i++){
+				Timeout<Long> victim = pending.remove(r.nextInt(pending.size()));
+				assertEquals(victim.isPending(), wheel.cancel(victim));
+			}
+			long before = wheel.getCurrentTick(), ticks = r.nextInt(500);
+			for(Timeout<Long> t : pending)
+				if(t.isPending() && t.getDeadline() <= before + ticks)
+					expectedFired++;
+			wheel.advance(ticks);
+			assertEquals(expectedFired, fired.size());
+		}
+		for(int i = 1; i < fired.size(); i++)
+			assertTrue("Timeouts fired out of order.", fired.get(i - 1) <= fired.get(i));
+		int live = 0;
+		for(Timeout<Long> t : pending)
+			if(t.isPending())
+				live++;
+		assertEquals(live, wheel.size());
+		wheel.clear();
+		assertTrue(wheel.isEmpty());
+		for(Timeout<Long> t : pending)
+			assertFalse(t.isPending());
+		assertEquals(0, wheel.advance(1000000));
+	}
+
+	@Test
+	public void testArgumentValidation(){
+		HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<Integer>(i -> {});
+		for(long delay : new long[]{0, -1, Long.MAX_VALUE}){
+			try {
+				wheel.advance(1);
+				wheel.schedule(1, delay);
+				fail("A delay of " + delay + " should be rejected.");
+			} catch(IllegalArgumentException ignored){}
+		}
+		try {
+			wheel.advance(-1);
+			fail("A negative number of ticks should be rejected.");
+		} catch(IllegalArgumentException ignored){}
+	}
+}
@@ -0,0 +1,61 @@
+package projects.pqueue.priorityqueues.test;
+
+import org.junit.Test;
+import projects.pqueue.InvalidPriorityException;
+import projects.pqueue.priorityqueues.EmptyPriorityQueueException;
+import projects.pqueue.priorityqueues.MinHeapPriorityQueue;
+import projects.pqueue.priorityqueues.PriorityQueue;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>A testing framework for {@link MinHeapPriorityQueue}.</p>
+ *
+ * @see PriorityQueue
+ */
+public class MinHeapPriorityQueueTest {
+
+	@Test
+	public void testPriorityAndFIFOOrder() throws InvalidPriorityException, EmptyPriorityQueueException {
+		PriorityQueue<String> queue = new MinHeapPriorityQueue<String>();
+		String[] names = {"Jason", "Mary", "Charlie", "Lisa", "Mike", "Ben"};
+		int[] priorities = {3, 1, 3, 2, 1, 3};
+		for(int i = 0; i < names.length; i++)
+			queue.enqueue(names[i], priorities[i]);
+		assertEquals(names.length, queue.size());
+		String[] expected = {"Mary", "Mike", "Lisa", "Jason", "Charlie", "Ben"};
+		int index = 0;
+		for(String name : queue)
+			assertEquals(expected[index++], name);
+		for(String name : expected){
+			assertEquals(name, queue.getFirst());
+			assertEquals(name, queue.dequeue());
+		}
+		assertTrue(queue.isEmpty());
+		try {
+			queue.dequeue();
+			fail("dequeue() on an empty queue should throw an EmptyPriorityQueueException.");
+		} catch(EmptyPriorityQueueException ignored){}
+	}
+
+	@Test
+	public void testInvalidPriorityAndClear() throws InvalidPriorityException {
+		PriorityQueue<Integer> queue = new MinHeapPriorityQueue<Integer>();
+		try {
+			queue.enqueue(1, 0);
+			fail("A priority of 0 should be rejected.");
+		} catch(InvalidPriorityException ignored){}
+		queue.enqueue(1, 1);
+		queue.enqueue(2, 1);
+		Iterator<Integer> it = queue.iterator();
+		queue.clear();
+		assertTrue(queue.isEmpty());
+		try {
+			it.next();
+			fail("The iterator should have detected the call to clear().");
+		} catch(ConcurrentModificationException ignored){}
+	}
+}
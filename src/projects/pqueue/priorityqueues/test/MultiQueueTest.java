@@ -0,0 +1,176 @@
+package projects.pqueue.priorityqueues.test;
+
+import org.junit.Test;
+import projects.pqueue.InvalidPriorityException;
+import projects.pqueue.priorityqueues.EmptyPriorityQueueException;
+import projects.pqueue.priorityqueues.MultiQueue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>A testing framework for {@link MultiQueue}.</p>
+ *
+ * @see MinHeapPriorityQueueTest
+ */
+public class MultiQueueTest {
+
+	@Test
+	public void testSingleHeapIsExact() throws InvalidPriorityException, EmptyPriorityQueueException {
+		MultiQueue<String> queue = new MultiQueue<String>(1, 1);
+		assertEquals(1, queue.getNumberOfHeaps());
+		queue.enqueue("b", 2);
+		queue.enqueue("a1", 1);
+		queue.enqueue("c", 3);
+		queue.enqueue("a2", 1);
+		for(String expected : new String[]{"a1", "a2", "b", "c"})
+			assertEquals(expected, queue.dequeue());
+		try {
+			queue.dequeue();
+			fail("dequeue() on an empty queue should throw an EmptyPriorityQueueException.");
+		} catch(EmptyPriorityQueueException ignored){}
+	}
+
+	@Test
+	public void testEveryElementComesOutOnce() throws InvalidPriorityException, EmptyPriorityQueueException {
+		MultiQueue<Integer> queue = new MultiQueue<Integer>(4);
+		assertEquals(8, queue.getNumberOfHeaps());
+		for(int i = 0; i < 1000; i++)
+			queue.enqueue(i, 1 + i % 37);
+		assertEquals(1000, queue.size());
+		assertEquals(Integer.valueOf(0), queue.getFirst());
+
+		List<Integer> snapshot = new ArrayList<Integer>();
+		int previousPriority = 0;
+		for(Integer i : queue){ // The iterator is exact, even though dequeue() is not.
+			assertTrue(1 + i % 37 >= previousPriority);
+			previousPriority = 1 + i % 37;
+			snapshot.add(i);
+		}
+		assertEquals(1000, snapshot.size());
+
+		List<Integer> dequeued = new ArrayList<Integer>();
+		while(!queue.isEmpty())
+			dequeued.add(queue.dequeue());
+		Collections.sort(dequeued);
+		for(int i = 0; i < 1000; i++)
+			assertEquals(Integer.valueOf(i), dequeued.get(i));
+
+		queue.enqueue(5, 5);
+		queue.clear();
+		assertTrue(queue.isEmpty());
+		try {
+			queue.getFirst();
+			fail("getFirst() on an empty queue should throw an EmptyPriorityQueueException.");
+		} catch(EmptyPriorityQueueException ignored){}
+		try {
+			queue.enqueue(1, -3);
+			fail("A negative priority should be rejected.");
+		} catch(InvalidPriorityException ignored){}
+	}
+
+	@Test
+	public void testConcurrentProducersAndConsumers() throws InterruptedException {
+		final int threads = 4, perThread = 20000;
+		final MultiQueue<Integer> queue = new MultiQueue<Integer>(threads);
+		final boolean[] seen = new boolean[threads * perThread];
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		List<Thread> workers = new ArrayList<Thread>();
+		for(int t = 0; t < threads; t++){
+			final int id = t;
+			workers.add(new Thread(){
+				@Override
+				public void run(){
+					try {
+						for(int i = 0; i < perThread; i++){
+							int element = id * perThread + i;
+							queue.enqueue(element, 1 + element % 100);
+							if(i % 2 == 1)
+								for(int k = 0; k < 2; k++){
+									int x = queue.dequeue(); // Never empty: every thread enqueues more than it removes.
+									synchronized(seen){
+										assertFalse("Element " + x + " dequeued twice.", seen[x]);
+										seen[x] = true;
+									}
+								}
+						}
+					} catch(Throwable exc){
+						failure.compareAndSet(null, exc);
+					}
+				}
+			});
+		}
+		for(Thread w : workers)
+			w.start();
+		for(Thread w : workers)
+			w.join();
+		assertNull(failure.get());
+		assertTrue(queue.isEmpty());
+		for(boolean s : seen)
+			assertTrue(s);
+	}
+
+	@Test
+	public void testConcurrentRankError() throws InvalidPriorityException, InterruptedException {
+		final int threads = 4, n = 40000;
+		final MultiQueue<Integer> queue = new MultiQueue<Integer>(threads);
+		List<Integer> priorities = new ArrayList<Integer>();
+		for(int p = 1; p <= n; p++)
+			priorities.add(p);
+		Collections.shuffle(priorities, new Random(47));
+		for(int p : priorities)
+			queue.enqueue(p, p);
+
+		// Every thread logs its dequeues under a shared ticket, which orders them all.
+		final int[] order = new int[n];
+		final AtomicInteger ticket = new AtomicInteger();
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		List<Thread> workers = new ArrayList<Thread>();
+		for(int t = 0; t < threads; t++)
+			workers.add(new Thread(){
+				@Override
+				public void run(){
+					try {
+						while(true){
+							int p = queue.dequeue();
+							order[ticket.getAndIncrement()] = p;
+						}
+					} catch(EmptyPriorityQueueException ignored){
+					} catch(Throwable exc){
+						failure.compareAndSet(null, exc);
+					}
+				}
+			});
+		for(Thread w : workers)
+			w.start();
+		for(Thread w : workers)
+			w.join();
+		assertNull(failure.get());
+
+		// The rank error of a dequeue is the number of smaller priorities which were still in the queue.
+		int[] fenwick = new int[n + 1];
+		for(int p = 1; p <= n; p++)
+			for(int i = p; i <= n; i += i & -i)
+				fenwick[i]++;
+		long total = 0;
+		for(int k = 0; k < n; k++){
+			int p = order[k];
+			for(int i = p - 1; i > 0; i -= i & -i)
+				total += fenwick[i];
+			for(int i = p; i <= n; i += i & -i)
+				fenwick[i]--;
+		}
+		// With fewer cores than threads, a thread is often preempted while it holds the lock of a heap, which keeps
+		// the others away from that heap for a whole time slice. The error is then far larger, but still far below
+		// the n / 3 of dequeueing in random order.
+		double mean = (double)total / n;
+		double bound = Runtime.getRuntime().availableProcessors() >= threads ? 4 * queue.getNumberOfHeaps() : n / 8;
+		assertTrue("Mean rank error " + mean + " is too large for " + queue.getNumberOfHeaps() + " heaps.", mean < bound);
+	}
+}
@@ -0,0 +1,92 @@
+package projects.pqueue.priorityqueues.test;
+
+import org.junit.Test;
+import projects.pqueue.InvalidPriorityException;
+import projects.pqueue.priorityqueues.EmptyPriorityQueueException;
+import projects.pqueue.priorityqueues.MinHeapPriorityQueue;
+import projects.pqueue.priorityqueues.PackedMinHeapPriorityQueue;
+import projects.pqueue.priorityqueues.PriorityQueue;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>A testing framework for {@link PackedMinHeapPriorityQueue}.</p>
+ *
+ * @see MinHeapPriorityQueueTest
+ */
+public class PackedMinHeapPriorityQueueTest {
+
+	@Test
+	public void testPriorityAndFIFOOrder() throws InvalidPriorityException, EmptyPriorityQueueException {
+		PriorityQueue<String> queue = new PackedMinHeapPriorityQueue<String>();
+		String[] names = {"Jason", "Mary", "Charlie", "Lisa", "Mike", "Ben"};
+		int[] priorities = {3, 1, 3, 2, 1, 3};
+		for(int i = 0; i < names.length; i++)
+			queue.enqueue(names[i], priorities[i]);
+		String[] expected = {"Mary", "Mike", "Lisa", "Jason", "Charlie", "Ben"};
+		int index = 0;
+		for(String name : queue)
+			assertEquals(expected[index++], name);
+		for(String name : expected){
+			assertEquals(name, queue.getFirst());
+			assertEquals(name, queue.dequeue());
+		}
+		try {
+			queue.getFirst();
+			fail("getFirst() on an empty queue should throw an EmptyPriorityQueueException.");
+		} catch(EmptyPriorityQueueException ignored){}
+		try {
+			queue.enqueue("Nobody", 0);
+			fail("A priority of 0 should be rejected.");
+		} catch(InvalidPriorityException ignored){}
+	}
+
+	@Test
+	public void testAgainstMinHeapPriorityQueue() throws InvalidPriorityException, EmptyPriorityQueueException {
+		Random r = new Random(46);
+		PriorityQueue<Integer> packed = new PackedMinHeapPriorityQueue<Integer>(),
+				reference = new MinHeapPriorityQueue<Integer>();
+		for(int op = 0; op < 30000; op++){
+			if(reference.isEmpty() || r.nextInt(5) < 3){
+				int priority = 1 + r.nextInt(op % 2 == 0 ? 10 : Integer.MAX_VALUE - 1);
+				packed.enqueue(op, priority);
+				reference.enqueue(op, priority);
+			} else
+				assertEquals(reference.dequeue(), packed.dequeue());
+			assertEquals(reference.size(), packed.size());
+		}
+		Iterator<Integer> it = packed.iterator();
+		for(Integer i : reference)
+			assertEquals(i, it.next());
+		assertFalse(it.hasNext());
+		packed.clear();
+		try {
+			it.next();
+			fail("The iterator should have detected the call to clear().");
+		} catch(ConcurrentModificationException ignored){}
+		assertTrue(packed.isEmpty());
+	}
+
+	@Test
+	public void testRenumberingKeepsTheOrder() throws InvalidPriorityException, EmptyPriorityQueueException {
+		// Start 100 sequence numbers short of the limit rather than enqueueing 2^32 elements. Without renumbering,
+		// the sequence numbers of the last 100 elements would spill into their priorities.
+		PriorityQueue<Integer> queue = new PackedMinHeapPriorityQueue<Integer>((1L << 32) - 100){};
+		for(int i = 0; i < 200; i++)
+			queue.enqueue(i, 1 + i % 3);
+
+		for(int priority = 1; priority <= 3; priority++)
+			for(int i = 0; i < 200; i++)
+				if(1 + i % 3 == priority)
+					assertEquals(Integer.valueOf(i), queue.dequeue());
+		assertTrue(queue.isEmpty());
+		try {
+			new PackedMinHeapPriorityQueue<Integer>((1L << 32) + 1){};
+			fail("A first sequence number past the limit should be rejected.");
+		} catch(IllegalArgumentException ignored){}
+	}
+}
@@ -0,0 +1,80 @@
+package projects.pqueue.priorityqueues.test;
+
+import org.junit.Test;
+import projects.pqueue.InvalidPriorityException;
+import projects.pqueue.priorityqueues.EmptyPriorityQueueException;
+import projects.pqueue.priorityqueues.MinHeapPriorityQueue;
+import projects.pqueue.priorityqueues.PriorityQueue;
+import projects.pqueue.priorityqueues.RadixHeap;
+
+import java.util.Iterator;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * <p>A testing framework for {@link RadixHeap}.</p>
+ *
+ * @see MinHeapPriorityQueueTest
+ */
+public class RadixHeapTest {
+
+	@Test
+	public void testMonotoneWorkloadAgainstMinHeapPriorityQueue() throws InvalidPriorityException, EmptyPriorityQueueException {
+		Random r = new Random(47);
+		RadixHeap<Integer> radix = new RadixHeap<Integer>();
+		PriorityQueue<Integer> reference = new MinHeapPriorityQueue<Integer>();
+		int id = 0;
+		for(int op = 0; op < 50000; op++){
+			if(reference.isEmpty() || r.nextInt(5) < 3){
+				// Mostly small increments over the last dequeued priority, with some ties and some huge jumps.
+				int delta = r.nextInt(10) == 0 ? r.nextInt(1 << 30) : r.nextInt(4);
+				int priority = Math.max(1, radix.getLastPriority() + delta);
+				radix.enqueue(id, priority);
+				reference.enqueue(id, priority);
+				id++;
+			} else {
+				assertEquals(reference.getFirst(), radix.getFirst());
+				assertEquals(reference.dequeue(), radix.dequeue());
+			}
+			assertEquals(reference.size(), radix.size());
+		}
+		Iterator<Integer> expected = reference.iterator();
+		for(Integer i : radix)
+			assertEquals(expected.next(), i);
+		assertFalse(expected.hasNext());
+		while(!reference.isEmpty())
+			assertEquals(reference.dequeue(), radix.dequeue());
+		assertTrue(radix.isEmpty());
+	}
+
+	@Test
+	public void testRejectedPriorities() throws InvalidPriorityException, EmptyPriorityQueueException {
+		RadixHeap<String> heap = new RadixHeap<String>();
+		try {
+			heap.enqueue("zero", 0);
+			fail("A priority of 0 should be rejected.");
+		} catch(InvalidPriorityException ignored){}
+		heap.enqueue("ten", 10);
+		heap.enqueue("twenty", 20);
+		assertEquals("ten", heap.getFirst());
+		heap.enqueue("five", 5); // Nothing was dequeued yet, so this is fine.
+		assertEquals("five", heap.dequeue());
+		try {
+			heap.enqueue("four", 4);
+			fail("A priority below that of the last dequeued element should be rejected.");
+		} catch(InvalidPriorityException ignored){}
+		heap.enqueue("another five", 5);
+		assertEquals("another five", heap.dequeue());
+		assertEquals("ten", heap.dequeue());
+		heap.clear();
+		assertTrue(heap.isEmpty());
+		assertEquals(0, heap.getLastPriority());
+		heap.enqueue("one", 1); // Allowed again after clear().
+		assertEquals("one", heap.dequeue());
+		try {
+			heap.dequeue();
+			fail("dequeue() on an empty heap should throw an EmptyPriorityQueueException.");
+		} catch(EmptyPriorityQueueException ignored){}
+	}
+}